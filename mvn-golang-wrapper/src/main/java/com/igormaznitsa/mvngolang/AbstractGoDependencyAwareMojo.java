@@ -20,31 +20,51 @@ import com.igormaznitsa.meta.annotation.MustNotContainNull;
 import com.igormaznitsa.mvngolang.utils.*;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.filefilter.FileFilterUtils;
-import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.transfer.artifact.resolve.ArtifactResolverException;
-import org.zeroturnaround.zip.ZipUtil;
+import org.zeroturnaround.exec.ProcessExecutor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.regex.Pattern;
+import java.util.zip.ZipFile;
 
 import static com.igormaznitsa.meta.common.utils.Assertions.assertNotNull;
 
 public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
 
-  public static final String GO_MOD_FILE_NAME_BAK = ".#go.mod.mvn.orig";
-  public static final String DELETE_GO_SUM_FLAG_FILE = ".#go.mod.mvn.delete.sum";
+  public static final String DEPENDENCY_STORE_FOLDER = ".deps";
+  public static final String MOD_FILE_FOLDER = ".__modfile__";
+  public static final String GO_PROXY_FOLDER = ".__goproxy__";
+  public static final String GO_WORK_FOLDER = ".__gowork__";
+  private static final String GO_WORK_MIN_VERSION = "1.18";
+  private static final String DEFAULT_UPSTREAM_GO_PROXY = "https://proxy.golang.org,direct";
+  private static final Pattern SEMVER = Pattern.compile("\\d+\\.\\d+\\.\\d+(-[0-9A-Za-z.-]+)?");
 
   /**
    * Flag shows that sum file should be deleted during build.
@@ -64,6 +84,18 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
    */
   private String extraGoPathSectionInOsFormat = "";
 
+  /**
+   * Internal map of go.mod files in unpacked dependency folders, detected
+   * during unpack to avoid folder scanning.
+   */
+  private final Map<File, List<File>> unpackedGoMods = new ConcurrentHashMap<>();
+
+  /**
+   * Internal set of source folders of reactor projects linked instead of
+   * unpacked artifacts, files in them must not be changed.
+   */
+  private final Set<File> linkedFolders = new HashSet<>();
+
   /**
    * Find artifacts generated by Mvn-Golang among scope dependencies, unpack
    * them and add unpacked folders into GOPATH during execution.
@@ -102,6 +134,219 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
   @Parameter(name = "syncSessionIfModules", defaultValue = "true")
   private boolean syncSessionIfModules;
 
+  /**
+   * Max number of threads to resolve mvn-golang dependency artifacts, if zero
+   * or negative then number of available processors is used, 1 means
+   * sequential resolving. Can be defined through property
+   * 'mvn.golang.resolve.threads'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "resolveThreads", defaultValue = "0")
+  private int resolveThreads;
+
+  public int getResolveThreads() {
+    final int value = Integer.parseInt(findMvnProperty("mvn.golang.resolve.threads",
+            Integer.toString(this.resolveThreads)).trim());
+    return value <= 0 ? Runtime.getRuntime().availableProcessors() : value;
+  }
+
+  public void setResolveThreads(final int value) {
+    this.resolveThreads = value;
+  }
+
+  /**
+   * Use machine-wide store of unpacked dependency archives placed in the store
+   * folder. Every archive is unpacked only once and folders are shared between
+   * modules and builds. Not used in module mode because go.mod files of
+   * dependencies are changed. Can be defined through property
+   * 'mvn.golang.dependency.store'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "useDependencyStore", defaultValue = "false")
+  private boolean useDependencyStore;
+
+  /**
+   * Number of days after last use when folder will be removed from the
+   * dependency store. Can be defined through property
+   * 'mvn.golang.dependency.store.max.age'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "dependencyStoreMaxAge", defaultValue = "30")
+  private int dependencyStoreMaxAge = 30;
+
+  /**
+   * Max number of threads to unpack dependency archives and to write their
+   * entries, if zero or negative then number of available processors is used,
+   * 1 means sequential unpacking. Can be defined through property
+   * 'mvn.golang.unpack.threads'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "unpackThreads", defaultValue = "0")
+  private int unpackThreads;
+
+  public int getUnpackThreads() {
+    final int value = Integer.parseInt(findMvnProperty("mvn.golang.unpack.threads",
+            Integer.toString(this.unpackThreads)).trim());
+    return value <= 0 ? Runtime.getRuntime().availableProcessors() : value;
+  }
+
+  public void setUnpackThreads(final int value) {
+    this.unpackThreads = value;
+  }
+
+  /**
+   * Cache resolved mvn-golang artifacts and their dependency descriptors for
+   * whole maven session, so that they are processed once for all modules and
+   * goals. Can be defined through property 'mvn.golang.graph.cache'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "useGraphCache", defaultValue = "true")
+  private boolean useGraphCache = true;
+
+  public boolean isUseGraphCache() {
+    return Boolean.parseBoolean(findMvnProperty("mvn.golang.graph.cache",
+            Boolean.toString(this.useGraphCache)));
+  }
+
+  public void setUseGraphCache(final boolean value) {
+    this.useGraphCache = value;
+  }
+
+  /**
+   * In module mode, don't change go.mod in sources but generate changed go.mod
+   * and go.sum in the project build folder and provide them to go through
+   * '-modfile', so that the session is not synchronized for modules. Can be
+   * defined through property 'mvn.golang.use.modfile'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "useModFile", defaultValue = "false")
+  private boolean useModFile = false;
+
+  /**
+   * Internal variable to keep generated go.mod overlay file.
+   */
+  private File modFileOverlay;
+
+  public boolean isUseModFile() {
+    return Boolean.parseBoolean(findMvnProperty("mvn.golang.use.modfile",
+            Boolean.toString(this.useModFile)));
+  }
+
+  public void setUseModFile(final boolean value) {
+    this.useModFile = value;
+  }
+
+  /**
+   * In module mode, provide go.mod files of unpacked mvn-golang dependencies
+   * to the go tool through GOPROXY folder generated in the project build
+   * folder instead of replace directives. Modules are provided with versions
+   * required by go.mod files and with maven artifact version if it is
+   * semantic one. Keep in mind that the go tool caches module versions, so
+   * that changed content of the same version is not visible without cleaning
+   * of the module cache. Can be defined through property
+   * 'mvn.golang.use.goproxy'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "useGoProxy", defaultValue = "false")
+  private boolean useGoProxy = false;
+
+  /**
+   * Internal variable to keep generated module proxy.
+   */
+  private GoModuleProxy goModuleProxy;
+
+  public boolean isUseGoProxy() {
+    return Boolean.parseBoolean(findMvnProperty("mvn.golang.use.goproxy",
+            Boolean.toString(this.useGoProxy)));
+  }
+
+  public void setUseGoProxy(final boolean value) {
+    this.useGoProxy = value;
+  }
+
+  /**
+   * In module mode, generate go.work workspace file in build folder of the
+   * top level project and provide it to the go tool through GOWORK. The
+   * workspace contains modules of all mvn-golang projects in the reactor and
+   * modules of unpacked mvn-golang dependencies, go.mod files are not changed.
+   * Requires GoSDK 1.18+. Can be defined through property
+   * 'mvn.golang.use.gowork'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "useGoWork", defaultValue = "false")
+  private boolean useGoWork = false;
+
+  /**
+   * Internal variable to keep generated go.work file.
+   */
+  private File goWorkFile;
+
+  public boolean isUseGoWork() {
+    return Boolean.parseBoolean(findMvnProperty("mvn.golang.use.gowork",
+            Boolean.toString(this.useGoWork)));
+  }
+
+  public void setUseGoWork(final boolean value) {
+    this.useGoWork = value;
+  }
+
+  /**
+   * Use source folders of mvn-golang projects from the same reactor instead of
+   * resolving and unpacking of their artifacts. In GOPATH mode only projects
+   * with source folder named 'src' can be linked. Can be defined through
+   * property 'mvn.golang.link.reactor'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "linkReactorProjects", defaultValue = "false")
+  private boolean linkReactorProjects = false;
+
+  public boolean isLinkReactorProjects() {
+    return Boolean.parseBoolean(findMvnProperty("mvn.golang.link.reactor",
+            Boolean.toString(this.linkReactorProjects)));
+  }
+
+  public void setLinkReactorProjects(final boolean value) {
+    this.linkReactorProjects = value;
+  }
+
+  /**
+   * Get go.mod file generated for '-modfile' flag.
+   *
+   * @return generated file or null if go.mod in sources should be used
+   * @since 2.3.10
+   */
+  @Nullable
+  public File getModFileOverlay() {
+    return this.modFileOverlay;
+  }
+
+  public boolean isUseDependencyStore() {
+    return Boolean.parseBoolean(findMvnProperty("mvn.golang.dependency.store",
+            Boolean.toString(this.useDependencyStore)));
+  }
+
+  public void setUseDependencyStore(final boolean value) {
+    this.useDependencyStore = value;
+  }
+
+  public int getDependencyStoreMaxAge() {
+    return Integer.parseInt(findMvnProperty("mvn.golang.dependency.store.max.age",
+            Integer.toString(this.dependencyStoreMaxAge)).trim());
+  }
+
+  public void setDependencyStoreMaxAge(final int days) {
+    this.dependencyStoreMaxAge = days;
+  }
+
   public boolean isSyncSessionIfModules() {
     return Boolean.parseBoolean(findMvnProperty("mvn.golang.sync.session.if.modules",
             Boolean.toString(this.syncSessionIfModules)));
@@ -163,9 +408,25 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
           @Nonnull @MustNotContainNull final List<Tuple<Artifact, File>> unpackedDependencyFolders)
           throws MojoExecutionException {
     try {
+      if (this.isUseGoWork()) {
+        this.makeGoWork(unpackedDependencyFolders);
+        return;
+      }
+
+      if (this.isUseGoProxy()) {
+        this.makeGoModuleProxy(unpackedDependencyFolders);
+        return;
+      }
+
       final List<Tuple<Artifact, Tuple<GoMod, File>>> lst =
               preprocessModuleFilesInDependencies(unpackedDependencyFolders);
-      final List<Tuple<GoMod, File>> dependencyGoMods = listRightPart(lst);
+      final Map<String, Tuple<GoMod, File>> dependencyModules =
+              makeModuleIndex(listRightPart(lst));
+
+      if (this.isUseModFile()) {
+        this.makeModFileOverlay(dependencyModules, Collections.emptySet());
+        return;
+      }
 
       final List<Tuple<Artifact, Tuple<GoMod, File>>> projectGoMods = findModsInProject();
 
@@ -203,8 +464,8 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
         if (goModFile.isFile()) {
           final GoMod parsed =
                   GoMod.from(FileUtils.readFileToString(goModFile, StandardCharsets.UTF_8));
-          if (replaceLinksToModules(Tuple.of(parsed, goModFile), dependencyGoMods)) {
-            FileUtils.write(goModFile, parsed.toString(), StandardCharsets.UTF_8);
+          if (replaceLinksToModules(Tuple.of(parsed, goModFile), dependencyModules)) {
+            FileUtils.write(goModFile, parsed.toSource(), StandardCharsets.UTF_8);
           }
           if (deleteSum && sumFile.isFile() && !deleteSumFileFlag.isFile() &&
                   !deleteSumFileFlag.createNewFile()) {
@@ -217,6 +478,250 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
     }
   }
 
+  private void makeGoWork(
+          @Nonnull @MustNotContainNull final List<Tuple<Artifact, File>> unpackedDependencyFolders)
+          throws IOException {
+    this.goWorkFile = null;
+
+    final List<Tuple<Artifact, Tuple<GoMod, File>>> goMods = new ArrayList<>(findModsInProject());
+    for (final MavenProject p : this.getSession().getProjects()) {
+      if (p != this.getProject() && GOARTIFACT_PACKAGING.equals(p.getPackaging())) {
+        final File sourceFolder = new File(p.getBuild().getSourceDirectory());
+        if (sourceFolder.isDirectory()) {
+          goMods.addAll(findGoModsAndParse(
+                  Collections.singletonList(Tuple.of(p.getArtifact(), sourceFolder))));
+        }
+      }
+    }
+    goMods.addAll(findGoModsAndParse(unpackedDependencyFolders));
+
+    // the go tool doesn't allow the same module twice in workspace, the first one wins
+    final Map<String, File> modules = new LinkedHashMap<>();
+    final List<GoMod> usedGoMods = new ArrayList<>();
+    for (final Tuple<Artifact, Tuple<GoMod, File>> t : goMods) {
+      final String module = t.right().left().getModule();
+      if (module == null) {
+        continue;
+      }
+      final File folder = t.right().right().getParentFile().getAbsoluteFile();
+      final File existing = modules.putIfAbsent(module, folder);
+      if (existing == null) {
+        usedGoMods.add(t.right().left());
+      } else if (!existing.equals(folder)) {
+        this.getLog().debug(String.format("Module %s is ignored in %s because already provided by %s",
+                module, folder, existing));
+      }
+    }
+
+    if (modules.isEmpty()) {
+      this.getLog().debug("There is no any module for go.work");
+      return;
+    }
+
+    final MavenProject topProject = this.getSession().getTopLevelProject() == null
+            ? this.getProject() : this.getSession().getTopLevelProject();
+    final File workFolder = new File(topProject.getBuild().getDirectory(),
+            GO_WORK_FOLDER + File.separatorChar
+                    + this.getProject().getGroupId() + '.' + this.getProject().getArtifactId());
+    if (!workFolder.isDirectory() && !workFolder.mkdirs()) {
+      throw new IOException("Can't create folder: " + workFolder);
+    }
+
+    final File workFile = new File(workFolder, "go.work");
+    FileUtils.write(workFile, makeGoWorkText(usedGoMods, modules.values()),
+            StandardCharsets.UTF_8);
+    this.getLog().info(String.format("Generated go.work with %d module(s): %s", modules.size(), workFile));
+    this.goWorkFile = workFile;
+  }
+
+  /**
+   * Make text of go.work file, its go version is the max one among modules but
+   * not less than 1.18 where workspaces were introduced.
+   *
+   * @param goMods  go.mod files of modules, must not be null
+   * @param folders folders of modules, must not be null
+   * @return text of go.work file
+   */
+  @Nonnull
+  static String makeGoWorkText(@Nonnull @MustNotContainNull final Collection<GoMod> goMods,
+                               @Nonnull @MustNotContainNull final Collection<File> folders) {
+    String goVersion = GO_WORK_MIN_VERSION;
+    for (final GoMod m : goMods) {
+      for (final GoMod.GoVersion v : m.find(GoMod.GoVersion.class)) {
+        if (GoMod.GoVersion.compare(v.getVersion(), goVersion) > 0) {
+          goVersion = v.getVersion();
+        }
+      }
+    }
+
+    final StringBuilder buffer = new StringBuilder("go ").append(goVersion).append("\n\nuse (\n");
+    for (final File folder : new TreeSet<>(folders)) {
+      final String path = FilenameUtils.separatorsToUnix(folder.getPath());
+      buffer.append('\t').append(path.contains(" ") ? '\"' + path + '\"' : path).append('\n');
+    }
+    return buffer.append(")\n").toString();
+  }
+
+  private void makeGoModuleProxy(
+          @Nonnull @MustNotContainNull final List<Tuple<Artifact, File>> unpackedDependencyFolders)
+          throws IOException {
+    this.goModuleProxy = null;
+
+    final List<Tuple<Artifact, Tuple<GoMod, File>>> dependencyGoMods =
+            findGoModsAndParse(unpackedDependencyFolders);
+
+    final Map<String, Set<String>> requiredVersions = new HashMap<>();
+    final List<Tuple<Artifact, Tuple<GoMod, File>>> allGoMods = new ArrayList<>(dependencyGoMods);
+    allGoMods.addAll(findModsInProject());
+    for (final Tuple<Artifact, Tuple<GoMod, File>> t : allGoMods) {
+      for (final GoMod.GoRequire r : t.right().left().find(GoMod.GoRequire.class)) {
+        final String version = r.getModuleInfo().getVersion();
+        if (version != null) {
+          requiredVersions.computeIfAbsent(r.getModuleInfo().getName(), k -> new TreeSet<>())
+                  .add(version);
+        }
+      }
+    }
+
+    final File proxyFolder = new File(this.getProject().getBuild().getDirectory(), GO_PROXY_FOLDER);
+    if (proxyFolder.isDirectory()) {
+      FileUtils.deleteDirectory(proxyFolder);
+    }
+    final GoModuleProxy proxy = new GoModuleProxy(proxyFolder);
+
+    for (final Tuple<Artifact, Tuple<GoMod, File>> t : dependencyGoMods) {
+      final String module = t.right().left().getModule();
+      if (module == null || proxy.getModules().contains(module)) {
+        continue;
+      }
+      final Set<String> versions =
+              new TreeSet<>(requiredVersions.getOrDefault(module, Collections.emptySet()));
+      final String artifactVersion = t.left().getVersion();
+      if (artifactVersion != null && SEMVER.matcher(artifactVersion).matches()) {
+        versions.add('v' + artifactVersion);
+      }
+      if (versions.isEmpty()) {
+        this.getLog().debug("Module doesn't have any version to be provided through proxy: " + module);
+        continue;
+      }
+      final File artifactFile = t.left().getFile();
+      final long time = (artifactFile == null ? t.right().right() : artifactFile).lastModified();
+      for (final String v : versions) {
+        this.getLog().debug(String.format("Adding module into proxy: %s@%s", module, v));
+        proxy.addModule(module, v, t.right().right().getParentFile(), time);
+      }
+    }
+    proxy.writeLists();
+
+    if (proxy.getModules().isEmpty()) {
+      this.getLog().debug("There is no any module to be provided through proxy");
+    } else {
+      this.getLog().info(String.format("Generated GOPROXY folder with %d module(s): %s",
+              proxy.getModules().size(), proxyFolder));
+      this.goModuleProxy = proxy;
+    }
+    this.makeModFileOverlay(Collections.emptyMap(), proxy.getSumRecords());
+  }
+
+  @Override
+  protected void registerEnvVars(
+          @Nonnull final ProcessExecutor result,
+          @Nonnull final File theGoRoot,
+          @Nullable final String theGoBin,
+          @Nullable final String theGoCache,
+          @Nonnull final File sourcesFile,
+          @MustNotContainNull @Nonnull final File[] goPathParts
+  ) throws IOException {
+    super.registerEnvVars(result, theGoRoot, theGoBin, theGoCache, sourcesFile, goPathParts);
+    if (this.goWorkFile != null) {
+      this.addEnvVar(result, "GOWORK", this.goWorkFile.getAbsolutePath());
+    }
+    if (this.goModuleProxy != null) {
+      final String upstream = this.findEnvValue("GOPROXY", DEFAULT_UPSTREAM_GO_PROXY);
+      this.addEnvVar(result, "GOPROXY", this.goModuleProxy.makeGoProxyValue(upstream));
+
+      final StringBuilder noSumDb = new StringBuilder(this.findEnvValue("GONOSUMDB", ""));
+      for (final String module : this.goModuleProxy.getModules()) {
+        if (noSumDb.length() > 0) {
+          noSumDb.append(',');
+        }
+        noSumDb.append(module);
+      }
+      this.addEnvVar(result, "GONOSUMDB", noSumDb.toString());
+    }
+  }
+
+  @Nonnull
+  private String findEnvValue(@Nonnull final String name, @Nonnull final String dflt) {
+    final Object value = this.getEnv().get(name);
+    if (value != null) {
+      return value.toString();
+    }
+    final String system = System.getenv(name);
+    return system == null || system.trim().isEmpty() ? dflt : system;
+  }
+
+  void makeModFileOverlay(
+          @Nonnull final Map<String, Tuple<GoMod, File>> dependencyModules,
+          @Nonnull @MustNotContainNull final Set<String> extraSumRecords) throws IOException {
+    this.modFileOverlay = null;
+
+    final File workingFolder;
+    try {
+      workingFolder = this.getWorkingDirectoryForExecutor();
+    } catch (IOException ex) {
+      this.getLog().debug("Can't detect module folder, overlay go.mod is not generated: " + ex.getMessage());
+      return;
+    }
+
+    final File goModFile = new File(workingFolder, GO_MOD_FILE_NAME);
+    if (!goModFile.isFile()) {
+      this.getLog().debug("There is no go.mod in working folder, overlay go.mod is not generated: " + workingFolder);
+      return;
+    }
+
+    final File goSumFile = new File(workingFolder, GO_SUM_FILE_NAME);
+    final String goSum = !this.isDeleteSumFile() && goSumFile.isFile()
+            ? FileUtils.readFileToString(goSumFile, StandardCharsets.UTF_8) : "";
+    final Set<String> missingSumRecords = new TreeSet<>(extraSumRecords);
+    for (final String line : goSum.split("\\r?\\n")) {
+      missingSumRecords.remove(line.trim());
+    }
+
+    final GoMod parsed = GoMod.from(FileUtils.readFileToString(goModFile, StandardCharsets.UTF_8));
+    if (!replaceLinksToModules(Tuple.of(parsed, goModFile), dependencyModules)
+            && missingSumRecords.isEmpty()) {
+      this.getLog().debug("go.mod doesn't need changes, overlay is not generated: " + goModFile);
+      return;
+    }
+
+    final File overlayFolder = new File(this.getProject().getBuild().getDirectory(), MOD_FILE_FOLDER);
+    if (!overlayFolder.isDirectory() && !overlayFolder.mkdirs()) {
+      throw new IOException("Can't create folder: " + overlayFolder);
+    }
+    final File overlayGoMod = new File(overlayFolder, GO_MOD_FILE_NAME);
+    final File overlayGoSum = new File(overlayFolder, GO_SUM_FILE_NAME);
+
+    FileUtils.write(overlayGoMod, parsed.toSource(), StandardCharsets.UTF_8);
+    if (goSum.isEmpty() && missingSumRecords.isEmpty()) {
+      if (overlayGoSum.isFile() && !overlayGoSum.delete()) {
+        throw new IOException("Can't delete file " + overlayGoSum);
+      }
+    } else {
+      final StringBuilder buffer = new StringBuilder(goSum);
+      if (buffer.length() > 0 && buffer.charAt(buffer.length() - 1) != '\n') {
+        buffer.append('\n');
+      }
+      for (final String record : missingSumRecords) {
+        buffer.append(record).append('\n');
+      }
+      FileUtils.write(overlayGoSum, buffer.toString(), StandardCharsets.UTF_8);
+    }
+
+    this.getLog().debug("Generated overlay go.mod: " + overlayGoMod);
+    this.modFileOverlay = overlayGoMod;
+  }
+
   @Nonnull
   @MustNotContainNull
   private List<Tuple<Artifact, Tuple<GoMod, File>>> findGoModsAndParse(
@@ -225,9 +730,9 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
     final List<Tuple<Artifact, Tuple<GoMod, File>>> result = new ArrayList<>();
 
     for (final Tuple<Artifact, File> tuple : unpackedFolders) {
-      for (final File f : FileUtils
-              .listFiles(tuple.right(), FileFilterUtils.nameFileFilter("go.mod"),
-                      TrueFileFilter.INSTANCE)) {
+      final List<File> knownGoMods = this.unpackedGoMods.get(tuple.right());
+      for (final File f : knownGoMods == null ? this.findAllGoModsInFolder(tuple.right())
+              : knownGoMods) {
         final GoMod model = GoMod.from(FileUtils.readFileToString(f, StandardCharsets.UTF_8));
         result.add(Tuple.of(tuple.left(), Tuple.of(model, f)));
       }
@@ -236,27 +741,41 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
     return result;
   }
 
+  /**
+   * Make map of go.mod descriptors by their module paths, if several
+   * descriptors have the same module path then the first one is used.
+   *
+   * @param goMods parsed go.mod descriptors, must not be null
+   * @return map of descriptors by module path
+   */
+  @Nonnull
+  private static Map<String, Tuple<GoMod, File>> makeModuleIndex(
+          @Nonnull @MustNotContainNull final List<Tuple<GoMod, File>> goMods) {
+    final Map<String, Tuple<GoMod, File>> result = new HashMap<>();
+    for (final Tuple<GoMod, File> t : goMods) {
+      final String module = t.left().getModule();
+      if (module != null) {
+        result.putIfAbsent(module, t);
+      }
+    }
+    return result;
+  }
+
   private boolean replaceLinksToModules(@Nonnull final Tuple<GoMod, File> source,
-                                        @Nonnull @MustNotContainNull final List<Tuple<GoMod, File>> targets) throws IOException {
-    boolean changed = false;
-    for (final Tuple<GoMod, File> j : targets) {
-      if (!source.equals(j)) {
-        final GoMod thatParsedGoMod = j.left();
-        final File thatGoModFile = j.right();
-
-        if (source.left().hasRequireFor(thatParsedGoMod.getModule(), null) &&
-                !source.left().hasReplaceFor(thatParsedGoMod.getModule(), null)) {
-
-          final String relativePath = makeRelativePathToFolder(source.right().getParentFile(),
-                  thatGoModFile.getParentFile());
-          source.left().addItem(
-                  new GoMod.GoReplace(new GoMod.ModuleInfo(thatParsedGoMod.getModule()),
-                          new GoMod.ModuleInfo(relativePath)));
-          changed = true;
-        }
+                                        @Nonnull final Map<String, Tuple<GoMod, File>> moduleIndex) {
+    final List<GoMod.GoReplace> replaces = new ArrayList<>();
+    for (final String module : source.left().getRequiredModules()) {
+      final Tuple<GoMod, File> target = moduleIndex.get(module);
+      if (target != null && !target.right().equals(source.right())
+              && !source.left().hasReplaceFor(module, null)) {
+        final String relativePath = makeRelativePathToFolder(source.right().getParentFile(),
+                target.right().getParentFile());
+        replaces.add(new GoMod.GoReplace(new GoMod.ModuleInfo(module),
+                new GoMod.ModuleInfo(relativePath)));
       }
     }
-    return changed;
+    source.left().addItems(replaces);
+    return !replaces.isEmpty();
   }
 
   @Nonnull
@@ -276,11 +795,15 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
     int changes = 0;
 
     final List<Tuple<GoMod, File>> parsed = listRightPart(unpackedFolders);
+    final Map<String, Tuple<GoMod, File>> moduleIndex = makeModuleIndex(parsed);
 
     for (final Tuple<GoMod, File> i : parsed) {
-      if (replaceLinksToModules(i, parsed)) {
+      if (isInLinkedFolder(i.right())) {
+        continue;
+      }
+      if (replaceLinksToModules(i, moduleIndex)) {
         changes++;
-        FileUtils.write(i.right(), i.left().toString(), StandardCharsets.UTF_8);
+        FileUtils.write(i.right(), i.left().toSource(), StandardCharsets.UTF_8);
       }
     }
     return changes;
@@ -329,7 +852,11 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
                 this.getSession(),
                 this.getExecution(),
                 this.getArtifactResolver(),
-                this.getRemoteRepositories());
+                this.getRemoteRepositories(),
+                this.getResolveThreads(),
+                this.isUseGraphCache() ? ArtifactGraphCache.forSession(this.getSession()) : null,
+                this.isLinkReactorProjects() ? this.findLinkableReactorProjects()
+                        : Collections.emptyMap());
       } catch (ArtifactResolverException ex) {
         throw new MojoFailureException("Can't resolve artifact", ex);
       }
@@ -368,15 +895,43 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
     }
   }
 
+  @Nonnull
+  private Map<String, MavenProject> findLinkableReactorProjects() {
+    final Map<String, MavenProject> result = new HashMap<>();
+    for (final MavenProject p : this.getSession().getProjects()) {
+      if (p == this.getProject() || !GOARTIFACT_PACKAGING.equals(p.getPackaging())) {
+        continue;
+      }
+      final File sourceFolder = new File(p.getBuild().getSourceDirectory());
+      if (!sourceFolder.isDirectory()) {
+        this.getLog().debug("Reactor project is not linked because there is no source folder: " + p);
+      } else if (!this.isModuleMode() && !"src".equals(sourceFolder.getName())) {
+        this.getLog().debug("Reactor project is not linked into GOPATH because source folder is not 'src': " + p);
+      } else {
+        result.put(MavenUtils.makeProjectKey(p.getArtifact()), p);
+      }
+    }
+    return result;
+  }
+
+  private boolean isInLinkedFolder(@Nonnull final File file) {
+    File current = file.getParentFile();
+    while (current != null) {
+      if (this.linkedFolders.contains(current)) {
+        return true;
+      }
+      current = current.getParentFile();
+    }
+    return false;
+  }
+
   public boolean isIgnoreNonResolvableArtifact() {
     return false;
   }
 
   private void restoreGoModFromBackupAndRemoveBackup(@Nonnull final File folder)
           throws IOException {
-    final Collection<File> backupFiles = FileUtils
-            .listFiles(folder, FileFilterUtils.nameFileFilter(GO_MOD_FILE_NAME_BAK),
-                    TrueFileFilter.INSTANCE);
+    final Collection<File> backupFiles = this.scanSourceTree(folder).get(GO_MOD_FILE_NAME_BAK);
 
     this.getLog().debug(String
             .format("Restoring go.mod from backup in %s, detected %d files", folder,
@@ -439,7 +994,8 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
 
   @Override
   protected boolean doesNeedSessionLock() {
-    return this.getSession().isParallel() && this.isModuleMode() && this.isSyncSessionIfModules();
+    return this.getSession().isParallel() && this.isModuleMode() && this.isSyncSessionIfModules()
+            && !this.isUseModFile() && !this.isUseGoProxy() && !this.isUseGoWork();
   }
 
   protected boolean isRestoreGoMod() {
@@ -449,9 +1005,9 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
 
   @Nonnull
   @MustNotContainNull
-  private List<Tuple<Artifact, File>> unpackArtifactsIntoFolder(@Nonnull
-                                                                @MustNotContainNull final List<Tuple<Artifact, File>> zippedArtifacts,
-                                                                @Nonnull final File targetFolder)
+  List<Tuple<Artifact, File>> unpackArtifactsIntoFolder(@Nonnull
+                                                        @MustNotContainNull final List<Tuple<Artifact, File>> zippedArtifacts,
+                                                        @Nonnull final File targetFolder)
           throws MojoExecutionException {
     final List<Tuple<Artifact, File>> resultFolders = new ArrayList<>();
 
@@ -460,89 +1016,256 @@ public abstract class AbstractGoDependencyAwareMojo extends AbstractGolangMojo {
               "Can't create folder to unpack dependencies: " + targetFolder);
     }
 
-    for (final Tuple<Artifact, File> zipFile : zippedArtifacts) {
-      if (this.isVerbose()) {
-        this.getLog().info("mvn-golang dependency: " + zipFile.left());
-      }
-      final File outDir =
-              new File(targetFolder, FilenameUtils.getBaseName(zipFile.right().getName()));
-
-      final boolean doUnpackArch;
-      if (outDir.isDirectory()) {
-        this.getLog().debug("Unpacked dependency folder already exists: " + outDir);
-        if (Boolean.parseBoolean(MavenUtils
-                .findProperty(this.getSession(), this.getProject(), "mvn.golang.force.clean.dependency",
-                        "false"))) {
-          this.getLog().debug("Forcing dependency folder delete: " + outDir);
-          try {
-            FileUtils.deleteDirectory(outDir);
-          } catch (IOException ex) {
-            throw new MojoExecutionException("Can't delete dependency folder: " + outDir, ex);
-          }
-          doUnpackArch = true;
-        } else {
-          getLog().debug("Ignoring dependency unpack because folder exists: " + outDir);
-          doUnpackArch = false;
-        }
+    final DependencyStore store;
+    if (this.isUseDependencyStore()) {
+      if (this.isModuleMode()) {
+        this.getLog().debug("Dependency store is not used because go.mod files of dependencies are changed in module mode");
+        store = null;
       } else {
-        doUnpackArch = true;
-      }
-
-      if (doUnpackArch) {
-        if (ZipUtil
-                .containsEntry(zipFile.right(), GolangMvnInstallMojo.MVNGOLANG_BUILD_FOLDERS_FILE)) {
-          final File srcTargetFolder = new File(outDir, "src");
-          try {
-            unzipSrcFoldersContent(zipFile.right(), srcTargetFolder);
-          } catch (Exception ex) {
-            throw new MojoExecutionException(
-                    "Can't unpack source folders from dependency archive '" +
-                            zipFile.right().getName() + "' into folder '" + srcTargetFolder + '\'', ex);
+        store = new DependencyStore(new File(this.getStoreFolder(), DEPENDENCY_STORE_FOLDER));
+        this.getLog().debug("Dependency store: " + store.getFolder());
+      }
+    } else {
+      store = null;
+    }
+
+    final int unpackThreads = this.getUnpackThreads();
+    final ExecutorService writers = unpackThreads > 1
+            ? Executors.newFixedThreadPool(unpackThreads) : null;
+    final ExecutorService archives = unpackThreads > 1 && zippedArtifacts.size() > 1
+            ? Executors.newFixedThreadPool(Math.min(unpackThreads, zippedArtifacts.size())) : null;
+    try {
+      // archives unpacked into the same folder are processed sequentially in the same task
+      final File[] folders = new File[zippedArtifacts.size()];
+      final Exception[] errors = new Exception[zippedArtifacts.size()];
+      final Map<File, List<Integer>> groups = new LinkedHashMap<>();
+      for (int i = 0; i < zippedArtifacts.size(); i++) {
+        final File file = zippedArtifacts.get(i).right();
+        if (file.isDirectory()) {
+          // source folder of linked reactor project, GOPATH needs its parent
+          this.getLog().debug("Linked reactor project sources: " + file);
+          this.linkedFolders.add(file);
+          folders[i] = this.isModuleMode() ? file : file.getParentFile();
+          continue;
+        }
+        final File groupKey = store == null
+                ? this.makeUnpackFolder(targetFolder, zippedArtifacts.get(i).left())
+                : zippedArtifacts.get(i).right();
+        groups.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(i);
+      }
+
+      final List<Future<?>> futures = new ArrayList<>();
+      for (final List<Integer> group : groups.values()) {
+        final Runnable task = () -> {
+          for (final Integer index : group) {
+            try {
+              folders[index] = this.unpackArtifact(zippedArtifacts.get(index), targetFolder, store, writers);
+            } catch (Exception ex) {
+              errors[index] = ex;
+            }
           }
+        };
+        if (archives == null) {
+          task.run();
         } else {
-          try {
-            getLog().debug("Unpack dependency archive: " + zipFile);
-            ZipUtil.unpack(zipFile.right(), outDir, StandardCharsets.UTF_8);
-          } catch (Exception ex) {
-            throw new MojoExecutionException(
-                    "Can't unpack dependency archive '" + zipFile.right().getName() +
-                            "' into folder '" + targetFolder + '\'', ex);
+          futures.add(archives.submit(task));
+        }
+      }
+      for (final Future<?> f : futures) {
+        try {
+          f.get();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new MojoExecutionException("Interrupted unpack of dependencies", ex);
+        } catch (ExecutionException ex) {
+          throw new MojoExecutionException("Unexpected error during unpack of dependencies", ex.getCause());
+        }
+      }
+
+      Exception firstError = null;
+      int errorCounter = 0;
+      for (int i = 0; i < errors.length; i++) {
+        if (errors[i] != null) {
+          this.getLog().error("Can't unpack dependency " + zippedArtifacts.get(i).left() + ": "
+                  + errors[i].getMessage());
+          errorCounter++;
+          if (firstError == null) {
+            firstError = errors[i];
           }
         }
       }
+      if (firstError != null) {
+        throw new MojoExecutionException(
+                String.format("Can't unpack %d dependency archive(s): %s", errorCounter,
+                        firstError.getMessage()), firstError);
+      }
+
+      for (int i = 0; i < folders.length; i++) {
+        resultFolders.add(Tuple.of(zippedArtifacts.get(i).left(), assertNotNull(folders[i])));
+      }
 
-      resultFolders.add(Tuple.of(zipFile.left(), outDir));
+      if (store != null) {
+        try {
+          final int removed = store.collectGarbage(
+                  TimeUnit.DAYS.toMillis(this.getDependencyStoreMaxAge()));
+          if (removed > 0) {
+            this.getLog().debug(String.format("Removed %d not used folders from dependency store", removed));
+          }
+        } catch (IOException ex) {
+          this.getLog().warn("Can't collect garbage in dependency store: " + ex.getMessage());
+        }
+      }
+    } finally {
+      if (archives != null) {
+        archives.shutdownNow();
+      }
+      if (writers != null) {
+        writers.shutdownNow();
+      }
     }
+
     return resultFolders;
   }
 
-  private boolean unzipSrcFoldersContent(@Nonnull final File artifactZip,
-                                         @Nonnull final File targetFolder) {
-    final byte[] buildFolderListFile =
-            ZipUtil.unpackEntry(artifactZip, GolangMvnInstallMojo.MVNGOLANG_BUILD_FOLDERS_FILE);
-    if (buildFolderListFile == null) {
-      return false;
-    } else {
-      final List<String> folderList = new ArrayList<>();
-      for (final String folder : new String(buildFolderListFile, StandardCharsets.UTF_8)
-              .split("\\n")) {
-        final String trimmed = folder.trim();
-        if (trimmed.isEmpty()) {
-          continue;
+  /**
+   * Make folder to unpack artifact, it is unique for artifact coordinates
+   * because every folder keeps unpack stamp of single archive.
+   *
+   * @param targetFolder root folder for unpacked dependencies, must not be null
+   * @param artifact     artifact to be unpacked, must not be null
+   * @return folder for the artifact
+   */
+  @Nonnull
+  private File makeUnpackFolder(@Nonnull final File targetFolder, @Nonnull final Artifact artifact) {
+    final String classifier = artifact.getClassifier();
+    return new File(new File(targetFolder, artifact.getGroupId()),
+            artifact.getArtifactId() + '-' + artifact.getBaseVersion()
+                    + (classifier == null || classifier.isEmpty() ? "" : '-' + classifier));
+  }
+
+  @Nonnull
+  private File unpackArtifact(@Nonnull final Tuple<Artifact, File> zipFile,
+                              @Nonnull final File targetFolder,
+                              @Nullable final DependencyStore store,
+                              @Nullable final ExecutorService writers)
+          throws MojoExecutionException {
+    if (this.isVerbose()) {
+      this.getLog().info("mvn-golang dependency: " + zipFile.left());
+    }
+
+    if (store != null) {
+      final File storedFolder;
+      try {
+        storedFolder = store.findOrUnpack(zipFile.right(),
+                (archive, folder) -> this.unpackDependencyArchive(archive, folder, writers));
+      } catch (IOException ex) {
+        throw new MojoExecutionException(
+                "Can't unpack dependency archive '" + zipFile.right().getName() +
+                        "' into store '" + store.getFolder() + '\'', ex);
+      }
+      this.getLog().debug("Dependency " + zipFile.left() + " is provided by store folder: " + storedFolder);
+      return storedFolder;
+    }
+
+    final File outDir = this.makeUnpackFolder(targetFolder, zipFile.left());
+
+    if (outDir.isDirectory()) {
+      this.getLog().debug("Unpacked dependency folder already exists: " + outDir);
+      if (Boolean.parseBoolean(MavenUtils
+              .findProperty(this.getSession(), this.getProject(), "mvn.golang.force.clean.dependency",
+                      "false"))) {
+        this.getLog().debug("Forcing dependency folder delete: " + outDir);
+        try {
+          FileUtils.deleteDirectory(outDir);
+        } catch (IOException ex) {
+          throw new MojoExecutionException("Can't delete dependency folder: " + outDir, ex);
         }
-        folderList.add(folder + '/');
       }
+    }
 
-      for (final String folder : folderList) {
-        ZipUtil.unpack(artifactZip, targetFolder, (@Nonnull final String name) -> {
-          if (name.startsWith(folder)) {
-            return name.substring(folder.length());
-          }
-          return null;
-        });
+    try {
+      final IncrementalUnpacker.Statistics statistics =
+              this.unpackDependencyArchive(zipFile.right(), outDir, writers);
+      this.getLog().debug("Unpack dependency " + zipFile.right().getName() + ": " + statistics);
+      final List<File> goMods = new ArrayList<>();
+      for (final String path : statistics.getPaths()) {
+        if (path.equals(GO_MOD_FILE_NAME) || path.endsWith('/' + GO_MOD_FILE_NAME)) {
+          goMods.add(new File(outDir, path));
+        }
+      }
+      this.unpackedGoMods.put(outDir, goMods);
+    } catch (IOException ex) {
+      throw new MojoExecutionException(
+              "Can't unpack dependency archive '" + zipFile.right().getName() +
+                      "' into folder '" + outDir + '\'', ex);
+    }
+    return outDir;
+  }
+
+  /**
+   * Unpack dependency archive, if the archive contains list of build folders
+   * then only content of the folders is unpacked into 'src' sub-folder. Only
+   * changed entries are written if the folder has been unpacked before.
+   *
+   * @param zipFile dependency archive, must not be null
+   * @param outDir  target folder, must not be null
+   * @param writers executor to write entries in parallel, can be null
+   * @return statistics of unpack
+   * @throws IOException if any error during unpack
+   */
+  @Nonnull
+  private IncrementalUnpacker.Statistics unpackDependencyArchive(@Nonnull final File zipFile,
+                                                                 @Nonnull final File outDir,
+                                                                 @Nullable final ExecutorService writers)
+          throws IOException {
+    return IncrementalUnpacker.unpack(zipFile, outDir, zip -> {
+      final List<String> folderList = readBuildFolders(zip);
+      if (folderList == null) {
+        return Collections::singletonList;
+      }
+      final PathPrefixTrie prefixes = new PathPrefixTrie(folderList);
+      return name -> {
+        final List<String> remainders = prefixes.findRemainders(name);
+        final List<String> result = new ArrayList<>(remainders.size());
+        for (final String r : remainders) {
+          result.add("src/" + r);
+        }
+        return result;
+      };
+    }, writers);
+  }
+
+  @Nullable
+  @MustNotContainNull
+  private static List<String> readBuildFolders(@Nonnull final ZipFile zipFile) throws IOException {
+    final ArtifactIndex index = ArtifactIndex.read(zipFile);
+    if (index != null) {
+      if (index.getBuildFolders().isEmpty()) {
+        return null;
+      }
+      final List<String> folderList = new ArrayList<>();
+      for (final String folder : index.getBuildFolders()) {
+        folderList.add(folder + '/');
+      }
+      return folderList;
+    }
+    final ZipEntry entry = zipFile.getEntry(GolangMvnInstallMojo.MVNGOLANG_BUILD_FOLDERS_FILE);
+    if (entry == null) {
+      return null;
+    }
+    final String text;
+    try (final InputStream in = zipFile.getInputStream(entry)) {
+      text = org.apache.commons.io.IOUtils.toString(in, StandardCharsets.UTF_8);
+    }
+    final List<String> folderList = new ArrayList<>();
+    for (final String folder : text.split("\\n")) {
+      final String trimmed = folder.trim();
+      if (trimmed.isEmpty()) {
+        continue;
       }
-      return true;
+      folderList.add(trimmed + '/');
     }
+    return folderList;
   }
 
   @Nonnull
@@ -26,8 +26,6 @@ import com.igormaznitsa.meta.common.utils.StrUtils;
 import com.igormaznitsa.mvngolang.utils.*;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.filefilter.FileFilterUtils;
-import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.http.*;
 import org.apache.http.auth.AuthScope;
@@ -101,6 +99,8 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
   public static final String GOARTIFACT_PACKAGING = "mvn-golang";
   public static final String GO_MOD_FILE_NAME = "go.mod";
   public static final String GO_SUM_FILE_NAME = "go.sum";
+  public static final String GO_MOD_FILE_NAME_BAK = ".#go.mod.mvn.orig";
+  public static final String DELETE_GO_SUM_FLAG_FILE = ".#go.mod.mvn.delete.sum";
   public static final String ENV_GO111MODULE = "GO111MODULE";
 
   /**
@@ -111,6 +111,12 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
           Arrays.asList("application/octet-stream", "application/zip", "application/x-tar",
                   "application/x-gzip"));
   private static final ReentrantLock LOCKER = new ReentrantLock();
+  private static final Set<String> BUILD_PARALLELISM_COMMANDS = Collections.unmodifiableSet(
+          new HashSet<>(Arrays.asList("build", "clean", "get", "install", "list", "run", "test",
+                  "vet")));
+  private static final SourceTreeScanner SOURCE_TREE_SCANNER = new SourceTreeScanner(
+          Arrays.asList(GO_MOD_FILE_NAME, GO_SUM_FILE_NAME, GO_MOD_FILE_NAME_BAK,
+                  DELETE_GO_SUM_FLAG_FILE));
   private static final String[] BANNER =
           new String[]{"______  ___             _________     ______",
                   "___   |/  /__   __________  ____/________  / ______ ______________ _",
@@ -456,12 +462,88 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
    */
   @Parameter(name = "addToGoPath")
   private String[] addToGoPath;
+  /**
+   * Share CPU between go processes started by mojos in the same way as make
+   * jobserver. Every process takes CPU tokens from pool shared by all mojos in
+   * JVM (and by JVMs if 'cpuTokensFolder' is defined), waits if there is no
+   * free token and gets '-p' flag and GOMAXPROCS environment variable equal to
+   * number of taken tokens. Can be defined through property
+   * 'mvn.golang.cpu.tokens'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "useCpuTokens", defaultValue = "false")
+  private boolean useCpuTokens;
+  /**
+   * Total number of CPU tokens, if zero or negative then number of available
+   * processors is used. Can be defined through property
+   * 'mvn.golang.cpu.tokens.total'
+   *
+   * @see #useCpuTokens
+   * @since 2.3.10
+   */
+  @Parameter(name = "cpuTokens", defaultValue = "0")
+  private int cpuTokens;
+  /**
+   * Max number of CPU tokens for one process, if zero or negative then total
+   * number of tokens divided by number of maven build threads is used. Can be
+   * defined through property 'mvn.golang.cpu.tokens.process'
+   *
+   * @see #useCpuTokens
+   * @since 2.3.10
+   */
+  @Parameter(name = "cpuTokensPerProcess", defaultValue = "0")
+  private int cpuTokensPerProcess;
+  /**
+   * Folder to share CPU tokens between JVMs, every token is lock of file in
+   * the folder. All builds sharing the folder must use the same total number of
+   * tokens. Can be defined through property 'mvn.golang.cpu.tokens.folder'
+   *
+   * @see #useCpuTokens
+   * @since 2.3.10
+   */
+  @Parameter(name = "cpuTokensFolder")
+  private String cpuTokensFolder;
+  /**
+   * Hold back start of go process while estimated memory headroom is not
+   * enough for it. Available memory is read from cgroup limits and
+   * /proc/meminfo, every admitted process reserves 'memoryPerProcessMb' and
+   * 'memoryReserveMb' is kept free. A process is always started if there is
+   * no other running process started by the plugin. GOMEMLIMIT of process is
+   * set to memory left for it at admission and if the process has got less
+   * memory than expected then GOGC is set to 50. Queue time is logged. Can be
+   * defined through property 'mvn.golang.memory.admission'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "useMemoryAdmission", defaultValue = "false")
+  private boolean useMemoryAdmission;
+  /**
+   * Expected memory of go process in megabytes. Can be defined through
+   * property 'mvn.golang.memory.process'
+   *
+   * @see #useMemoryAdmission
+   * @since 2.3.10
+   */
+  @Parameter(name = "memoryPerProcessMb", defaultValue = "2048")
+  private long memoryPerProcessMb;
+  /**
+   * Memory which should be kept free in megabytes. Can be defined through
+   * property 'mvn.golang.memory.reserve'
+   *
+   * @see #useMemoryAdmission
+   * @since 2.3.10
+   */
+  @Parameter(name = "memoryReserveMb", defaultValue = "1024")
+  private long memoryReserveMb;
   @LazyInited
   private CloseableHttpClient httpClient;
   @LazyInited
   private ByteArrayOutputStream consoleErrBuffer;
   @LazyInited
   private ByteArrayOutputStream consoleOutBuffer;
+  private CpuTokenPool.Grant cpuGrant;
+  private MemoryAdmission.Ticket memoryTicket;
 
   @Nonnull
   private static String ensureNoSurroundingSlashes(@Nonnull final String str) {
@@ -578,6 +660,107 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
     this.moduleMode = value;
   }
 
+  public boolean isUseCpuTokens() {
+    return Boolean.parseBoolean(
+            findMvnProperty("mvn.golang.cpu.tokens", Boolean.toString(this.useCpuTokens)));
+  }
+
+  public void setUseCpuTokens(final boolean flag) {
+    this.useCpuTokens = flag;
+  }
+
+  public int getCpuTokens() {
+    final int value = Integer.parseInt(
+            findMvnProperty("mvn.golang.cpu.tokens.total", Integer.toString(this.cpuTokens)).trim());
+    return value <= 0 ? Runtime.getRuntime().availableProcessors() : value;
+  }
+
+  public void setCpuTokens(final int value) {
+    this.cpuTokens = value;
+  }
+
+  public int getCpuTokensPerProcess() {
+    final int value = Integer.parseInt(findMvnProperty("mvn.golang.cpu.tokens.process",
+            Integer.toString(this.cpuTokensPerProcess)).trim());
+    if (value > 0) {
+      return value;
+    }
+    final int threads = this.findMavenThreads();
+    return Math.max(1, (this.getCpuTokens() + threads - 1) / threads);
+  }
+
+  public void setCpuTokensPerProcess(final int value) {
+    this.cpuTokensPerProcess = value;
+  }
+
+  @Nullable
+  public String getCpuTokensFolder() {
+    return findMvnProperty("mvn.golang.cpu.tokens.folder", this.cpuTokensFolder);
+  }
+
+  public void setCpuTokensFolder(@Nullable final String path) {
+    this.cpuTokensFolder = path;
+  }
+
+  public boolean isUseMemoryAdmission() {
+    return Boolean.parseBoolean(findMvnProperty("mvn.golang.memory.admission",
+            Boolean.toString(this.useMemoryAdmission)));
+  }
+
+  public void setUseMemoryAdmission(final boolean flag) {
+    this.useMemoryAdmission = flag;
+  }
+
+  public long getMemoryPerProcessMb() {
+    return Long.parseLong(findMvnProperty("mvn.golang.memory.process",
+            Long.toString(this.memoryPerProcessMb)).trim());
+  }
+
+  public void setMemoryPerProcessMb(final long value) {
+    this.memoryPerProcessMb = value;
+  }
+
+  public long getMemoryReserveMb() {
+    return Long.parseLong(findMvnProperty("mvn.golang.memory.reserve",
+            Long.toString(this.memoryReserveMb)).trim());
+  }
+
+  public void setMemoryReserveMb(final long value) {
+    this.memoryReserveMb = value;
+  }
+
+  /**
+   * Find number of maven build threads defined by '-T' option.
+   *
+   * @return number of threads, 1 for not parallel build
+   */
+  private int findMavenThreads() {
+    if (!this.getSession().isParallel()) {
+      return 1;
+    }
+    final String threads = this.getSession().getRequest().getThreadCount();
+    try {
+      if (threads.toUpperCase(Locale.ENGLISH).endsWith("C")) {
+        return Math.max(1, Math.round(Float.parseFloat(threads.substring(0, threads.length() - 1))
+                * Runtime.getRuntime().availableProcessors()));
+      }
+      return Math.max(1, Integer.parseInt(threads.trim()));
+    } catch (NumberFormatException ex) {
+      return 1;
+    }
+  }
+
+  /**
+   * Check that go command accepts '-p' flag.
+   *
+   * @return true if '-p' flag can be provided for the command
+   * @since 2.3.10
+   */
+  protected boolean isCommandSupportBuildParallelism() {
+    return this.getUseGoTool() == null
+            && BUILD_PARALLELISM_COMMANDS.contains(this.getGoCommand());
+  }
+
   @Nonnull
   public ArtifactResolver getArtifactResolver() {
     return assertNotNull("Artifact resolver component is not provided by Maven",
@@ -1540,12 +1723,29 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
     boolean error = false;
 
     while (!Thread.currentThread().isInterrupted()) {
-      final ProcessExecutor executor = prepareExecutor(proxySettings);
-      if (executor == null) {
-        logOptionally("The Mojo should not be executed");
-        break;
+      final ProcessResult result;
+      this.memoryTicket = this.admitByMemory();
+      try {
+        this.cpuGrant = this.acquireCpuTokens();
+        final ProcessExecutor executor = prepareExecutor(proxySettings);
+        if (executor == null) {
+          logOptionally("The Mojo should not be executed");
+          break;
+        }
+        result = executor.executeNoTimeout();
+      } finally {
+        try {
+          if (this.cpuGrant != null) {
+            this.cpuGrant.close();
+            this.cpuGrant = null;
+          }
+        } finally {
+          if (this.memoryTicket != null) {
+            this.memoryTicket.close();
+            this.memoryTicket = null;
+          }
+        }
       }
-      final ProcessResult result = executor.executeNoTimeout();
       final int resultCode = result.getExitValue();
       error = resultCode != 0 && !isIgnoreErrorExitCode();
       iterations++;
@@ -1573,6 +1773,36 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
     return error;
   }
 
+  @Nullable
+  private MemoryAdmission.Ticket admitByMemory() throws InterruptedException {
+    if (!this.isUseMemoryAdmission()) {
+      return null;
+    }
+    final long mb = 1024L * 1024L;
+    final MemoryAdmission.Ticket ticket = MemoryAdmission.find(
+            this.getMemoryPerProcessMb() * mb, this.getMemoryReserveMb() * mb).admit();
+    getLog().info(String.format(
+            "Admitted by memory after %d ms, available %s, reserved %d MB, limit %d MB",
+            ticket.getWaitMillis(),
+            ticket.getAvailable() < 0L ? "unknown" : ticket.getAvailable() / mb + " MB",
+            ticket.getShare() / mb, ticket.getLimit() / mb));
+    return ticket;
+  }
+
+  @Nullable
+  private CpuTokenPool.Grant acquireCpuTokens() throws IOException, InterruptedException {
+    if (!this.isUseCpuTokens()) {
+      return null;
+    }
+    final String folder = this.getCpuTokensFolder();
+    final CpuTokenPool pool = CpuTokenPool.find(this.getCpuTokens(),
+            folder == null || folder.trim().isEmpty() ? null : new File(folder.trim()));
+    final CpuTokenPool.Grant grant = pool.acquire(this.getCpuTokensPerProcess());
+    getLog().info(String.format("Got %d of %d CPU tokens, waited %d ms", grant.getTokens(),
+            pool.getCapacity(), grant.getWaitMillis()));
+    return grant;
+  }
+
   @Override
   public final void execute() throws MojoExecutionException, MojoFailureException {
     if (this.isSkip()) {
@@ -1770,8 +2000,8 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
     return path;
   }
 
-  private void addEnvVar(@Nonnull final ProcessExecutor executor, @Nonnull final String name,
-                         @Nonnull final String value) {
+  protected void addEnvVar(@Nonnull final ProcessExecutor executor, @Nonnull final String name,
+                           @Nonnull final String value) {
     logOptionally(" $" + name + " = " + value);
     executor.environment(name, value);
   }
@@ -1974,6 +2204,18 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
     addEnvVar(result, "PATH", thePath);
     this.project.getProperties().setProperty("mvn.golang.last.path", thePath);
 
+    if (this.cpuGrant != null) {
+      addEnvVar(result, "GOMAXPROCS", Integer.toString(this.cpuGrant.getTokens()));
+    }
+
+    if (this.memoryTicket != null) {
+      addEnvVar(result, "GOMEMLIMIT",
+              Math.max(1L, this.memoryTicket.getLimit() / (1024L * 1024L)) + "MiB");
+      if (this.memoryTicket.isTight()) {
+        addEnvVar(result, "GOGC", "50");
+      }
+    }
+
     boolean go111moduleDetected = false;
 
     for (final Map.Entry<?, ?> record : getEnv().entrySet()) {
@@ -2000,9 +2242,22 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
   @MustNotContainNull
   protected List<File> findAllGoModsInFolder(@Nonnull @MustNotContainNull final File folder)
           throws IOException {
-    return new ArrayList<>(FileUtils
-            .listFiles(folder, FileFilterUtils.nameFileFilter(GO_MOD_FILE_NAME),
-                    TrueFileFilter.INSTANCE));
+    return this.scanSourceTree(folder).get(GO_MOD_FILE_NAME);
+  }
+
+  /**
+   * Scan folder tree for go.mod and go.sum files, backups and flags in single pass.
+   * Vendor, VCS and test data folders are not visited.
+   *
+   * @param folder root folder, must not be null
+   * @return map of found files by their names
+   * @throws IOException if any error during scan
+   * @since 2.3.10
+   */
+  @Nonnull
+  protected Map<String, List<File>> scanSourceTree(@Nonnull final File folder)
+          throws IOException {
+    return SOURCE_TREE_SCANNER.scan(folder);
   }
 
   @Nonnull
@@ -2074,6 +2329,17 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
     return null;
   }
 
+  /**
+   * Check that flags contain build parallelism flag of go tool in any form.
+   *
+   * @param flags flags to be checked, must not be null
+   * @return true if there is '-p' flag with or without value
+   */
+  static boolean hasParallelismFlag(@Nonnull @MustNotContainNull final Collection<String> flags) {
+    return flags.stream().anyMatch(x -> x.equals("-p") || x.startsWith("-p=")
+            || x.equals("--p") || x.startsWith("--p="));
+  }
+
   @Nullable
   protected ProcessExecutor prepareExecutor(@Nullable final ProxySettings proxySettings)
           throws IOException, MojoFailureException, MojoExecutionException {
@@ -2127,6 +2393,12 @@ public abstract class AbstractGolangMojo extends AbstractMojo {
       commandLine.add("-v");
     }
 
+    if (this.cpuGrant != null && this.isCommandSupportBuildParallelism()
+            && !hasParallelismFlag(commandLine) && !hasParallelismFlag(Arrays.asList(getBuildFlags()))) {
+      commandLine.add("-p");
+      commandLine.add(Integer.toString(this.cpuGrant.getTokens()));
+    }
+
     commandLine.addAll(Arrays.asList(getBuildFlags()));
     commandLine.addAll(Arrays.asList(getTailArguments()));
     commandLine.addAll(Arrays.asList(getOptionalExtraTailArguments()));
@@ -6,6 +6,7 @@ import org.apache.maven.plugins.annotations.Parameter;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -43,6 +44,17 @@ public abstract class AbstractModuleAware extends AbstractGoPackageAndDependency
         result.add(0, String.format("-mod=%s", moduleMod.trim()));
       }
     }
+
+    final File modFile = this.getModFileOverlay();
+    if (modFile != null) {
+      final List<String> allFlags = new ArrayList<>(result);
+      Collections.addAll(allFlags, this.getBuildFlags());
+      if (allFlags.stream().anyMatch(x -> x.equals("-modfile") || x.startsWith("-modfile="))) {
+        this.getLog().warn("Detected direct 'modfile' flag, generated go.mod overlay will be ignored");
+      } else {
+        result.add(String.format("-modfile=%s", modFile.getAbsolutePath()));
+      }
+    }
     return result.toArray(new String[0]);
   }
 
@@ -16,6 +16,8 @@
 
 package com.igormaznitsa.mvngolang;
 
+import com.igormaznitsa.mvngolang.utils.BackgroundDeleter;
+import com.igormaznitsa.mvngolang.utils.GoCacheTrimmer;
 import com.igormaznitsa.mvngolang.utils.ProxySettings;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -28,6 +30,9 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The Mojo wraps the 'clean' command.
@@ -52,6 +57,91 @@ public class GolangCleanMojo extends AbstractGoPackageAndDependencyAwareMojo {
   @Parameter(name = "deleteStoreFolder", defaultValue = "false")
   private boolean deleteStoreFolder;
 
+  /**
+   * Fast clean mode, folders are atomically renamed into tombstones placed
+   * near them and the tombstones are deleted by background threads in
+   * parallel, so that the build continues at once. Tombstones which could not
+   * be deleted before JVM exit are deleted by the next fast clean. If a folder
+   * can't be renamed then it is deleted in usual way. Can be defined through
+   * property 'mvn.golang.clean.fast'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "fastClean", defaultValue = "false")
+  private boolean fastClean;
+
+  /**
+   * In module mode, trim go build cache (GOCACHE) and module cache
+   * (GOMODCACHE) instead of deletion of whole module cache by 'go clean
+   * -modcache'. Entries not used longer than 'trimCacheMaxAgeDays' are removed
+   * and if total size of caches is greater than 'trimCacheMaxSizeMb' then least
+   * recently used entries are removed too. Modules listed in go.sum files of
+   * the project are never removed. Can be defined through property
+   * 'mvn.golang.clean.trim'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "trimCaches", defaultValue = "false")
+  private boolean trimCaches;
+
+  /**
+   * Max number of days since last use of cache entry, zero or negative
+   * disables the limit. Can be defined through property
+   * 'mvn.golang.clean.trim.age'
+   *
+   * @see #trimCaches
+   * @since 2.3.10
+   */
+  @Parameter(name = "trimCacheMaxAgeDays", defaultValue = "30")
+  private int trimCacheMaxAgeDays;
+
+  /**
+   * Max total size of go build and module caches in megabytes, zero or
+   * negative disables the limit. Can be defined through property
+   * 'mvn.golang.clean.trim.size'
+   *
+   * @see #trimCaches
+   * @since 2.3.10
+   */
+  @Parameter(name = "trimCacheMaxSizeMb", defaultValue = "10240")
+  private long trimCacheMaxSizeMb;
+
+  public boolean isTrimCaches() {
+    return Boolean.parseBoolean(
+        findMvnProperty("mvn.golang.clean.trim", Boolean.toString(this.trimCaches)));
+  }
+
+  public void setTrimCaches(final boolean flag) {
+    this.trimCaches = flag;
+  }
+
+  public int getTrimCacheMaxAgeDays() {
+    return Integer.parseInt(findMvnProperty("mvn.golang.clean.trim.age",
+        Integer.toString(this.trimCacheMaxAgeDays)).trim());
+  }
+
+  public void setTrimCacheMaxAgeDays(final int value) {
+    this.trimCacheMaxAgeDays = value;
+  }
+
+  public long getTrimCacheMaxSizeMb() {
+    return Long.parseLong(findMvnProperty("mvn.golang.clean.trim.size",
+        Long.toString(this.trimCacheMaxSizeMb)).trim());
+  }
+
+  public void setTrimCacheMaxSizeMb(final long value) {
+    this.trimCacheMaxSizeMb = value;
+  }
+
+  public boolean isFastClean() {
+    return Boolean.parseBoolean(
+        findMvnProperty("mvn.golang.clean.fast", Boolean.toString(this.fastClean)));
+  }
+
+  public void setFastClean(final boolean flag) {
+    this.fastClean = flag;
+  }
+
   @Override
   public boolean isSourceFolderRequired() {
     return true;
@@ -74,7 +164,51 @@ public class GolangCleanMojo extends AbstractGoPackageAndDependencyAwareMojo {
       throws MojoFailureException, MojoExecutionException {
     super.beforeExecution(proxySettings);
     if (this.isModuleMode() && this.getBuildFlags().length == 0) {
-      this.addTmpBuildFlagIfNotPresented("-modcache");
+      if (this.isTrimCaches()) {
+        this.trimGoCaches();
+      } else {
+        this.addTmpBuildFlagIfNotPresented("-modcache");
+      }
+    }
+  }
+
+  @Nullable
+  private File findGoModCache() throws IOException {
+    final String envModCache = System.getenv("GOMODCACHE");
+    if (envModCache != null && !envModCache.trim().isEmpty()) {
+      return new File(envModCache.trim());
+    }
+    final File[] goPath = findGoPath(false);
+    return goPath.length == 0 ? null
+        : new File(goPath[0], "pkg" + File.separatorChar + "mod");
+  }
+
+  private void trimGoCaches() throws MojoFailureException {
+    final String goCache = this.getGoCache();
+    final File goCacheFolder =
+        goCache == null || "off".equals(goCache.trim()) ? null : new File(goCache.trim());
+    final long maxAgeDays = this.getTrimCacheMaxAgeDays();
+    final GoCacheTrimmer trimmer = new GoCacheTrimmer(
+        maxAgeDays <= 0 ? 0L : TimeUnit.DAYS.toMillis(maxAgeDays),
+        this.getTrimCacheMaxSizeMb() * 1024L * 1024L,
+        Runtime.getRuntime().availableProcessors());
+    try {
+      final File goModCacheFolder = this.findGoModCache();
+      final File sources = this.getSources(false);
+      if (sources.isDirectory()) {
+        for (final File goSum : this.scanSourceTree(sources).get(GO_SUM_FILE_NAME)) {
+          getLog().debug("Protect modules of " + goSum);
+          trimmer.protectGoSum(goSum);
+        }
+      }
+      getLog().info(String.format("Trimming go caches : GOCACHE=%s, GOMODCACHE=%s",
+          goCacheFolder, goModCacheFolder));
+      final GoCacheTrimmer.Result result = trimmer.trim(goCacheFolder, goModCacheFolder);
+      getLog().info(String.format("Removed %d of %d cache entries, %d of %d KB",
+          result.getRemovedEntries(), result.getEntries(), result.getRemovedSize() / 1024L,
+          result.getSize() / 1024L));
+    } catch (IOException ex) {
+      throw new MojoFailureException("Can't trim go caches", ex);
     }
   }
 
@@ -83,7 +217,7 @@ public class GolangCleanMojo extends AbstractGoPackageAndDependencyAwareMojo {
       final File goStoreFolder = new File(getStoreFolder());
       if (goStoreFolder.isDirectory()) {
         getLog().info("Deleting the Store Folder : " + goStoreFolder);
-        FileUtils.deleteDirectory(goStoreFolder);
+        this.deleteFolder(goStoreFolder, false);
       } else {
         getLog().info("The Store Folder does not found : " + goStoreFolder);
       }
@@ -98,7 +232,7 @@ public class GolangCleanMojo extends AbstractGoPackageAndDependencyAwareMojo {
       for (final File f : goPathFolders) {
         if (f.isDirectory()) {
           getLog().warn("Cleaning the Go Path folder : " + f);
-          FileUtils.cleanDirectory(f);
+          this.deleteFolder(f, true);
         } else {
           getLog().info("Can't find GOPATH folder : " + f);
         }
@@ -108,6 +242,68 @@ public class GolangCleanMojo extends AbstractGoPackageAndDependencyAwareMojo {
     }
   }
 
+  /**
+   * Delete folder or its content, in fast clean mode the folder is renamed
+   * into tombstone which is deleted in background.
+   *
+   * @param folder     folder to be deleted, must not be null
+   * @param keepFolder if true then only content of the folder is deleted
+   * @throws IOException if any error during deletion
+   */
+  private void deleteFolder(@Nonnull final File folder, final boolean keepFolder)
+      throws IOException {
+    if (this.isFastClean()) {
+      try {
+        final File tombstone = BackgroundDeleter.bury(folder);
+        if (keepFolder && !folder.mkdirs()) {
+          throw new IOException("Can't create folder: " + folder);
+        }
+        getLog().debug("Folder renamed for background deletion : " + tombstone);
+        BackgroundDeleter.delete(tombstone);
+        return;
+      } catch (IOException ex) {
+        if (folder.exists()) {
+          getLog().warn("Can't rename folder, it will be deleted in place : " + folder);
+          getLog().debug(ex);
+        } else {
+          throw ex;
+        }
+      }
+    }
+    if (keepFolder) {
+      FileUtils.cleanDirectory(folder);
+    } else {
+      FileUtils.deleteDirectory(folder);
+    }
+  }
+
+  private void sweepTombstones(@Nonnull final File directory, @Nonnull final File reportFolder)
+      throws MojoFailureException {
+    final Set<File> parents = new LinkedHashSet<>();
+    parents.add(directory.getAbsoluteFile().getParentFile());
+    parents.add(reportFolder.getAbsoluteFile().getParentFile());
+    if (this.cleanGoPath) {
+      try {
+        for (final File f : findGoPath(false)) {
+          parents.add(f.getAbsoluteFile().getParentFile());
+        }
+      } catch (IOException ex) {
+        throw new MojoFailureException("Can't find GOPATH", ex);
+      }
+    }
+    if (this.deleteStoreFolder) {
+      parents.add(new File(getStoreFolder()).getAbsoluteFile().getParentFile());
+    }
+    for (final File parent : parents) {
+      if (parent != null) {
+        final int found = BackgroundDeleter.sweep(parent).size();
+        if (found > 0) {
+          getLog().info(String.format("Deleting %d tombstone(s) left in %s", found, parent));
+        }
+      }
+    }
+  }
+
   @Override
   public void afterExecution(@Nullable final ProxySettings proxySettings, final boolean error)
       throws MojoFailureException, MojoExecutionException {
@@ -121,10 +317,16 @@ public class GolangCleanMojo extends AbstractGoPackageAndDependencyAwareMojo {
         directory = new File(getProject().getBuild().getDirectory());
       }
 
+      final File reportFolderFile = new File(getReportsFolder());
+
+      if (this.isFastClean()) {
+        this.sweepTombstones(directory, reportFolderFile);
+      }
+
       if (directory.isDirectory()) {
         try {
           getLog().info("Deleting folder : " + directory);
-          FileUtils.deleteDirectory(directory);
+          this.deleteFolder(directory, false);
         } catch (IOException ex) {
           throw new MojoFailureException("Can't delete folder", ex);
         }
@@ -132,11 +334,10 @@ public class GolangCleanMojo extends AbstractGoPackageAndDependencyAwareMojo {
         getLog().info(String.format("Folder %s is not found", directory.getAbsolutePath()));
       }
 
-      final File reportFolderFile = new File(getReportsFolder());
       if (reportFolderFile.isDirectory()) {
         try {
           getLog().info("Deleting report folder : " + reportFolderFile);
-          FileUtils.deleteDirectory(reportFolderFile);
+          this.deleteFolder(reportFolderFile, false);
         } catch (IOException ex) {
           throw new MojoExecutionException("Can't delete report folder : " + reportFolderFile);
         }
@@ -19,14 +19,20 @@ package com.igormaznitsa.mvngolang;
 import com.igormaznitsa.meta.annotation.MustNotContainNull;
 import com.igormaznitsa.meta.common.utils.Assertions;
 import com.igormaznitsa.meta.common.utils.GetUtils;
+import com.igormaznitsa.mvngolang.cvs.AbstractRepo;
 import com.igormaznitsa.mvngolang.cvs.CVSType;
+import com.igormaznitsa.mvngolang.utils.BufferedLog;
 import com.igormaznitsa.mvngolang.utils.MavenUtils;
 import com.igormaznitsa.mvngolang.utils.PackageList;
+import com.igormaznitsa.mvngolang.utils.PackageLock;
 import com.igormaznitsa.mvngolang.utils.ProxySettings;
+import com.igormaznitsa.mvngolang.utils.Tuple;
+import com.igormaznitsa.mvngolang.utils.VcsMirrorStore;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
@@ -38,14 +44,30 @@ import org.zeroturnaround.exec.ProcessResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -58,6 +80,8 @@ public class GolangGetMojo extends AbstractModuleAware {
   private static final Pattern PATTERN_NO_SUBMODULE_MAPPING_FOUND_IN_GIT = Pattern.compile(
           "no\\s+submodule\\s+mapping\\s+found\\s+in\\s+.gitmodules for path\\s+\\'([\\S]+?)\\'",
           Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+  private static final Set<String> KNOWN_GIT_HOSTS = Collections.unmodifiableSet(
+          new HashSet<>(Arrays.asList("github.com", "gitlab.com", "bitbucket.org")));
   private static final Pattern PATTERN_EXTRACT_PACKAGE_AND_STATUS = Pattern
           .compile("^package ([\\S]+?)\\s*:\\s*exit\\s+status\\s+([\\d]+?)\\s*$",
                   Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
@@ -184,8 +208,75 @@ public class GolangGetMojo extends AbstractModuleAware {
   @Parameter(name = "allowLockSession", defaultValue = "true")
   private boolean allowLockSession;
 
+  /**
+   * Max number of threads to process CVS folders of packages, packages placed
+   * in the same CVS folder are processed sequentially. If zero or negative
+   * then number of available processors is used, 1 means sequential
+   * processing. Can be defined through property 'mvn.golang.get.cvs.threads'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "cvsThreads", defaultValue = "0")
+  private int cvsThreads;
+
+  /**
+   * Use lock file which keeps revisions of packages loaded by the goal. If CVS
+   * folders of all packages are at the locked revisions and don't have local
+   * changes then both 'go get' and CVS operations (including custom script)
+   * are skipped. The lock is refreshed after every full processing, property
+   * 'mvn.golang.get.update' enforces full processing. Not used with custom CVS
+   * options. Can be defined through property 'mvn.golang.get.lock'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "useGetLock", defaultValue = "false")
+  private boolean useGetLock;
+
+  /**
+   * Lock file for packages of the goal, the same file can be shared by several
+   * executions because every package has own record.
+   *
+   * @see #useGetLock
+   * @since 2.3.10
+   */
+  @Parameter(name = "lockFile", defaultValue = "${project.basedir}/mvn-golang-get.lock")
+  private File lockFile;
+
+  /**
+   * Fetch git packages pinned by tag or revision only for the pinned commit
+   * (shallow and blobless partial fetch) before 'go get' instead of full
+   * clone, packages are fetched in parallel. Supported packages placed on
+   * github.com, gitlab.com, bitbucket.org and packages with '.git' suffix in
+   * path, other packages and ones already cloned with full history are
+   * processed in usual way. Can be defined through property
+   * 'mvn.golang.get.shallow'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "useShallowFetch", defaultValue = "false")
+  private boolean useShallowFetch;
+
+  /**
+   * Make working copies of package repositories missing in GOPATH from local
+   * mirrors placed in the mvn-golang store folder, mirrors are created or
+   * updated (only changes are loaded) before use and shared by all projects and
+   * builds which use the store. Supported git and mercurial repositories
+   * placed on github.com, gitlab.com, bitbucket.org or with '.git' or '.hg'
+   * suffix in path, other packages are loaded by 'go get' in usual way. Not
+   * used with custom CVS options. Can be defined through property
+   * 'mvn.golang.get.mirrors'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "useVcsMirrors", defaultValue = "false")
+  private boolean useVcsMirrors;
+
   private List<PackageList.Package> integralPackageList;
 
+  private boolean skippedByLock;
+
+  private final Set<File> shallowFetchedFolders = ConcurrentHashMap.newKeySet();
+
   @Nonnull
   private static String processSlashes(@Nonnull final String str) {
     final StringBuilder result = new StringBuilder();
@@ -217,6 +308,56 @@ public class GolangGetMojo extends AbstractModuleAware {
     return result.toString();
   }
 
+  public int getCvsThreads() {
+    final int value = Integer.parseInt(findMvnProperty("mvn.golang.get.cvs.threads",
+        Integer.toString(this.cvsThreads)).trim());
+    return value <= 0 ? Runtime.getRuntime().availableProcessors() : value;
+  }
+
+  public void setCvsThreads(final int value) {
+    this.cvsThreads = value;
+  }
+
+  public boolean isUseGetLock() {
+    return Boolean.parseBoolean(
+        findMvnProperty("mvn.golang.get.lock", Boolean.toString(this.useGetLock)));
+  }
+
+  public void setUseGetLock(final boolean flag) {
+    this.useGetLock = flag;
+  }
+
+  public boolean isUseShallowFetch() {
+    return Boolean.parseBoolean(
+        findMvnProperty("mvn.golang.get.shallow", Boolean.toString(this.useShallowFetch)));
+  }
+
+  public void setUseShallowFetch(final boolean flag) {
+    this.useShallowFetch = flag;
+  }
+
+  public boolean isUseVcsMirrors() {
+    return Boolean.parseBoolean(
+        findMvnProperty("mvn.golang.get.mirrors", Boolean.toString(this.useVcsMirrors)));
+  }
+
+  public void setUseVcsMirrors(final boolean flag) {
+    this.useVcsMirrors = flag;
+  }
+
+  public boolean isUpdateGetLock() {
+    return Boolean.parseBoolean(findMvnProperty("mvn.golang.get.update", "false"));
+  }
+
+  @Nullable
+  public File getLockFile() {
+    return this.lockFile;
+  }
+
+  public void setLockFile(@Nullable final File file) {
+    this.lockFile = file;
+  }
+
   public boolean isAllowLockSession() {
     return this.allowLockSession;
   }
@@ -246,97 +387,402 @@ public class GolangGetMojo extends AbstractModuleAware {
     return this.customScript;
   }
 
-  private synchronized boolean processCVS(
+  private boolean processCVS(
       @Nonnull @MustNotContainNull final List<PackageList.Package> packages,
       @Nullable final ProxySettings proxySettings,
       @Nonnull @MustNotContainNull final File[] goPath) {
-    if (!packages.isEmpty()) {
-      for (final File f : goPath) {
-        for (final PackageList.Package p : packages) {
-          File rootCvsFolder = this.makePathToPackageSources(f, p.getPackage());
+    if (packages.isEmpty()) {
+      return true;
+    }
 
-          if (this.getRelativePathToCvsFolder() == null) {
-            rootCvsFolder = this.isDisableCvsAutoSearch() ? rootCvsFolder :
-                this.findRootCvsFolderForPackageSources(f, rootCvsFolder);
-          }
+    // packages are grouped by CVS folder because only one operation can be executed in a folder
+    final Map<File, List<PackageList.Package>> cvsFolders = new LinkedHashMap<>();
+    final Map<File, CVSType> cvsTypes = new HashMap<>();
+    for (final File f : goPath) {
+      for (final PackageList.Package p : packages) {
+        File rootCvsFolder = this.findCvsFolderForPackage(f, p);
 
-          if (rootCvsFolder == null) {
-            getLog().error(
-                "Can't find CVS folder, may be it was not initially loaded from repository: " + p);
-            return false;
-          }
+        if (rootCvsFolder == null) {
+          getLog().error(
+              "Can't find CVS folder, may be it was not initially loaded from repository: " + p);
+          return false;
+        }
+
+        if (this.getLog().isDebugEnabled()) {
+          this.getLog().debug(String.format("CVS folder path for %s is %s", p, rootCvsFolder));
+        }
+
+        if (!rootCvsFolder.isDirectory()) {
+          this.getLog().error(String.format("Can't find CVS folder for package '%s' at '%s'", p,
+              rootCvsFolder.getAbsolutePath()));
+          return false;
+        }
+
+        final CVSType repo = CVSType.investigateFolder(rootCvsFolder);
+        if (repo == CVSType.UNKNOWN) {
+          this.getLog().error(
+              "Can't recognize CVS in the folder : " + rootCvsFolder + " (for package '" + p +
+                  "')");
+          this.getLog().error(
+              "May be to define folder directly through <relativePathToCvsFolder>...</relativePathToCvsFolder>!");
+          return false;
+        }
+
+        rootCvsFolder = rootCvsFolder.getAbsoluteFile();
+        cvsFolders.computeIfAbsent(rootCvsFolder, k -> new ArrayList<>()).add(p);
+        cvsTypes.put(rootCvsFolder, repo);
+      }
+    }
+
+    final int threads = Math.min(this.getCvsThreads(), cvsFolders.size());
+    final AtomicBoolean failed = new AtomicBoolean();
 
-          if (this.getLog().isDebugEnabled()) {
-            this.getLog().debug(String.format("CVS folder path for %s is %s", p, rootCvsFolder));
+    if (threads <= 1) {
+      for (final Map.Entry<File, List<PackageList.Package>> e : cvsFolders.entrySet()) {
+        if (!processCvsFolder(this.getLog(), proxySettings, e.getKey(), cvsTypes.get(e.getKey()),
+            e.getValue(), failed)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    this.getLog().debug(String.format("Processing %d CVS folders in %d threads", cvsFolders.size(),
+        threads));
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final CompletionService<Boolean> completion = new ExecutorCompletionService<>(executor);
+      for (final Map.Entry<File, List<PackageList.Package>> e : cvsFolders.entrySet()) {
+        completion.submit(() -> {
+          final BufferedLog log = new BufferedLog(this.getLog());
+          try {
+            return processCvsFolder(log, proxySettings, e.getKey(), cvsTypes.get(e.getKey()),
+                e.getValue(), failed);
+          } finally {
+            log.flush();
           }
+        });
+      }
+      for (int i = 0; i < cvsFolders.size(); i++) {
+        if (!completion.take().get()) {
+          failed.set(true);
+          return false;
+        }
+      }
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      this.getLog().error("CVS processing has been interrupted");
+      return false;
+    } catch (ExecutionException ex) {
+      this.getLog().error("Error during CVS processing", ex.getCause());
+      return false;
+    } finally {
+      failed.set(true);
+      executor.shutdownNow();
+    }
+  }
 
-          if (!rootCvsFolder.isDirectory()) {
-            this.getLog().error(String.format("Can't find CVS folder for package '%s' at '%s'", p,
-                rootCvsFolder.getAbsolutePath()));
-            return false;
-          } else {
-            final CVSType repo = CVSType.investigateFolder(rootCvsFolder);
-
-            if (repo == CVSType.UNKNOWN) {
-              this.getLog().error(
-                  "Can't recognize CVS in the folder : " + rootCvsFolder + " (for package '" + p +
-                      "')");
-              this.getLog().error(
-                  "May be to define folder directly through <relativePathToCvsFolder>...</relativePathToCvsFolder>!");
-              return false;
-            }
+  /**
+   * Find repository of package by its path, repositories with '.git' or '.hg'
+   * suffix in path and git repositories on well-known hosts are detected.
+   *
+   * @param pkg package, must not be null
+   * @return found repository or null if can't be detected
+   */
+  @Nullable
+  static RemoteRepository findRemoteRepository(@Nonnull final String pkg) {
+    final String[] parts = pkg.trim().split("/");
+    for (int i = 1; i < parts.length; i++) {
+      final CVSType type = parts[i].endsWith(".git") ? CVSType.GIT
+          : parts[i].endsWith(".hg") ? CVSType.HG : null;
+      if (type != null && parts[i].indexOf('.') > 0) {
+        return new RemoteRepository(String.join("/", Arrays.copyOfRange(parts, 0, i + 1)), type);
+      }
+    }
+    if (parts.length >= 3 && KNOWN_GIT_HOSTS.contains(parts[0].toLowerCase(Locale.ENGLISH))
+        && !parts[1].isEmpty() && !parts[2].isEmpty() && !parts[2].startsWith(".")) {
+      return new RemoteRepository(parts[0] + '/' + parts[1] + '/' + parts[2], CVSType.GIT);
+    }
+    return null;
+  }
 
-            final String[] customcvs = this.getCustomCvsOptions();
+  /**
+   * Fetch git repositories of packages pinned by tag or revision only for the
+   * pinned commit. Repositories which can't be fetched are left for usual
+   * processing.
+   *
+   * @param packages packages, must not be null
+   * @param goPath   GOPATH folder where 'go get' places sources, must not be
+   *                 null
+   * @param proxy    proxy settings, can be null
+   */
+  private void fetchPinnedPackagesShallow(
+      @Nonnull @MustNotContainNull final List<PackageList.Package> packages,
+      @Nonnull final File goPath,
+      @Nullable final ProxySettings proxy) {
+    // only repositories where all packages require the same commit can be fetched
+    final Map<String, Set<String>> refs = new LinkedHashMap<>();
+    final Map<String, String> urls = new HashMap<>();
+    for (final PackageList.Package p : packages) {
+      if (!p.doesNeedCvsProcessing()) {
+        continue;
+      }
+      final RemoteRepository repository = findRemoteRepository(p.getPackage());
+      if (repository == null || repository.getType() != CVSType.GIT) {
+        getLog().debug("Can't detect git repository for shallow fetch: " + p.getPackage());
+        continue;
+      }
+      final String ref = p.getRevision() != null ? p.getRevision()
+          : p.getTag() != null ? "refs/tags/" + p.getTag() : null;
+      refs.computeIfAbsent(repository.getRoot(), k -> new HashSet<>()).add(ref);
+      urls.put(repository.getRoot(), repository.getUrl());
+    }
 
-            if (customcvs != null || p.doesNeedCvsProcessing()) {
+    final Map<File, Tuple<String, String>> toFetch = new LinkedHashMap<>();
+    for (final Map.Entry<String, Set<String>> e : refs.entrySet()) {
+      final String ref = e.getValue().size() == 1 ? e.getValue().iterator().next() : null;
+      final File folder = new File(getSrcFolder(goPath),
+          e.getKey().replace('/', File.separatorChar)).getAbsoluteFile();
+      if (ref == null) {
+        getLog().debug("Repository is not pinned to single commit: " + e.getKey());
+      } else if (folder.isDirectory()
+          && !new File(folder, ".git" + File.separatorChar + "shallow").isFile()) {
+        getLog().debug("Repository has been already cloned with history: " + folder);
+      } else {
+        toFetch.put(folder, Tuple.of(urls.get(e.getKey()), ref));
+      }
+    }
+    if (toFetch.isEmpty()) {
+      return;
+    }
 
-              if (!repo.getProcessor()
-                  .prepareFolder(this.getLog(), proxySettings, this.getCvsExe(), rootCvsFolder)) {
-                this.getLog().debug("Can't prepare folder : " + rootCvsFolder);
-                return false;
+    getLog().info(String.format("Shallow fetch of %d pinned git repositories", toFetch.size()));
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(Math.max(1, Math.min(this.getCvsThreads(), toFetch.size())));
+    try {
+      final List<CompletableFuture<Void>> futures = new ArrayList<>();
+      for (final Map.Entry<File, Tuple<String, String>> e : toFetch.entrySet()) {
+        futures.add(CompletableFuture.runAsync(() -> {
+          final File folder = e.getKey();
+          final boolean existed = folder.isDirectory();
+          final BufferedLog log = new BufferedLog(this.getLog());
+          try {
+            if (existed && CVSType.GIT.getProcessor().isAtReference(log, this.getCvsExe(), folder,
+                e.getValue().right())) {
+              log.debug(String.format("Repository is already at %s: %s", e.getValue().right(),
+                  folder));
+              this.shallowFetchedFolders.add(folder);
+            } else if (CVSType.GIT.getProcessor().fetchShallow(log, proxy, this.getCvsExe(),
+                folder, e.getValue().left(), e.getValue().right())) {
+              log.info(String.format("Fetched %s at %s", e.getValue().left(),
+                  e.getValue().right()));
+              this.shallowFetchedFolders.add(folder);
+            } else {
+              log.warn("Can't make shallow fetch, repository will be cloned by go: "
+                  + e.getValue().left());
+              if (!existed) {
+                FileUtils.deleteQuietly(folder);
               }
+            }
+          } finally {
+            log.flush();
+          }
+        }, executor));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 
-              if (customcvs != null && p.doesNeedCvsProcessing()) {
-                this.getLog().warn(
-                    "CVS branch, tag or revision are ignored for provided custom CVS options!");
-              }
+  /**
+   * Make working copies of package repositories missing in GOPATH from local
+   * mirrors, mirrors are updated before use. Repositories which can't be
+   * cloned from mirror are left for 'go get'.
+   *
+   * @param packages packages, must not be null
+   * @param goPath   GOPATH folder where 'go get' places sources, must not be
+   *                 null
+   * @param proxy    proxy settings, can be null
+   */
+  private void cloneFromVcsMirrors(
+      @Nonnull @MustNotContainNull final List<PackageList.Package> packages,
+      @Nonnull final File goPath,
+      @Nullable final ProxySettings proxy) {
+    final Map<File, RemoteRepository> toClone = new LinkedHashMap<>();
+    for (final PackageList.Package p : packages) {
+      final RemoteRepository repository = findRemoteRepository(p.getPackage());
+      if (repository == null) {
+        getLog().debug("Can't detect repository for mirror: " + p.getPackage());
+        continue;
+      }
+      final File folder = new File(getSrcFolder(goPath),
+          repository.getRoot().replace('/', File.separatorChar)).getAbsoluteFile();
+      if (!folder.exists()) {
+        toClone.put(folder, repository);
+      }
+    }
+    if (toClone.isEmpty()) {
+      return;
+    }
 
-              if (customcvs != null) {
-                this.getLog().info("Custom CVS options : " + Arrays.toString(customcvs));
-                if (!repo.getProcessor()
-                    .processCVSForCustomOptions(this.getLog(), proxySettings, rootCvsFolder,
-                        this.getCvsExe(), customcvs)) {
-                  return false;
-                }
-              } else if (p.doesNeedCvsProcessing()) {
-                this.getLog().info(String
-                    .format("Switch '%s' to branch = '%s', tag = '%s', revision = '%s'", p,
-                        GetUtils.ensureNonNull(p.getBranch(), "_"),
-                        GetUtils.ensureNonNull(p.getTag(), "_"),
-                        GetUtils.ensureNonNull(p.getRevision(), "_")));
-                if (!repo.getProcessor()
-                    .processCVSRequisites(this.getLog(), proxySettings, this.getCvsExe(),
-                        rootCvsFolder, p.getBranch(), p.getTag(), p.getRevision())) {
-                  return false;
-                }
-              }
+    final VcsMirrorStore store =
+        new VcsMirrorStore(new File(this.getStoreFolder(), VcsMirrorStore.FOLDER_NAME));
+    getLog().info(String.format("Cloning %d repositories from mirrors in %s", toClone.size(),
+        store.getFolder()));
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(Math.max(1, Math.min(this.getCvsThreads(), toClone.size())));
+    try {
+      final List<CompletableFuture<Void>> futures = new ArrayList<>();
+      for (final Map.Entry<File, RemoteRepository> e : toClone.entrySet()) {
+        futures.add(CompletableFuture.runAsync(() -> {
+          final File folder = e.getKey();
+          final RemoteRepository repository = e.getValue();
+          final AbstractRepo processor = repository.getType().getProcessor();
+          final File mirror =
+              store.findMirrorFolder(repository.getType().name(), repository.getUrl());
+          final BufferedLog log = new BufferedLog(this.getLog());
+          try {
+            final boolean cloned = store.locked(mirror,
+                () -> processor.updateMirror(log, proxy, this.getCvsExe(), mirror,
+                    repository.getUrl())
+                    && processor.cloneFromMirror(log, proxy, this.getCvsExe(), mirror,
+                    repository.getUrl(), folder));
+            if (cloned) {
+              log.info("Cloned from mirror: " + repository.getUrl());
+            } else {
+              log.warn("Can't clone from mirror, repository will be cloned by go: "
+                  + repository.getUrl());
+              FileUtils.deleteQuietly(folder);
             }
+          } catch (IOException ex) {
+            log.warn("Can't lock mirror " + mirror + ", repository will be cloned by go", ex);
+            FileUtils.deleteQuietly(folder);
+          } finally {
+            log.flush();
           }
+        }, executor));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 
-          if (this.getCustomScript() != null) {
-            if (!processCustomScriptCallForPackage(p.getPackage(), rootCvsFolder,
-                Assertions.assertNotNull(this.getCustomScript()))) {
-              return false;
+  @Nullable
+  private File findCvsFolderForPackage(@Nonnull final File goPath,
+                                       @Nonnull final PackageList.Package pkg) {
+    final File packageFolder = this.makePathToPackageSources(goPath, pkg.getPackage());
+    if (this.getRelativePathToCvsFolder() == null && !this.isDisableCvsAutoSearch()) {
+      return this.findRootCvsFolderForPackageSources(goPath, packageFolder);
+    }
+    return packageFolder;
+  }
+
+  /**
+   * Find current revisions of CVS folders for packages, a package gets null if
+   * its revision can't be detected or differs in GOPATH folders.
+   *
+   * @param packages packages to be processed, must not be null
+   * @param goPath   GOPATH folders, must not be null
+   * @return map of packages and their revisions in the same order
+   */
+  @Nonnull
+  private Map<PackageList.Package, String> findCurrentRevisions(
+      @Nonnull @MustNotContainNull final List<PackageList.Package> packages,
+      @Nonnull @MustNotContainNull final File[] goPath) {
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(Math.max(1, Math.min(this.getCvsThreads(), packages.size())));
+    try {
+      final Map<PackageList.Package, CompletableFuture<String>> futures = new LinkedHashMap<>();
+      for (final PackageList.Package p : packages) {
+        futures.put(p, CompletableFuture.supplyAsync(() -> {
+          String result = null;
+          for (final File f : goPath) {
+            final File folder = this.findCvsFolderForPackage(f, p);
+            final String revision = folder == null ? null : CVSType.investigateFolder(folder)
+                .getProcessor().findCurrentRevision(this.getLog(), this.getCvsExe(), folder);
+            if (revision == null || (result != null && !result.equals(revision))) {
+              return null;
             }
+            result = revision;
           }
+          return result;
+        }, executor));
+      }
+      final Map<PackageList.Package, String> result = new LinkedHashMap<>();
+      for (final Map.Entry<PackageList.Package, CompletableFuture<String>> e : futures.entrySet()) {
+        result.put(e.getKey(), e.getValue().join());
+      }
+      return result;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private boolean processCvsFolder(
+      @Nonnull final Log log,
+      @Nullable final ProxySettings proxySettings,
+      @Nonnull final File rootCvsFolder,
+      @Nonnull final CVSType repo,
+      @Nonnull @MustNotContainNull final List<PackageList.Package> packages,
+      @Nonnull final AtomicBoolean failed) {
+    for (final PackageList.Package p : packages) {
+      if (failed.get()) {
+        // some other folder processing has been failed
+        return false;
+      }
+
+      final String[] customcvs = this.getCustomCvsOptions();
 
+      if (customcvs == null && this.shallowFetchedFolders.contains(rootCvsFolder)) {
+        log.debug(String.format("Package '%s' has been already fetched at requested revision", p));
+      } else if (customcvs != null || p.doesNeedCvsProcessing()) {
+
+        if (!repo.getProcessor()
+            .prepareFolder(log, proxySettings, this.getCvsExe(), rootCvsFolder)) {
+          log.debug("Can't prepare folder : " + rootCvsFolder);
+          return false;
+        }
+
+        if (customcvs != null && p.doesNeedCvsProcessing()) {
+          log.warn("CVS branch, tag or revision are ignored for provided custom CVS options!");
+        }
+
+        if (customcvs != null) {
+          log.info("Custom CVS options : " + Arrays.toString(customcvs));
+          if (!repo.getProcessor()
+              .processCVSForCustomOptions(log, proxySettings, rootCvsFolder,
+                  this.getCvsExe(), customcvs)) {
+            return false;
+          }
+        } else if (p.doesNeedCvsProcessing()) {
+          log.info(String
+              .format("Switch '%s' to branch = '%s', tag = '%s', revision = '%s'", p,
+                  GetUtils.ensureNonNull(p.getBranch(), "_"),
+                  GetUtils.ensureNonNull(p.getTag(), "_"),
+                  GetUtils.ensureNonNull(p.getRevision(), "_")));
+          if (!repo.getProcessor()
+              .processCVSRequisites(log, proxySettings, this.getCvsExe(),
+                  rootCvsFolder, p.getBranch(), p.getTag(), p.getRevision())) {
+            return false;
+          }
+        }
+      }
+
+      if (this.getCustomScript() != null) {
+        if (!processCustomScriptCallForPackage(log, p.getPackage(), rootCvsFolder,
+            Assertions.assertNotNull(this.getCustomScript()))) {
+          return false;
         }
       }
     }
     return true;
   }
 
-  private boolean processCustomScriptCallForPackage(@Nonnull final String packageName,
+  private boolean processCustomScriptCallForPackage(@Nonnull final Log log,
+                                                    @Nonnull final String packageName,
                                                     @Nonnull final File rootCvsFolder,
                                                     @Nonnull final CustomScript script) {
     final List<String> command = new ArrayList<>();
@@ -346,15 +792,19 @@ public class GolangGetMojo extends AbstractModuleAware {
       command.addAll(Arrays.asList(script.options));
     }
 
-    if (getLog().isDebugEnabled()) {
-      getLog().debug("CLI : " + command);
-      getLog().debug("Package name : " + packageName);
-      getLog().debug("Root CVS folder : " + rootCvsFolder);
+    if (log.isDebugEnabled()) {
+      log.debug("CLI : " + command);
+      log.debug("Package name : " + packageName);
+      log.debug("Root CVS folder : " + rootCvsFolder);
     }
 
-    getLog().warn(String.format("Starting script in VCS folder [%s] : %s", packageName,
+    log.warn(String.format("Starting script in VCS folder [%s] : %s", packageName,
         StringUtils.join(command.toArray(), ' ')));
 
+    // output is collected to be logged together with other records of the package
+    final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+    final ByteArrayOutputStream errStream = new ByteArrayOutputStream();
+
     final ProcessExecutor processExecutor = new ProcessExecutor(command.toArray(new String[0]));
     processExecutor
         .exitValueAny()
@@ -363,8 +813,8 @@ public class GolangGetMojo extends AbstractModuleAware {
         .environment("MVNGO_CVS_TAG", GetUtils.ensureNonNull(this.tag, ""))
         .environment("MVNGO_CVS_REVISION", GetUtils.ensureNonNull(this.revision, ""))
         .environment("MVNGO_CVS_PACKAGE", packageName)
-        .redirectError(System.err)
-        .redirectOutput(System.out);
+        .redirectError(errStream)
+        .redirectOutput(outStream);
 
     boolean result = false;
 
@@ -374,7 +824,23 @@ public class GolangGetMojo extends AbstractModuleAware {
 
       result = script.ignoreFail || exitValue == 0;
     } catch (IOException | InterruptedException | InvalidExitValueException ex) {
-      getLog().error("Error in custom script processing", ex);
+      if (ex instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      log.error("Error in custom script processing", ex);
+    }
+
+    final String out = new String(outStream.toByteArray(), Charset.defaultCharset()).trim();
+    final String err = new String(errStream.toByteArray(), Charset.defaultCharset()).trim();
+    if (!out.isEmpty()) {
+      log.info(out);
+    }
+    if (!err.isEmpty()) {
+      if (result) {
+        log.info(err);
+      } else {
+        log.error(err);
+      }
     }
 
     return result;
@@ -455,7 +921,9 @@ public class GolangGetMojo extends AbstractModuleAware {
   public boolean isMojoMustNotBeExecuted() throws MojoFailureException {
     final String[] packages = getTailArguments();
     final boolean result;
-    if (packages.length == 0) {
+    if (this.skippedByLock) {
+      result = true;
+    } else if (packages.length == 0) {
       getLog().info("There are no packages directly provided as tail arguments");
       result = true;
     } else {
@@ -576,7 +1044,7 @@ public class GolangGetMojo extends AbstractModuleAware {
     return fixed != 0;
   }
 
-  private void preparePackageList() throws MojoExecutionException {
+  void preparePackageList() throws MojoExecutionException {
     final boolean debugEnabled = getLog().isDebugEnabled();
 
     if (debugEnabled) {
@@ -763,6 +1231,12 @@ public class GolangGetMojo extends AbstractModuleAware {
 
     final String[] customCvs = this.getCustomCvsOptions();
 
+    this.skippedByLock = this.isSkippedByLock();
+    if (this.skippedByLock) {
+      getLog().info("All packages are at locked revisions, skip loading: " + this.getLockFile());
+      return;
+    }
+
     boolean hasTagBranchOrRevision = false;
 
     final List<PackageList.Package> packages = Assertions
@@ -775,6 +1249,18 @@ public class GolangGetMojo extends AbstractModuleAware {
       }
     }
 
+    if (customCvs == null && this.isUseVcsMirrors() && this.getRelativePathToCvsFolder() == null) {
+      final File[] goPath;
+      try {
+        goPath = findGoPath(true);
+      } catch (IOException ex) {
+        throw new MojoFailureException("Can't find $GOPATH", ex);
+      }
+      if (goPath.length > 0) {
+        this.cloneFromVcsMirrors(packages, goPath[0], proxySettings);
+      }
+    }
+
     if (customCvs != null || hasTagBranchOrRevision) {
       final File[] goPath;
       try {
@@ -783,6 +1269,11 @@ public class GolangGetMojo extends AbstractModuleAware {
         throw new MojoFailureException("Can't find $GOPATH", ex);
       }
 
+      if (customCvs == null && this.isUseShallowFetch() && this.getRelativePathToCvsFolder() == null
+          && goPath.length > 0) {
+        this.fetchPinnedPackagesShallow(packages, goPath[0], proxySettings);
+      }
+
       getLog().info("(!) Get initial version of package repository before CVS operations");
       this.buildFlagsToIgnore.add("-u");
       this.addTmpBuildFlagIfNotPresented("-d");
@@ -812,6 +1303,78 @@ public class GolangGetMojo extends AbstractModuleAware {
     }
   }
 
+  /**
+   * Check that loading of packages can be skipped because the lock is used and
+   * all packages are at their locked revisions.
+   *
+   * @return true if loading should be skipped
+   * @throws MojoExecutionException if GOPATH can't be found
+   */
+  boolean isSkippedByLock() throws MojoExecutionException {
+    if (!this.isUseGetLock() || this.getCustomCvsOptions() != null) {
+      return false;
+    }
+    if (this.isUpdateGetLock()) {
+      getLog().info("Lock of packages will be refreshed");
+      return false;
+    }
+    return this.isLockMatched();
+  }
+
+  private boolean isLockMatched() throws MojoExecutionException {
+    final File file = this.getLockFile();
+    if (file == null || !file.isFile() || this.integralPackageList.isEmpty()) {
+      return false;
+    }
+    final PackageLock lock;
+    try {
+      lock = PackageLock.read(file);
+    } catch (IOException ex) {
+      getLog().warn("Can't read lock file, it will be refreshed: " + ex.getMessage());
+      return false;
+    }
+    if (lock.isEmpty()) {
+      return false;
+    }
+    try {
+      return lock.matches(this.findCurrentRevisions(this.integralPackageList, findGoPath(true)));
+    } catch (IOException ex) {
+      throw new MojoExecutionException("Can't find $GOPATH", ex);
+    }
+  }
+
+  @Override
+  public void afterExecution(@Nullable final ProxySettings proxySettings, final boolean error)
+      throws MojoFailureException, MojoExecutionException {
+    final File file = this.getLockFile();
+    if (error || this.skippedByLock || file == null || !this.isUseGetLock()
+        || this.getCustomCvsOptions() != null || this.integralPackageList.isEmpty()) {
+      return;
+    }
+    try {
+      PackageLock lock;
+      try {
+        lock = PackageLock.read(file);
+      } catch (IOException ex) {
+        lock = new PackageLock();
+      }
+      final Map<PackageList.Package, String> revisions =
+          this.findCurrentRevisions(this.integralPackageList, findGoPath(true));
+      for (final Map.Entry<PackageList.Package, String> e : revisions.entrySet()) {
+        if (e.getValue() == null) {
+          getLog().warn("Can't lock package because revision is not detected or there are changes: "
+              + e.getKey().getPackage());
+        } else {
+          lock.put(e.getKey(), e.getValue());
+        }
+      }
+      lock.write(file);
+      getLog().debug("Lock file has been written: " + file);
+    } catch (IOException ex) {
+      throw new MojoExecutionException("Can't write lock file: " + file, ex);
+    }
+  }
+
   @Nonnull
   private String interpolate(@Nonnull final String str) throws IOException, InterpolationException {
     Interpolator interpolator = new StringSearchInterpolator();
@@ -859,4 +1422,37 @@ public class GolangGetMojo extends AbstractModuleAware {
     return result;
   }
 
+  /**
+   * Remote repository of package.
+   */
+  static final class RemoteRepository {
+
+    private final String root;
+    private final CVSType type;
+
+    RemoteRepository(@Nonnull final String root, @Nonnull final CVSType type) {
+      this.root = root;
+      this.type = type;
+    }
+
+    /**
+     * Get path of repository root folder relative to 'src'.
+     *
+     * @return root path, must not be null
+     */
+    @Nonnull
+    String getRoot() {
+      return this.root;
+    }
+
+    @Nonnull
+    String getUrl() {
+      return "https://" + this.root;
+    }
+
+    @Nonnull
+    CVSType getType() {
+      return this.type;
+    }
+  }
 }
@@ -17,33 +17,32 @@
 package com.igormaznitsa.mvngolang;
 
 import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import com.igormaznitsa.mvngolang.utils.ArchivePacker;
+import com.igormaznitsa.mvngolang.utils.ArtifactGraphCache;
+import com.igormaznitsa.mvngolang.utils.ArtifactIndex;
 import com.igormaznitsa.mvngolang.utils.MavenUtils;
 import com.igormaznitsa.mvngolang.utils.ProxySettings;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Build;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Resource;
 import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 import org.apache.maven.plugins.annotations.*;
-import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectHelper;
 import org.apache.maven.shared.transfer.artifact.install.ArtifactInstaller;
 import org.apache.maven.shared.transfer.repository.RepositoryManager;
-import org.zeroturnaround.zip.ZipUtil;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
-import java.util.Set;
-
-import static com.igormaznitsa.mvngolang.utils.IOUtils.closeSilently;
 
 /**
  * The Mojo packs all found source and resource project folders and create new
@@ -70,6 +69,14 @@ public class GolangMvnInstallMojo extends AbstractGoDependencyAwareMojo {
    */
   public static final String MVNGOLANG_BUILD_FOLDERS_FILE = ".mvn-golang-build-folders";
 
+  /**
+   * Suffix of file placed near packed artifact and contains its content
+   * manifest, the artifact is not packed again if the manifest is the same.
+   *
+   * @since 2.3.10
+   */
+  public static final String MANIFEST_SUFFIX = ".manifest";
+
   @Component
   protected RepositoryManager repositoryManager;
 
@@ -95,6 +102,27 @@ public class GolangMvnInstallMojo extends AbstractGoDependencyAwareMojo {
     this.compression = level;
   }
 
+  /**
+   * Max number of threads to compress entries of the artifact archive, if zero
+   * or negative then number of available processors is used, 1 means
+   * sequential compression. Can be defined through property
+   * 'mvn.golang.pack.threads'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "packThreads", defaultValue = "0")
+  private int packThreads;
+
+  public int getPackThreads() {
+    final int value = Integer.parseInt(findMvnProperty("mvn.golang.pack.threads",
+            Integer.toString(this.packThreads)).trim());
+    return value <= 0 ? Runtime.getRuntime().availableProcessors() : value;
+  }
+
+  public void setPackThreads(final int value) {
+    this.packThreads = value;
+  }
+
   @Nullable
   @Override
   protected String getSkipMojoPropertySuffix() {
@@ -114,44 +142,90 @@ public class GolangMvnInstallMojo extends AbstractGoDependencyAwareMojo {
           throws IOException {
     final File archive = compressProjectFiles();
     this.getProject().getArtifact().setFile(archive);
+    ArtifactGraphCache.forSession(this.getSession()).invalidate(this.getProject().getArtifact());
     return false;
   }
 
-  private void safeCopyDirectory(@Nullable final String src, @Nonnull final File dst,
-                                 @Nullable @MustNotContainNull final List<File> dstList)
+  private void safeAddDirectory(@Nonnull final ArchivePacker packer, @Nullable final String src,
+                                @Nullable @MustNotContainNull final List<String> dstList)
           throws IOException {
     if (!(src == null || src.isEmpty())) {
       final File srcFile = new File(src);
       if (srcFile.isDirectory()) {
         if (getLog().isDebugEnabled()) {
-          getLog().debug(
-                  String.format("Copying %s => %s", srcFile.getAbsolutePath(), dst.getAbsolutePath()));
+          getLog().debug(String.format("Adding %s", srcFile.getAbsolutePath()));
         }
-        FileUtils.copyDirectoryToDirectory(srcFile, dst);
+        packer.addFolder(srcFile, srcFile.getName() + '/', GO_MOD_FILE_NAME_BAK);
         if (dstList != null) {
-          dstList.add(new File(dst, srcFile.getName()));
+          dstList.add(srcFile.getName());
         }
       }
     }
   }
 
-  private void saveEffectivePom(@Nonnull final File folder) throws IOException {
-    final Model model = this.getProject().getModel();
-    Writer writer = null;
-    try {
-      writer = new OutputStreamWriter(new FileOutputStream(new File(folder, "pom.xml"), false),
-              StandardCharsets.UTF_8);
-      new MavenXpp3Writer().write(writer, model);
-      if (getLog().isDebugEnabled()) {
-        getLog().debug("Effective pom has been written");
+  /**
+   * Replace base directory prefix of absolute path to make it independent on
+   * place of project.
+   *
+   * @param path path to be processed, can be null
+   * @return path relative to '${project.basedir}' or the same path if it is
+   * outside of the base directory
+   */
+  @Nullable
+  private String makeBasedirRelative(@Nullable final String path) {
+    final File basedir = this.getProject().getBasedir();
+    if (path == null || basedir == null) {
+      return path;
+    }
+    final String base = basedir.getAbsolutePath();
+    if (path.equals(base)) {
+      return "${project.basedir}";
+    }
+    if (path.startsWith(base + File.separatorChar)) {
+      return "${project.basedir}/"
+              + path.substring(base.length() + 1).replace(File.separatorChar, '/');
+    }
+    return path;
+  }
+
+  @Nonnull
+  private byte[] makeEffectivePom() throws IOException {
+    final Model model = this.getProject().getModel().clone();
+    final Build build = model.getBuild();
+    if (build != null) {
+      build.setDirectory(makeBasedirRelative(build.getDirectory()));
+      build.setOutputDirectory(makeBasedirRelative(build.getOutputDirectory()));
+      build.setTestOutputDirectory(makeBasedirRelative(build.getTestOutputDirectory()));
+      build.setSourceDirectory(makeBasedirRelative(build.getSourceDirectory()));
+      build.setTestSourceDirectory(makeBasedirRelative(build.getTestSourceDirectory()));
+      build.setScriptSourceDirectory(makeBasedirRelative(build.getScriptSourceDirectory()));
+      for (final Resource res : build.getResources()) {
+        res.setDirectory(makeBasedirRelative(res.getDirectory()));
       }
-    } finally {
-      closeSilently(writer);
+      for (final Resource res : build.getTestResources()) {
+        res.setDirectory(makeBasedirRelative(res.getDirectory()));
+      }
+    }
+    if (model.getReporting() != null) {
+      model.getReporting()
+              .setOutputDirectory(makeBasedirRelative(model.getReporting().getOutputDirectory()));
+    }
+    final StringWriter writer = new StringWriter();
+    new MavenXpp3Writer().write(writer, model);
+    String text = writer.toString();
+    final File basedir = this.getProject().getBasedir();
+    if (basedir != null) {
+      // plugin configurations can contain paths injected by maven
+      text = text.replace(basedir.getAbsolutePath(), "${project.basedir}");
+    }
+    if (getLog().isDebugEnabled()) {
+      getLog().debug("Effective pom has been formed");
     }
+    return text.getBytes(StandardCharsets.UTF_8);
   }
 
   @Nonnull
-  private File compressProjectFiles() throws IOException {
+  File compressProjectFiles() throws IOException {
     final Artifact artifact = this.getProject().getArtifact();
 
     File buildFolder = new File(this.getProject().getBuild().getDirectory());
@@ -162,132 +236,133 @@ public class GolangMvnInstallMojo extends AbstractGoDependencyAwareMojo {
 
     File resultZip = new File(buildFolder,
             artifact.getArtifactId() + '-' + artifact.getVersion() + '.' + artifact.getType());
-    if (resultZip.isFile() && !resultZip.delete()) {
-      throw new IOException("Can't delete file : " + resultZip);
-    }
+    final File manifest = new File(buildFolder, resultZip.getName() + MANIFEST_SUFFIX);
 
-    final File folderToPack = new File(buildFolder, ".tmp_pack_folder_" +
-            Long.toHexString(System.currentTimeMillis()).toUpperCase(Locale.ENGLISH));
-    if (folderToPack.isDirectory()) {
-      FileUtils.deleteDirectory(folderToPack);
-    }
-    if (!folderToPack.mkdirs()) {
-      throw new IOException("Can't create temp folder : " + folderToPack);
+    final ArchivePacker packer =
+            new ArchivePacker(Math.min(9, Math.max(1, this.compression)), this.getPackThreads());
+    final Long outputTimestamp = this.findOutputTimestamp();
+    if (outputTimestamp != null) {
+      packer.setEntryTime(outputTimestamp);
     }
 
-    final File mvnGolangDependencyListFile = new File(folderToPack, MVNGOLANG_DEPENDENCIES_FILE);
-    final File mvnGolangBuildFolderListFile = new File(folderToPack, MVNGOLANG_BUILD_FOLDERS_FILE);
-    try {
-      saveEffectivePom(folderToPack);
+    final List<String> buildFolderRecords = new ArrayList<>();
+    final List<String> dependencyRecords = new ArrayList<>();
 
-      final List<File> buildFolders = new ArrayList<>();
-
-      FileUtils.copyFileToDirectory(this.getProject().getFile(), folderToPack);
+    packer.add("pom.xml", makeEffectivePom());
+    // original pom must not replace the effective one
+    final File pomFile = this.getProject().getFile();
+    if (!"pom.xml".equals(pomFile.getName())) {
+      packer.add(pomFile.getName(), pomFile);
+    }
 
-      safeCopyDirectory(this.getProject().getBuild().getTestSourceDirectory(), folderToPack, null);
+    safeAddDirectory(packer, this.getProject().getBuild().getTestSourceDirectory(), null);
 
-      for (final Resource res : this.getProject().getBuild().getTestResources()) {
-        safeCopyDirectory(res.getDirectory(), folderToPack, null);
-      }
+    for (final Resource res : this.getProject().getBuild().getTestResources()) {
+      safeAddDirectory(packer, res.getDirectory(), null);
+    }
 
-      for (final Resource res : this.getProject().getBuild().getResources()) {
-        safeCopyDirectory(res.getDirectory(), folderToPack, buildFolders);
-      }
+    for (final Resource res : this.getProject().getBuild().getResources()) {
+      safeAddDirectory(packer, res.getDirectory(), buildFolderRecords);
+    }
 
-      safeCopyDirectory(this.getSources(false).getAbsolutePath(), folderToPack, buildFolders);
+    safeAddDirectory(packer, this.getSources(false).getAbsolutePath(), buildFolderRecords);
 
-      if (getLog().isDebugEnabled()) {
-        getLog().debug(String.format("Packing folder %s to %s", folderToPack.getAbsolutePath(),
-                resultZip.getAbsolutePath()));
-      }
+    if (getLog().isDebugEnabled()) {
+      getLog().debug(String.format("Packing %d entries to %s", packer.getPaths().size(),
+              resultZip.getAbsolutePath()));
+    }
 
-      if (mvnGolangBuildFolderListFile.isFile()) {
+    final File existingBuildFolderList = packer.findFile(MVNGOLANG_BUILD_FOLDERS_FILE);
+    if (existingBuildFolderList != null) {
+      this.getLog().warn(
+              "Skip build source folder list descriptor create because detected existing one: " +
+                      MVNGOLANG_BUILD_FOLDERS_FILE);
+      buildFolderRecords.clear();
+      buildFolderRecords.addAll(readNonEmptyLines(existingBuildFolderList));
+    } else {
+      if (buildFolderRecords.isEmpty()) {
         this.getLog().warn(
-                "Skip build source folder list descriptor create because detected existing one: " +
-                        MVNGOLANG_BUILD_FOLDERS_FILE);
+                "Skip build source folder list descriptor because there is not either source or resource folder for build");
       } else {
-        if (buildFolders.isEmpty()) {
-          this.getLog().warn(
-                  "Skip build source folder list descriptor because there is not either source or resource folder for build");
-        } else {
-          final String rooPath = FilenameUtils
-                  .separatorsToUnix(FilenameUtils.normalize(folderToPack.getAbsolutePath()));
-          final StringBuilder buffer = new StringBuilder();
-          for (final File f : buildFolders) {
-            String relativePath =
-                    FilenameUtils.separatorsToUnix(FilenameUtils.normalize(f.getAbsolutePath()))
-                            .substring(rooPath.length() + 1);
-            if (buffer.length() > 0) {
-              buffer.append('\n');
-            }
-            this.getLog().debug("Add build folder into descriptor: " + relativePath);
-            buffer.append(relativePath);
-          }
-          final String fileContent = buffer.toString();
-          this.getLog().debug(
-                  "Formed list of mvn-golang project source and resource build folders\n---------" +
-                          fileContent + "---------");
-          FileUtils
-                  .writeStringToFile(mvnGolangBuildFolderListFile, fileContent, StandardCharsets.UTF_8);
-        }
-      }
-
-      if (mvnGolangDependencyListFile.isFile()) {
-        this.getLog().warn("Skip dependency descriptor create because detected existing one: " +
-                MVNGOLANG_DEPENDENCIES_FILE);
-      } else {
-        final List<Artifact> golangDependencies = new ArrayList<>();
-        MavenProject currentProject = this.getProject();
-        while (currentProject != null && !Thread.currentThread().isInterrupted()) {
-          final Set<Artifact> dependencies = currentProject.getDependencyArtifacts();
-          if (dependencies != null) {
-            for (final Artifact a : dependencies) {
-              if (AbstractGolangMojo.GOARTIFACT_PACKAGING.equals(a.getType())) {
-                golangDependencies.add(a);
-              }
-            }
-          }
-          currentProject = currentProject.getParent();
-        }
-
-        final StringBuilder buffer = new StringBuilder();
-        for (final Artifact a : golangDependencies) {
-          buffer.append(MavenUtils.makeArtifactRecord(a)).append('\n');
-        }
-        final String flagFileContent = buffer.toString();
+        final String fileContent = String.join("\n", buildFolderRecords);
         this.getLog().debug(
-                "Formed list of mvn-golang dependencies\n---------" + flagFileContent + "---------");
-        FileUtils.writeStringToFile(mvnGolangDependencyListFile, flagFileContent,
-                StandardCharsets.UTF_8);
+                "Formed list of mvn-golang project source and resource build folders\n---------" +
+                        fileContent + "---------");
+        packer.add(MVNGOLANG_BUILD_FOLDERS_FILE, fileContent.getBytes(StandardCharsets.UTF_8));
       }
+    }
 
-      this.getLog().debug("Restoring all backup go.mod in prepared folder to pack");
-      restoreAllBackupGoMod(folderToPack);
-
-      ZipUtil.pack(folderToPack, resultZip, Math.min(9, Math.max(1, this.compression)));
-    } finally {
-      FileUtils.deleteQuietly(folderToPack);
+    final File existingDependencyList = packer.findFile(MVNGOLANG_DEPENDENCIES_FILE);
+    if (existingDependencyList != null) {
+      this.getLog().warn("Skip dependency descriptor create because detected existing one: " +
+              MVNGOLANG_DEPENDENCIES_FILE);
+      dependencyRecords.addAll(readNonEmptyLines(existingDependencyList));
+    } else {
+      final StringBuilder buffer = new StringBuilder();
+      for (final String record : MavenUtils.makeDependencyRecords(this.getProject())) {
+        buffer.append(record).append('\n');
+        dependencyRecords.add(record);
+      }
+      final String flagFileContent = buffer.toString();
+      this.getLog().debug(
+              "Formed list of mvn-golang dependencies\n---------" + flagFileContent + "---------");
+      packer.add(MVNGOLANG_DEPENDENCIES_FILE, flagFileContent.getBytes(StandardCharsets.UTF_8));
+    }
+    packer.remove(ArtifactIndex.ENTRY_NAME);
+
+    final boolean packed = packer.packIfChanged(resultZip, manifest, paths -> {
+      final ArtifactIndex index = new ArtifactIndex(buildFolderRecords, dependencyRecords);
+      final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      index.write(buffer);
+      return Collections.singletonMap(ArtifactIndex.ENTRY_NAME, buffer.toByteArray());
+    });
+    if (packed) {
+      this.getLog().debug(
+              String.format("Artifact has been packed: %d entries", packer.getPaths().size()));
+    } else {
+      this.getLog().info("Content is not changed, reuse packed artifact: " + resultZip.getName());
     }
 
     return resultZip;
   }
 
-  private void restoreAllBackupGoMod(@Nonnull final File folder) throws IOException {
-    final File backup = new File(folder, GO_MOD_FILE_NAME_BAK);
-    if (backup.isFile()) {
-      final File gomod = new File(folder, GO_MOD_FILE_NAME);
-      if (gomod.isFile() && !gomod.delete()) {
-        throw new IOException("Can't delete " + gomod);
-      }
-      if (!backup.renameTo(gomod)) {
-        throw new IOException("Can't rename " + backup);
+  /**
+   * Find time of archive entries defined by 'project.build.outputTimestamp'
+   * property, either ISO-8601 time with offset or number of seconds since
+   * epoch.
+   *
+   * @return time in milliseconds or null if not defined or can't be parsed
+   */
+  @Nullable
+  private Long findOutputTimestamp() {
+    final String value = MavenUtils.findProperty(this.getSession(), this.getProject(),
+            "project.build.outputTimestamp", null);
+    if (value == null || value.trim().length() < 2) {
+      // as in maven, single character value disables the timestamp
+      return null;
+    }
+    final String text = value.trim();
+    try {
+      if (text.chars().allMatch(Character::isDigit)) {
+        return Long.parseLong(text) * 1000L;
       }
+      return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+    } catch (NumberFormatException | DateTimeParseException ex) {
+      this.getLog().warn("Can't parse project.build.outputTimestamp: " + text);
+      return null;
     }
+  }
 
-    for (final File f : folder.listFiles(
-            pathname -> pathname.isDirectory() && !Files.isSymbolicLink(pathname.toPath()))) {
-      restoreAllBackupGoMod(f);
+  @Nonnull
+  @MustNotContainNull
+  private static List<String> readNonEmptyLines(@Nonnull final File file) throws IOException {
+    final List<String> result = new ArrayList<>();
+    for (final String line : FileUtils.readLines(file, StandardCharsets.UTF_8)) {
+      if (!line.trim().isEmpty()) {
+        result.add(line.trim());
+      }
     }
+    return result;
   }
 
   @Nonnull
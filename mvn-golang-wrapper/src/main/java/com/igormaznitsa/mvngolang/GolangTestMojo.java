@@ -19,17 +19,30 @@ package com.igormaznitsa.mvngolang;
 import com.igormaznitsa.meta.annotation.MustNotContainNull;
 import com.igormaznitsa.meta.common.utils.ArrayUtils;
 import com.igormaznitsa.meta.common.utils.GetUtils;
+import com.igormaznitsa.mvngolang.utils.CoverProfile;
 import com.igormaznitsa.mvngolang.utils.MavenUtils;
+import com.igormaznitsa.mvngolang.utils.ProxySettings;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.zeroturnaround.exec.ProcessExecutor;
+import org.zeroturnaround.exec.ProcessResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.File;
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The Mojo wraps the 'test' command.
@@ -43,6 +56,57 @@ public class GolangTestMojo extends AbstractModuleAware {
   @Parameter(name = "testFlags")
   private String[] testFlags;
 
+  /**
+   * Merge all detected Go coverage profiles into single profile and make text
+   * summary report after test execution. Profile provided through
+   * '-coverprofile' among build or test flags is detected automatically. Also
+   * can be defined through property 'mvn.golang.test.coverage.merge'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "mergeCoverage", defaultValue = "false")
+  private boolean mergeCoverage;
+
+  /**
+   * Additional coverage profiles to be merged, for instance profiles generated
+   * by other executions. Missing files are ignored.
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "coverageProfiles")
+  private String[] coverageProfiles;
+
+  /**
+   * Folders containing coverage data written through GOCOVERDIR by binaries
+   * built with '-cover' (for instance during integration tests). They are
+   * converted by 'go tool covdata textfmt' and merged. Missing folders are
+   * ignored.
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "coverageDataFolders")
+  private String[] coverageDataFolders;
+
+  /**
+   * Folder to place merged coverage profile 'coverage.out' and summary report
+   * 'coverage-summary.txt'.
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "coverageFolder", defaultValue = "${project.build.directory}${file.separator}coverage")
+  private String coverageFolder;
+
+  /**
+   * Path to coverage profile shared between modules of reactor. If defined then
+   * merged module coverage is added into the file under file lock so that the
+   * file contains coverage of all modules processed in the same maven session.
+   * Also can be defined through property 'mvn.golang.test.coverage.reactor.profile'
+   *
+   * @since 2.3.10
+   */
+  @Parameter(name = "reactorCoverageProfile")
+  private String reactorCoverageProfile;
+
   @Nonnull
   private String ensureGoExtension(@Nonnull final String name) {
     return name.endsWith(".go") ? name : name + ".go";
@@ -94,6 +158,39 @@ public class GolangTestMojo extends AbstractModuleAware {
         || super.isIgnoreErrorExitCode();
   }
 
+  public boolean isMergeCoverage() {
+    return Boolean.parseBoolean(
+        findMvnProperty("mvn.golang.test.coverage.merge", Boolean.toString(this.mergeCoverage)));
+  }
+
+  public void setMergeCoverage(final boolean value) {
+    this.mergeCoverage = value;
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  public String[] getCoverageProfiles() {
+    return GetUtils.ensureNonNull(this.coverageProfiles, ArrayUtils.EMPTY_STRING_ARRAY).clone();
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  public String[] getCoverageDataFolders() {
+    return GetUtils.ensureNonNull(this.coverageDataFolders, ArrayUtils.EMPTY_STRING_ARRAY)
+        .clone();
+  }
+
+  @Nullable
+  public String getCoverageFolder() {
+    return this.coverageFolder;
+  }
+
+  @Nullable
+  public String getReactorCoverageProfile() {
+    return findMvnProperty("mvn.golang.test.coverage.reactor.profile",
+        this.reactorCoverageProfile);
+  }
+
   @Nullable
   @MustNotContainNull
   public String[] getTestFlags() {
@@ -123,4 +220,213 @@ public class GolangTestMojo extends AbstractModuleAware {
     return true;
   }
 
+  @Nullable
+  private static String findCoverProfileInFlags(@Nonnull @MustNotContainNull final String[] flags) {
+    String result = null;
+    for (int i = 0; i < flags.length; i++) {
+      final String flag = flags[i];
+      for (final String prefix : new String[] {"-coverprofile", "-test.coverprofile"}) {
+        if (flag.equals(prefix) && i + 1 < flags.length) {
+          result = flags[i + 1];
+        } else if (flag.startsWith(prefix + '=')) {
+          result = flag.substring(prefix.length() + 1);
+        }
+      }
+    }
+    return result;
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private List<File> findCoverageProfiles() throws IOException {
+    final Set<File> result = new LinkedHashSet<>();
+
+    final String profileInFlags = GetUtils.findFirstNonNull(
+        findCoverProfileInFlags(GetUtils.ensureNonNull(this.testFlags, ArrayUtils.EMPTY_STRING_ARRAY)),
+        findCoverProfileInFlags(this.getBuildFlags()), "");
+    if (!profileInFlags.isEmpty()) {
+      final File file = new File(profileInFlags);
+      result.add(file.isAbsolute() ? file : new File(this.getWorkingDirectoryForExecutor(), profileInFlags));
+    }
+
+    for (final String path : this.getCoverageProfiles()) {
+      result.add(new File(path));
+    }
+
+    final List<File> existing = new ArrayList<>();
+    for (final File f : result) {
+      if (f.isFile()) {
+        existing.add(f);
+      } else {
+        this.getLog().debug("Coverage profile not found: " + f);
+      }
+    }
+    return existing;
+  }
+
+  @Nullable
+  private File convertCoverageDataFolders(@Nonnull final File tempFolder)
+      throws IOException, MojoFailureException, MojoExecutionException {
+    final StringBuilder folders = new StringBuilder();
+    for (final String path : this.getCoverageDataFolders()) {
+      final File folder = new File(path);
+      if (folder.isDirectory()) {
+        if (folders.length() > 0) {
+          folders.append(',');
+        }
+        folders.append(folder.getAbsolutePath());
+      } else {
+        this.getLog().debug("Coverage data folder not found: " + folder);
+      }
+    }
+    if (folders.length() == 0) {
+      return null;
+    }
+
+    final File goRoot = this.findGoRoot(null);
+    final File goExe = new File(goRoot, adaptExecNameForOS(this.makeExecutableFileSubpath()));
+    final File result = new File(tempFolder, ".covdata.out");
+
+    final List<String> command = new ArrayList<>();
+    command.add(goExe.getAbsolutePath());
+    command.add("tool");
+    command.add("covdata");
+    command.add("textfmt");
+    command.add("-i=" + folders);
+    command.add("-o=" + result.getAbsolutePath());
+    this.getLog().debug("Converting GOCOVERDIR data: " + command);
+
+    final ByteArrayOutputStream errStream = new ByteArrayOutputStream();
+    try {
+      final ProcessResult processResult = new ProcessExecutor(command)
+          .environment("GOROOT", goRoot.getAbsolutePath())
+          .redirectError(errStream)
+          .executeNoTimeout();
+      if (processResult.getExitValue() != 0) {
+        throw new IOException("Can't convert coverage data, exit code "
+            + processResult.getExitValue() + ": "
+            + new String(errStream.toByteArray(), StandardCharsets.UTF_8));
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted coverage data conversion", ex);
+    }
+    return result.isFile() ? result : null;
+  }
+
+  private static void readProfile(@Nonnull final CoverProfile profile, @Nonnull final File file)
+      throws IOException {
+    try (final Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+      profile.read(reader);
+    }
+  }
+
+  private static void writeProfile(@Nonnull final CoverProfile profile, @Nonnull final File file)
+      throws IOException {
+    try (final Writer writer = new BufferedWriter(
+        new OutputStreamWriter(new FileOutputStream(file, false), StandardCharsets.UTF_8))) {
+      profile.write(writer);
+    }
+  }
+
+  private static final Object REACTOR_PROFILE_LOCK = new Object();
+
+  private void mergeIntoReactorProfile(@Nonnull final CoverProfile moduleProfile,
+                                       @Nonnull final File reactorProfile) throws IOException {
+    final File parent = reactorProfile.getAbsoluteFile().getParentFile();
+    if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+      throw new IOException("Can't create folder: " + parent);
+    }
+    final File lockFile = new File(reactorProfile.getAbsolutePath() + ".lck");
+    final File sessionFile = new File(reactorProfile.getAbsolutePath() + ".session");
+    final String sessionId = Long.toHexString(this.getSession().getStartTime().getTime());
+
+    // file lock is held by JVM, so threads of parallel build must be synchronized separately
+    synchronized (REACTOR_PROFILE_LOCK) {
+      mergeIntoReactorProfileLocked(moduleProfile, reactorProfile, lockFile, sessionFile, sessionId);
+    }
+  }
+
+  private void mergeIntoReactorProfileLocked(@Nonnull final CoverProfile moduleProfile,
+                                             @Nonnull final File reactorProfile,
+                                             @Nonnull final File lockFile,
+                                             @Nonnull final File sessionFile,
+                                             @Nonnull final String sessionId) throws IOException {
+    try (final FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE)) {
+      final FileLock lock = channel.lock();
+      try {
+        final CoverProfile merged = new CoverProfile();
+        if (reactorProfile.isFile() && sessionFile.isFile() &&
+            sessionId.equals(FileUtils.readFileToString(sessionFile, StandardCharsets.UTF_8).trim())) {
+          readProfile(merged, reactorProfile);
+        } else {
+          this.getLog().debug("Reactor coverage profile is started for the session: " + reactorProfile);
+        }
+        merged.merge(moduleProfile);
+        writeProfile(merged, reactorProfile);
+        FileUtils.write(sessionFile, sessionId, StandardCharsets.UTF_8);
+        this.getLog().info(String.format("Reactor coverage profile %s (%d files, %.1f%%)",
+            reactorProfile, merged.getFileCount(), merged.getCoveredPercent()));
+      } finally {
+        lock.release();
+      }
+    }
+  }
+
+  private void processCoverage() throws MojoExecutionException {
+    final File outFolder = new File(GetUtils.ensureNonNull(this.getCoverageFolder(),
+        this.getProject().getBuild().getDirectory() + File.separator + "coverage"));
+    try {
+      final List<File> profiles = this.findCoverageProfiles();
+      if (!outFolder.isDirectory() && !outFolder.mkdirs()) {
+        throw new IOException("Can't create coverage folder: " + outFolder);
+      }
+      final File convertedCovData = this.convertCoverageDataFolders(outFolder);
+      if (convertedCovData != null) {
+        profiles.add(convertedCovData);
+      }
+
+      if (profiles.isEmpty()) {
+        this.getLog().warn("Coverage merge is on but there is no any coverage profile");
+        return;
+      }
+
+      final CoverProfile merged = new CoverProfile();
+      for (final File f : profiles) {
+        this.getLog().debug("Merging coverage profile: " + f);
+        readProfile(merged, f);
+      }
+      if (convertedCovData != null && !convertedCovData.delete()) {
+        this.getLog().debug("Can't delete temp file: " + convertedCovData);
+      }
+
+      final File mergedProfile = new File(outFolder, "coverage.out");
+      final File summary = new File(outFolder, "coverage-summary.txt");
+      writeProfile(merged, mergedProfile);
+      try (final Writer writer = new OutputStreamWriter(new FileOutputStream(summary, false),
+          StandardCharsets.UTF_8)) {
+        merged.writeSummary(writer);
+      }
+      this.getLog().info(String.format("Merged %d coverage profile(s), %d files, %d blocks, coverage %.1f%%",
+          profiles.size(), merged.getFileCount(), merged.getBlockCount(), merged.getCoveredPercent()));
+
+      final String reactorProfile = this.getReactorCoverageProfile();
+      if (reactorProfile != null && !reactorProfile.trim().isEmpty()) {
+        this.mergeIntoReactorProfile(merged, new File(reactorProfile.trim()));
+      }
+    } catch (IOException | MojoFailureException ex) {
+      throw new MojoExecutionException("Can't merge coverage profiles", ex);
+    }
+  }
+
+  @Override
+  public void afterExecution(@Nullable final ProxySettings proxySettings, final boolean error)
+      throws MojoFailureException, MojoExecutionException {
+    super.afterExecution(proxySettings, error);
+    if (this.isMergeCoverage()) {
+      this.processCoverage();
+    }
+  }
+
 }
@@ -91,6 +91,159 @@ public abstract class AbstractRepo {
     return result;
   }
 
+  /**
+   * Execute command and get its console output.
+   *
+   * @param customCommand custom CVS executable, can be null
+   * @param logger        logger, must not be null
+   * @param cvsFolder     CVS folder, must not be null
+   * @param args          command arguments
+   * @return trimmed console output or null if command has been failed
+   * @since 2.3.10
+   */
+  @Nullable
+  public String executeForOutput(@Nullable String customCommand, @Nonnull final Log logger,
+                                 @Nonnull final File cvsFolder,
+                                 @Nonnull @MustNotContainNull final String... args) {
+    final List<String> cli = new ArrayList<>();
+    cli.add(GetUtils.findFirstNonNull(customCommand, this.command));
+    cli.addAll(Arrays.asList(args));
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("Executing repo command : " + cli);
+    }
+
+    final ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
+    final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+
+    try {
+      final ProcessResult processResult = new ProcessExecutor(cli)
+          .directory(cvsFolder).redirectError(errorStream).redirectOutput(outStream)
+          .executeNoTimeout();
+      if (processResult.getExitValue() == 0) {
+        return new String(outStream.toByteArray(), Charset.defaultCharset()).trim();
+      }
+      logger.debug(new String(errorStream.toByteArray(), Charset.defaultCharset()));
+    } catch (IOException | InterruptedException | InvalidExitValueException ex) {
+      if (ex instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      logger.debug("Can't execute " + cli + ": " + ex.getMessage());
+    }
+    return null;
+  }
+
+  /**
+   * Find identifier of revision which is currently in the CVS folder.
+   *
+   * @param logger        logger, must not be null
+   * @param customCommand custom CVS executable, can be null
+   * @param cvsFolder     CVS folder, must not be null
+   * @return revision identifier or null if it can't be detected or there are
+   * local changes in the folder
+   * @since 2.3.10
+   */
+  @Nullable
+  public String findCurrentRevision(@Nonnull final Log logger,
+                                    @Nullable final String customCommand,
+                                    @Nonnull final File cvsFolder) {
+    return null;
+  }
+
+  /**
+   * Check that the CVS folder has no local changes and its current revision is
+   * the commit of the reference, it allows to skip fetch of pinned commit.
+   *
+   * @param logger        logger, must not be null
+   * @param customCommand custom CVS executable, can be null
+   * @param cvsFolder     CVS folder, must not be null
+   * @param ref           tag reference or revision, must not be null
+   * @return true if the folder is at the reference, false if not, unknown or
+   * not supported
+   * @since 2.3.10
+   */
+  public boolean isAtReference(@Nonnull final Log logger, @Nullable final String customCommand,
+                               @Nonnull final File cvsFolder, @Nonnull final String ref) {
+    return false;
+  }
+
+  /**
+   * Fetch only commit of the reference, without history and contents of other
+   * commits, and check it out. The folder is initialized as repository if it
+   * doesn't contain one.
+   *
+   * @param logger        logger, must not be null
+   * @param proxy         proxy settings, can be null
+   * @param customCommand custom CVS executable, can be null
+   * @param cvsFolder     CVS folder, must not be null
+   * @param url           repository URL, must not be null
+   * @param ref           tag reference or revision, must not be null
+   * @return true if the reference has been fetched and checked out, false if
+   * not supported or error
+   * @since 2.3.10
+   */
+  public boolean fetchShallow(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
+                              @Nullable final String customCommand, @Nonnull final File cvsFolder,
+                              @Nonnull final String url, @Nonnull final String ref) {
+    return false;
+  }
+
+  /**
+   * Create local mirror of remote repository or update existing one, only
+   * changes are loaded for existing mirror.
+   *
+   * @param logger        logger, must not be null
+   * @param proxy         proxy settings, can be null
+   * @param customCommand custom CVS executable, can be null
+   * @param mirror        mirror folder, must not be null
+   * @param url           remote repository URL, must not be null
+   * @return true if mirror is ready, false if not supported or error
+   * @since 2.3.10
+   */
+  public boolean updateMirror(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
+                              @Nullable final String customCommand, @Nonnull final File mirror,
+                              @Nonnull final String url) {
+    return false;
+  }
+
+  /**
+   * Make working copy from local mirror, the working copy shares files with
+   * the mirror if it is possible and refers the remote repository.
+   *
+   * @param logger        logger, must not be null
+   * @param proxy         proxy settings, can be null
+   * @param customCommand custom CVS executable, can be null
+   * @param mirror        mirror folder, must not be null
+   * @param url           remote repository URL, must not be null
+   * @param target        target folder, must not exist
+   * @return true if working copy has been created, false if not supported or
+   * error
+   * @since 2.3.10
+   */
+  public boolean cloneFromMirror(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
+                                 @Nullable final String customCommand, @Nonnull final File mirror,
+                                 @Nonnull final String url, @Nonnull final File target) {
+    return false;
+  }
+
+  /**
+   * Create parent folder of the folder.
+   *
+   * @param logger logger, must not be null
+   * @param folder folder which parent must be created, must not be null
+   * @return parent folder or null if it can't be created
+   * @since 2.3.10
+   */
+  @Nullable
+  protected static File makeParentFolder(@Nonnull final Log logger, @Nonnull final File folder) {
+    final File parent = folder.getAbsoluteFile().getParentFile();
+    if (!parent.isDirectory() && !parent.mkdirs()) {
+      logger.error("Can't create folder: " + parent);
+      return null;
+    }
+    return parent;
+  }
+
   protected boolean checkResult(@Nonnull final Log logger, final int code) {
     return code == 0;
   }
@@ -60,6 +60,19 @@ public class CvsBZR extends AbstractRepo {
     return noError;
   }
 
+  @Override
+  @Nullable
+  public String findCurrentRevision(@Nonnull final Log logger,
+                                    @Nullable final String customCommand,
+                                    @Nonnull final File cvsFolder) {
+    final String changes = executeForOutput(customCommand, logger, cvsFolder, "status", "--short");
+    if (changes == null || !changes.isEmpty()) {
+      return null;
+    }
+    final String revision = executeForOutput(customCommand, logger, cvsFolder, "revision-info");
+    return revision == null || revision.isEmpty() ? null : revision;
+  }
+
   private boolean upToBranch(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
                              @Nullable final String customCommand, @Nonnull final File cvsFolder,
                              @Nonnull final String branchId) {
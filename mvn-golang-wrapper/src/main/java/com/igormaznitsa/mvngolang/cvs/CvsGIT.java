@@ -66,6 +66,119 @@ class CvsGIT extends AbstractRepo {
     return notError;
   }
 
+  @Override
+  @Nullable
+  public String findCurrentRevision(@Nonnull final Log logger,
+                                    @Nullable final String customCommand,
+                                    @Nonnull final File cvsFolder) {
+    final String status = executeForOutput(customCommand, logger, cvsFolder, "status",
+        "--porcelain=v2", "--branch", "--untracked-files=no");
+    if (status == null) {
+      return null;
+    }
+    final String result = parseStatusRevision(status);
+    if (result == null) {
+      logger.debug("Detected changes or no commit in " + cvsFolder);
+    }
+    return result;
+  }
+
+  /**
+   * Parse output of 'git status --porcelain=v2 --branch'.
+   *
+   * @param status output of the command, must not be null
+   * @return commit of HEAD or null if there are changes or no commit
+   */
+  @Nullable
+  static String parseStatusRevision(@Nonnull final String status) {
+    String result = null;
+    for (final String line : status.split("\r?\n")) {
+      if (line.startsWith("# branch.oid ")) {
+        result = line.substring("# branch.oid ".length()).trim();
+      } else if (!line.startsWith("#") && !line.trim().isEmpty()) {
+        return null;
+      }
+    }
+    return result == null || result.startsWith("(") ? null : result;
+  }
+
+  @Override
+  public boolean isAtReference(@Nonnull final Log logger, @Nullable final String customCommand,
+                               @Nonnull final File cvsFolder, @Nonnull final String ref) {
+    if (!this.doesContainCVS(cvsFolder)) {
+      return false;
+    }
+    final String current = this.findCurrentRevision(logger, customCommand, cvsFolder);
+    if (current == null) {
+      return false;
+    }
+    // fails if the commit of the reference is not fetched yet
+    final String pinned = executeForOutput(customCommand, logger, cvsFolder, "rev-parse",
+        "--verify", "--quiet", ref + "^{commit}");
+    return current.equals(pinned);
+  }
+
+  @Override
+  public boolean fetchShallow(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
+                              @Nullable final String customCommand, @Nonnull final File cvsFolder,
+                              @Nonnull final String url, @Nonnull final String ref) {
+    logger.debug("fetchShallow: " + url + ' ' + ref);
+    if (!this.doesContainCVS(cvsFolder)) {
+      if (!cvsFolder.isDirectory() && !cvsFolder.mkdirs()) {
+        logger.error("Can't create folder: " + cvsFolder);
+        return false;
+      }
+      if (!checkResult(logger, execute(customCommand, logger, cvsFolder, "init", "--quiet"))
+          || !checkResult(logger,
+          execute(customCommand, logger, cvsFolder, "remote", "add", "origin", url))) {
+        return false;
+      }
+    }
+    // named reference is fetched into the same local one, else it is not created and
+    // isAtReference can't find the reference during next build
+    final String refSpec = ref.startsWith("refs/") ? '+' + ref + ':' + ref : ref;
+    return checkResult(logger,
+        execute(customCommand, logger, cvsFolder, "fetch", "--quiet", "--depth", "1",
+            "--filter=blob:none", "origin", refSpec))
+        && checkResult(logger,
+        execute(customCommand, logger, cvsFolder, "checkout", "--quiet", "--force", "FETCH_HEAD"));
+  }
+
+  @Override
+  public boolean updateMirror(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
+                              @Nullable final String customCommand, @Nonnull final File mirror,
+                              @Nonnull final String url) {
+    if (new File(mirror, "HEAD").isFile()) {
+      logger.debug("Updating mirror " + mirror);
+      return checkResult(logger,
+          execute(customCommand, logger, mirror, "fetch", "--quiet", "--prune", "origin"));
+    }
+    final File parent = makeParentFolder(logger, mirror);
+    if (parent == null) {
+      return false;
+    }
+    logger.debug("Creating mirror " + mirror);
+    return checkResult(logger,
+        execute(customCommand, logger, parent, "clone", "--quiet", "--mirror", url,
+            mirror.getName()));
+  }
+
+  @Override
+  public boolean cloneFromMirror(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
+                                 @Nullable final String customCommand, @Nonnull final File mirror,
+                                 @Nonnull final String url, @Nonnull final File target) {
+    final File parent = makeParentFolder(logger, target);
+    if (parent == null) {
+      return false;
+    }
+    // local clone makes hard links to objects of the mirror if it is possible
+    return checkResult(logger,
+        execute(customCommand, logger, parent, "clone", "--quiet", mirror.getAbsolutePath(),
+            target.getName()))
+        && checkResult(logger,
+        execute(customCommand, logger, target, "remote", "set-url", "origin", url));
+  }
+
   private boolean upToBranch(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
                              @Nullable final String customCommand, @Nonnull final File cvsFolder,
                              @Nonnull final String branchId) {
@@ -18,6 +18,9 @@ package com.igormaznitsa.mvngolang.cvs;
 
 import com.igormaznitsa.mvngolang.utils.ProxySettings;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.maven.plugin.logging.Log;
@@ -61,6 +64,59 @@ class CvsHG extends AbstractRepo {
   }
 
 
+  @Override
+  @Nullable
+  public String findCurrentRevision(@Nonnull final Log logger,
+                                    @Nullable final String customCommand,
+                                    @Nonnull final File cvsFolder) {
+    final String id = executeForOutput(customCommand, logger, cvsFolder, "identify", "--id",
+        "--debug");
+    // changed working copy is marked by '+' in the end of identifier
+    return id == null || id.isEmpty() || id.endsWith("+") ? null : id;
+  }
+
+  @Override
+  public boolean updateMirror(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
+                              @Nullable final String customCommand, @Nonnull final File mirror,
+                              @Nonnull final String url) {
+    if (this.doesContainCVS(mirror)) {
+      logger.debug("Updating mirror " + mirror);
+      return checkResult(logger, execute(customCommand, logger, mirror, "pull", "--quiet"));
+    }
+    final File parent = makeParentFolder(logger, mirror);
+    if (parent == null) {
+      return false;
+    }
+    logger.debug("Creating mirror " + mirror);
+    return checkResult(logger,
+        execute(customCommand, logger, parent, "clone", "--quiet", "--noupdate", url,
+            mirror.getName()));
+  }
+
+  @Override
+  public boolean cloneFromMirror(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
+                                 @Nullable final String customCommand, @Nonnull final File mirror,
+                                 @Nonnull final String url, @Nonnull final File target) {
+    final File parent = makeParentFolder(logger, target);
+    if (parent == null) {
+      return false;
+    }
+    // local clone makes hard links to the mirror store if it is possible
+    if (!checkResult(logger,
+        execute(customCommand, logger, parent, "clone", "--quiet", mirror.getAbsolutePath(),
+            target.getName()))) {
+      return false;
+    }
+    try {
+      Files.write(new File(target, ".hg" + File.separatorChar + "hgrc").toPath(),
+          ("[paths]\ndefault = " + url + '\n').getBytes(StandardCharsets.UTF_8));
+      return true;
+    } catch (IOException ex) {
+      logger.error("Can't change default path of " + target, ex);
+      return false;
+    }
+  }
+
   private boolean upToBranch(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
                              @Nullable final String customCommand, @Nonnull final File cvsFolder,
                              @Nonnull final String branchId) {
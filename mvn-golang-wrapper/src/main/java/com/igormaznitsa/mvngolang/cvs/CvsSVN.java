@@ -61,6 +61,20 @@ class CvsSVN extends AbstractRepo {
     return new File(folder, ".svn").isDirectory();
   }
 
+  @Override
+  @Nullable
+  public String findCurrentRevision(@Nonnull final Log logger,
+                                    @Nullable final String customCommand,
+                                    @Nonnull final File cvsFolder) {
+    final String changes = executeForOutput(customCommand, logger, cvsFolder, "status", "--quiet");
+    if (changes == null || !changes.isEmpty()) {
+      return null;
+    }
+    final String revision = executeForOutput(customCommand, logger, cvsFolder, "info",
+        "--show-item", "revision");
+    return revision == null || revision.isEmpty() ? null : revision;
+  }
+
   private boolean upToBranch(@Nonnull final Log logger, @Nullable final ProxySettings proxy,
                              @Nullable final String customCommand, @Nonnull final File cvsFolder,
                              @Nonnull final String branchId) {
@@ -0,0 +1,527 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.UnixStat;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+/**
+ * Packer of files into zip archive without intermediate copy of them. Entries
+ * are written in order of their paths by single writer but deflated
+ * concurrently, already compressed files are stored without compression.
+ * Archives are reproducible: all entries have the same time and normalized
+ * permissions, so the same content always gives the same archive.
+ *
+ * @since 2.3.10
+ */
+public final class ArchivePacker {
+
+  /**
+   * Extensions of files which are not compressed.
+   */
+  public static final Set<String> STORED_EXTENSIONS = Collections.unmodifiableSet(new HashSet<>(
+      Arrays.asList("zip", "jar", "war", "ear", "gz", "tgz", "bz2", "tbz2", "xz", "txz", "7z",
+          "rar", "zst", "lz4", "br", "png", "jpg", "jpeg", "gif", "webp", "mp3", "mp4", "ogg",
+          "woff", "woff2")));
+
+  /**
+   * Files bigger than the size are deflated by writer directly to avoid
+   * keeping their compressed data in memory.
+   */
+  private static final long MAX_IN_MEMORY_SIZE = 16L * 1024L * 1024L;
+
+  /**
+   * Default time of entries, 1980-01-01T00:00:00Z is the minimal time which
+   * can be kept in zip.
+   */
+  public static final long DEFAULT_ENTRY_TIME = 315532800000L;
+
+  private static final String MANIFEST_FORMAT = "format 2";
+  private static final String ARCHIVE_PREFIX = "archive ";
+  private static final int MODE_FILE = 0644;
+  private static final int MODE_EXECUTABLE = 0755;
+  private static final int MODE_DIRECTORY = 0755;
+
+  private final int level;
+  private final int threads;
+  private final Map<String, Source> entries = new TreeMap<>();
+  private long entryTime = DEFAULT_ENTRY_TIME;
+
+  public ArchivePacker(final int level, final int threads) {
+    this.level = Math.max(Deflater.NO_COMPRESSION, Math.min(Deflater.BEST_COMPRESSION, level));
+    this.threads = Math.max(1, threads);
+  }
+
+  /**
+   * Add file into archive, already added entry with the same path is replaced.
+   *
+   * @param path path in archive, must not be null
+   * @param file file to be packed, must not be null
+   */
+  public void add(@Nonnull final String path, @Nonnull final File file) {
+    this.entries.put(path, new Source(file, null));
+  }
+
+  /**
+   * Add content into archive, already added entry with the same path is
+   * replaced.
+   *
+   * @param path    path in archive, must not be null
+   * @param content content of entry, must not be null
+   */
+  public void add(@Nonnull final String path, @Nonnull final byte[] content) {
+    this.entries.put(path, new Source(null, content));
+  }
+
+  public long getEntryTime() {
+    return this.entryTime;
+  }
+
+  /**
+   * Set time of all entries.
+   *
+   * @param time UTC time in milliseconds, it is written into entries as the
+   *             same wall clock time independently on the current time zone
+   */
+  public void setEntryTime(final long time) {
+    this.entryTime = Math.max(DEFAULT_ENTRY_TIME, time);
+  }
+
+  public boolean contains(@Nonnull final String path) {
+    return this.entries.containsKey(path);
+  }
+
+  public void remove(@Nonnull final String path) {
+    this.entries.remove(path);
+  }
+
+  /**
+   * Get file added for path.
+   *
+   * @param path path in archive, must not be null
+   * @return file or null if there is no such entry or it is not file
+   */
+  @Nullable
+  public File findFile(@Nonnull final String path) {
+    final Source source = this.entries.get(path);
+    return source == null ? null : source.file;
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  public Set<String> getPaths() {
+    return Collections.unmodifiableSet(this.entries.keySet());
+  }
+
+  /**
+   * Add all files and folders of folder tree into archive, the go.mod backup
+   * found in a folder is packed as go.mod of the folder. Symbolic links to
+   * folders are followed, a link to the folder itself or to one of its parents
+   * is skipped.
+   *
+   * @param folder       folder to be added, must not be null
+   * @param prefix       path prefix in archive, empty or ended by slash
+   * @param goModBackup  name of go.mod backup file, must not be null
+   * @throws IOException if any error during folder scan
+   */
+  public void addFolder(@Nonnull final File folder, @Nonnull final String prefix,
+                        @Nonnull final String goModBackup) throws IOException {
+    this.addFolder(folder, prefix, goModBackup, new HashSet<>());
+  }
+
+  private void addFolder(@Nonnull final File folder, @Nonnull final String prefix,
+                         @Nonnull final String goModBackup,
+                         @Nonnull @MustNotContainNull final Set<Path> parents)
+      throws IOException {
+    final Path realPath = folder.toPath().toRealPath();
+    if (!parents.add(realPath)) {
+      return;
+    }
+    try {
+      final File[] files = folder.listFiles();
+      if (files == null) {
+        throw new IOException("Can't list folder: " + folder);
+      }
+      if (!prefix.isEmpty()) {
+        this.entries.put(prefix, Source.DIRECTORY);
+      }
+      File backup = null;
+      for (final File f : files) {
+        if (f.isDirectory()) {
+          this.addFolder(f, prefix + f.getName() + '/', goModBackup, parents);
+        } else if (goModBackup.equals(f.getName())) {
+          backup = f;
+        } else if (f.isFile()) {
+          this.add(prefix + f.getName(), f);
+        }
+      }
+      if (backup != null) {
+        this.add(prefix + "go.mod", backup);
+      }
+    } finally {
+      parents.remove(realPath);
+    }
+  }
+
+  /**
+   * Write all added entries into zip file.
+   *
+   * @param target target zip file, must not be null
+   * @param tail   provider of entries to be written after all added ones, can be null
+   * @return paths of written entries in order of write, without tail ones
+   * @throws IOException if any error during packing
+   */
+  @Nonnull
+  @MustNotContainNull
+  public List<String> pack(@Nonnull final File target, @Nullable final TailProvider tail)
+      throws IOException {
+    final List<String> result = new ArrayList<>(this.entries.size());
+    final ExecutorService executor =
+        this.threads > 1 ? Executors.newFixedThreadPool(this.threads) : null;
+    try (final ZipArchiveOutputStream out = new ZipArchiveOutputStream(target)) {
+      out.setLevel(this.level);
+      final Deque<Future<Prepared>> window = new ArrayDeque<>();
+      final Iterator<Map.Entry<String, Source>> iterator = this.entries.entrySet().iterator();
+      while (iterator.hasNext() || !window.isEmpty()) {
+        while (iterator.hasNext() && (executor == null ? window.isEmpty()
+            : window.size() < this.threads * 2)) {
+          final Map.Entry<String, Source> next = iterator.next();
+          final String path = next.getKey();
+          final Source source = next.getValue();
+          if (executor == null) {
+            window.add(CompletableFuture.completedFuture(this.prepare(path, source)));
+          } else {
+            window.add(executor.submit(() -> this.prepare(path, source)));
+          }
+        }
+        final Prepared prepared = takeResult(window.removeFirst());
+        this.write(out, prepared);
+        result.add(prepared.path);
+      }
+
+      if (tail != null) {
+        for (final Map.Entry<String, byte[]> e : tail.make(result).entrySet()) {
+          this.write(out, this.prepare(e.getKey(), new Source(null, e.getValue())));
+        }
+      }
+      out.finish();
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Write all added entries into zip file only if content manifest of the
+   * existing archive differs from the current one. The tail provider must
+   * make entries depending only on packed entries.
+   *
+   * @param target   target zip file, must not be null
+   * @param manifest file to keep content manifest of the archive, must not be
+   *                 null
+   * @param tail     provider of entries to be written after all added ones,
+   *                 can be null
+   * @return true if archive has been packed, false if existing one is reused
+   * @throws IOException if any error during packing
+   */
+  public boolean packIfChanged(@Nonnull final File target, @Nonnull final File manifest,
+                               @Nullable final TailProvider tail) throws IOException {
+    final List<String> lines = this.makeManifest();
+    if (target.isFile() && manifest.isFile()) {
+      List<String> existing;
+      try {
+        existing = Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8);
+      } catch (IOException ex) {
+        // broken manifest, archive will be packed again
+        existing = Collections.emptyList();
+      }
+      if (existing.size() == lines.size() + 1
+          && existing.subList(0, lines.size()).equals(lines)
+          && existing.get(lines.size()).equals(ARCHIVE_PREFIX + DependencyStore.sha256(target))) {
+        return false;
+      }
+    }
+
+    Files.deleteIfExists(manifest.toPath());
+    Files.deleteIfExists(target.toPath());
+    this.pack(target, tail);
+
+    final List<String> result = new ArrayList<>(lines);
+    result.add(ARCHIVE_PREFIX + DependencyStore.sha256(target));
+    Files.write(manifest.toPath(), result, StandardCharsets.UTF_8);
+    return true;
+  }
+
+  /**
+   * Make content manifest of added entries, it contains packing options and
+   * SHA-256 digest, mode and size of every entry.
+   *
+   * @return lines of manifest
+   * @throws IOException if any error during read of files
+   */
+  @Nonnull
+  @MustNotContainNull
+  public List<String> makeManifest() throws IOException {
+    final List<String> result = new ArrayList<>(this.entries.size() + 3);
+    result.add(MANIFEST_FORMAT);
+    result.add("level " + this.level);
+    result.add("time " + this.entryTime);
+
+    final ExecutorService executor =
+        this.threads > 1 && this.entries.size() > 1 ? Executors.newFixedThreadPool(this.threads)
+            : null;
+    try {
+      final List<Future<String>> lines = new ArrayList<>(this.entries.size());
+      for (final Map.Entry<String, Source> e : this.entries.entrySet()) {
+        if (executor == null) {
+          lines.add(CompletableFuture.completedFuture(makeManifestLine(e.getKey(), e.getValue())));
+        } else {
+          lines.add(executor.submit(() -> makeManifestLine(e.getKey(), e.getValue())));
+        }
+      }
+      for (final Future<String> line : lines) {
+        result.add(takeResult(line));
+      }
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+    return result;
+  }
+
+  @Nonnull
+  private static String makeManifestLine(@Nonnull final String path, @Nonnull final Source source)
+      throws IOException {
+    if (source == Source.DIRECTORY) {
+      return "- " + Integer.toOctalString(MODE_DIRECTORY) + " 0 " + path;
+    }
+    final String digest;
+    final long size;
+    if (source.file == null) {
+      digest = DigestUtils.sha256Hex(source.content);
+      size = source.content.length;
+    } else {
+      try (final InputStream in = Files.newInputStream(source.file.toPath())) {
+        digest = DigestUtils.sha256Hex(in);
+      }
+      size = source.file.length();
+    }
+    return digest + ' ' + Integer.toOctalString(modeOf(source)) + ' ' + size + ' ' + path;
+  }
+
+  private static int modeOf(@Nonnull final Source source) throws IOException {
+    if (source.file == null) {
+      return MODE_FILE;
+    }
+    final Path path = source.file.toPath();
+    if (Files.getFileAttributeView(path, PosixFileAttributeView.class) == null) {
+      return MODE_FILE;
+    }
+    return Files.getPosixFilePermissions(path).contains(PosixFilePermission.OWNER_EXECUTE)
+        ? MODE_EXECUTABLE : MODE_FILE;
+  }
+
+  /**
+   * Convert UTC time into time which gives the same wall clock time in zip
+   * entry for the current time zone.
+   *
+   * @param utcTime UTC time in milliseconds
+   * @return time to be set into zip entry
+   */
+  private static long toZipTime(final long utcTime) {
+    return utcTime - TimeZone.getDefault().getOffset(utcTime);
+  }
+
+  @Nonnull
+  private static <T> T takeResult(@Nonnull final Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted packing", ex);
+    } catch (ExecutionException ex) {
+      final Throwable cause = ex.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException("Error during packing", cause);
+    }
+  }
+
+  private static boolean isStored(@Nonnull final String path) {
+    final int dot = path.lastIndexOf('.');
+    return dot > path.lastIndexOf('/')
+        && STORED_EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+  }
+
+  @Nonnull
+  private Prepared prepare(@Nonnull final String path, @Nonnull final Source source)
+      throws IOException {
+    if (source == Source.DIRECTORY) {
+      return new Prepared(path, null, UnixStat.DIR_FLAG | MODE_DIRECTORY, true, new byte[0], 0L,
+          0L);
+    }
+    final int mode = UnixStat.FILE_FLAG | modeOf(source);
+    final boolean stored = this.level == Deflater.NO_COMPRESSION || isStored(path);
+    if (source.file != null && source.file.length() > MAX_IN_MEMORY_SIZE) {
+      return new Prepared(path, source.file, mode, stored, null, 0L, 0L);
+    }
+
+    final byte[] content =
+        source.content == null ? Files.readAllBytes(source.file.toPath()) : source.content;
+    final CRC32 crc = new CRC32();
+    crc.update(content, 0, content.length);
+    if (stored) {
+      return new Prepared(path, null, mode, true, content, crc.getValue(), content.length);
+    }
+
+    final Deflater deflater = new Deflater(this.level, true);
+    try {
+      deflater.setInput(content);
+      deflater.finish();
+      final ByteArrayOutputStream buffer =
+          new ByteArrayOutputStream(Math.max(64, content.length / 2));
+      final byte[] chunk = new byte[16384];
+      while (!deflater.finished()) {
+        final int len = deflater.deflate(chunk);
+        buffer.write(chunk, 0, len);
+      }
+      return new Prepared(path, null, mode, false, buffer.toByteArray(), crc.getValue(),
+          content.length);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private void write(@Nonnull final ZipArchiveOutputStream out,
+                     @Nonnull final Prepared prepared) throws IOException {
+    final ZipArchiveEntry entry = new ZipArchiveEntry(prepared.path);
+    entry.setTime(toZipTime(this.entryTime));
+    entry.setUnixMode(prepared.mode);
+    entry.setMethod(prepared.stored ? ZipEntry.STORED : ZipEntry.DEFLATED);
+
+    if (prepared.data == null) {
+      // big file is processed by writer, sizes of stored entry are written by seek
+      out.putArchiveEntry(entry);
+      try (final InputStream in = Files.newInputStream(prepared.file.toPath())) {
+        final byte[] buffer = new byte[65536];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+          out.write(buffer, 0, read);
+        }
+      }
+      out.closeArchiveEntry();
+      return;
+    }
+
+    entry.setSize(prepared.size);
+    entry.setCompressedSize(prepared.data.length);
+    entry.setCrc(prepared.crc);
+    out.addRawArchiveEntry(entry, new ByteArrayInputStream(prepared.data));
+  }
+
+  /**
+   * Provider of entries written after all added entries, allows to make
+   * entries based on info about packed content.
+   */
+  @FunctionalInterface
+  public interface TailProvider {
+    @Nonnull
+    Map<String, byte[]> make(@Nonnull @MustNotContainNull List<String> packed) throws IOException;
+  }
+
+  private static final class Source {
+
+    private static final Source DIRECTORY = new Source(null, null);
+
+    private final File file;
+    private final byte[] content;
+
+    private Source(@Nullable final File file, @Nullable final byte[] content) {
+      this.file = file;
+      this.content = content;
+    }
+  }
+
+  private static final class Prepared {
+
+    private final String path;
+    private final File file;
+    private final int mode;
+    private final boolean stored;
+    private final byte[] data;
+    private final long crc;
+    private final long size;
+
+    private Prepared(@Nonnull final String path, @Nullable final File file, final int mode,
+                     final boolean stored, @Nullable final byte[] data, final long crc,
+                     final long size) {
+      this.path = path;
+      this.file = file;
+      this.mode = mode;
+      this.stored = stored;
+      this.data = data;
+      this.crc = crc;
+      this.size = size;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+
+/**
+ * Cache of resolved mvn-golang artifacts and their dependency descriptors,
+ * shared by all mojo executions of a maven session. Resolved files are kept by
+ * artifact coordinates, parsed descriptors are kept by file identity (path,
+ * size and last modification time), so that a re-packed artifact is read
+ * again.
+ *
+ * @since 2.3.10
+ */
+public final class ArtifactGraphCache {
+
+  /**
+   * Caches are bound to execution request because it is shared by cloned
+   * sessions of parallel build.
+   */
+  private static final Map<Object, ArtifactGraphCache> CACHES = new WeakHashMap<>();
+
+  private final ConcurrentMap<String, File> resolvedFiles = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Descriptor> descriptors = new ConcurrentHashMap<>();
+
+  ArtifactGraphCache() {
+  }
+
+  @Nonnull
+  public static ArtifactGraphCache forSession(@Nonnull final MavenSession session) {
+    final Object key = session.getRequest() == null ? session : session.getRequest();
+    synchronized (CACHES) {
+      return CACHES.computeIfAbsent(key, k -> new ArtifactGraphCache());
+    }
+  }
+
+  @Nonnull
+  public static String makeKey(@Nonnull final Artifact artifact) {
+    return artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getType()
+        + ':' + (artifact.getClassifier() == null ? "" : artifact.getClassifier())
+        + ':' + artifact.getVersion();
+  }
+
+  /**
+   * Find resolved file for artifact.
+   *
+   * @param artifact artifact, must not be null
+   * @return cached file if it is still presented, null otherwise
+   */
+  @Nullable
+  public File findResolved(@Nonnull final Artifact artifact) {
+    final String key = makeKey(artifact);
+    final File result = this.resolvedFiles.get(key);
+    if (result != null && !result.isFile()) {
+      this.resolvedFiles.remove(key, result);
+      return null;
+    }
+    return result;
+  }
+
+  public void putResolved(@Nonnull final Artifact artifact, @Nonnull final File file) {
+    this.resolvedFiles.put(makeKey(artifact), file);
+  }
+
+  /**
+   * Remove cached information about artifact, must be called if artifact is
+   * re-packed during session.
+   *
+   * @param artifact artifact, must not be null
+   */
+  public void invalidate(@Nonnull final Artifact artifact) {
+    final File removed = this.resolvedFiles.remove(makeKey(artifact));
+    if (removed != null) {
+      this.descriptors.remove(removed.getAbsolutePath());
+    }
+    final File file = artifact.getFile();
+    if (file != null) {
+      this.descriptors.remove(file.getAbsolutePath());
+    }
+  }
+
+  /**
+   * Get dependency records of artifact file, they are read only if the file
+   * is not cached or it has been changed.
+   *
+   * @param file   artifact file, must not be null
+   * @param reader reader of records from file, must not be null
+   * @return list of records, must not be changed
+   * @throws IOException if any error during read
+   */
+  @Nonnull
+  @MustNotContainNull
+  public List<String> getRecords(@Nonnull final File file, @Nonnull final RecordReader reader)
+      throws IOException {
+    final String key = file.getAbsolutePath();
+    final long size = file.length();
+    final long modified = file.lastModified();
+    final Descriptor cached = this.descriptors.get(key);
+    if (cached != null && cached.size == size && cached.modified == modified) {
+      return cached.records;
+    }
+    final List<String> records = reader.read(file);
+    this.descriptors.put(key, new Descriptor(size, modified, records));
+    return records;
+  }
+
+  @FunctionalInterface
+  public interface RecordReader {
+    @Nonnull
+    @MustNotContainNull
+    List<String> read(@Nonnull File file) throws IOException;
+  }
+
+  private static final class Descriptor {
+
+    private final long size;
+    private final long modified;
+    private final List<String> records;
+
+    private Descriptor(final long size, final long modified,
+                       @Nonnull @MustNotContainNull final List<String> records) {
+      this.size = size;
+      this.modified = modified;
+      this.records = records;
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Compact binary index of mvn-golang artifact content. It is written into
+ * artifact archive during packing and contains build folders and dependency
+ * records, so that consumers can get all info through single read of the
+ * archive.
+ *
+ * @since 2.3.10
+ */
+public final class ArtifactIndex {
+
+  public static final String ENTRY_NAME = ".mvn-golang-index";
+
+  private static final int MAGIC = 0x4D47494E;
+  private static final int VERSION = 3;
+
+  private final List<String> buildFolders;
+  private final List<String> dependencyRecords;
+
+  public ArtifactIndex(@Nonnull @MustNotContainNull final List<String> buildFolders,
+                       @Nonnull @MustNotContainNull final List<String> dependencyRecords) {
+    this.buildFolders = Collections.unmodifiableList(new ArrayList<>(buildFolders));
+    this.dependencyRecords = Collections.unmodifiableList(new ArrayList<>(dependencyRecords));
+  }
+
+  /**
+   * Read index from opened archive.
+   *
+   * @param zipFile opened archive, must not be null
+   * @return index or null if there is no index in the archive
+   * @throws IOException if any error during read or wrong format
+   */
+  @Nullable
+  public static ArtifactIndex read(@Nonnull final ZipFile zipFile) throws IOException {
+    final ZipEntry entry = zipFile.getEntry(ENTRY_NAME);
+    if (entry == null) {
+      return null;
+    }
+    try (final InputStream in = zipFile.getInputStream(entry)) {
+      return read(in);
+    }
+  }
+
+  @Nonnull
+  public static ArtifactIndex read(@Nonnull final InputStream in) throws IOException {
+    final DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Wrong artifact index format");
+    }
+    final int version = data.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported artifact index version: " + version);
+    }
+    return new ArtifactIndex(readStrings(data), readStrings(data));
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private static List<String> readStrings(@Nonnull final DataInputStream data)
+      throws IOException {
+    final int count = data.readInt();
+    final List<String> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(data.readUTF());
+    }
+    return result;
+  }
+
+  private static void writeStrings(@Nonnull final DataOutputStream data,
+                                   @Nonnull @MustNotContainNull final List<String> list)
+      throws IOException {
+    data.writeInt(list.size());
+    for (final String s : list) {
+      data.writeUTF(s);
+    }
+  }
+
+  public void write(@Nonnull final OutputStream out) throws IOException {
+    final DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeByte(VERSION);
+    writeStrings(data, this.buildFolders);
+    writeStrings(data, this.dependencyRecords);
+    data.flush();
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  public List<String> getBuildFolders() {
+    return this.buildFolders;
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  public List<String> getDependencyRecords() {
+    return this.dependencyRecords;
+  }
+}
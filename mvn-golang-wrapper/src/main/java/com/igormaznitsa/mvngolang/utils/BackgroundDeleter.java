@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import javax.annotation.Nonnull;
+
+/**
+ * Auxiliary class for fast deletion of folders. A folder is atomically renamed
+ * into tombstone placed in the same parent folder and the tombstone is deleted
+ * in parallel by daemon threads, so that the caller can continue work at once.
+ * Tombstones left because of JVM exit can be found and deleted later.
+ *
+ * @since 2.3.10
+ */
+public final class BackgroundDeleter {
+
+  /**
+   * Prefix of tombstone folder name.
+   */
+  public static final String TOMBSTONE_PREFIX = ".mvn-golang-del-";
+
+  /**
+   * Threads of the pool are daemons, so that the pool doesn't prevent JVM exit.
+   */
+  private static final ForkJoinPool POOL =
+      new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+  private BackgroundDeleter() {
+
+  }
+
+  /**
+   * Atomically rename folder into tombstone in the same parent folder.
+   *
+   * @param folder folder to be renamed, must not be null
+   * @return tombstone folder
+   * @throws IOException if folder can't be atomically renamed
+   */
+  @Nonnull
+  public static File bury(@Nonnull final File folder) throws IOException {
+    final File source = folder.getAbsoluteFile();
+    final File tombstone = new File(source.getParentFile(),
+        TOMBSTONE_PREFIX + source.getName() + '-' + UUID.randomUUID());
+    try {
+      Files.move(source.toPath(), tombstone.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException ex) {
+      throw new IOException("Can't atomically rename folder: " + source, ex);
+    }
+    return tombstone;
+  }
+
+  /**
+   * Start background deletion of tombstone.
+   *
+   * @param tombstone tombstone folder, must not be null
+   * @return future completed when deletion is over, the tombstone can still
+   * exist if some file can't be deleted
+   */
+  @Nonnull
+  public static CompletableFuture<Void> delete(@Nonnull final File tombstone) {
+    return CompletableFuture.runAsync(() -> new DeleteAction(tombstone).invoke(), POOL);
+  }
+
+  /**
+   * Start background deletion of all tombstones in folder.
+   *
+   * @param parent folder to be checked for tombstones, must not be null
+   * @return list of futures for found tombstones, empty if there is no any
+   */
+  @Nonnull
+  public static List<CompletableFuture<Void>> sweep(@Nonnull final File parent) {
+    final List<CompletableFuture<Void>> result = new ArrayList<>();
+    final File[] tombstones = parent.listFiles(
+        f -> f.isDirectory() && f.getName().startsWith(TOMBSTONE_PREFIX));
+    if (tombstones != null) {
+      for (final File f : tombstones) {
+        result.add(delete(f));
+      }
+    }
+    return result;
+  }
+
+  private static final class DeleteAction extends RecursiveAction {
+
+    private static final long serialVersionUID = -2915407462581239014L;
+
+    private final File folder;
+
+    private DeleteAction(@Nonnull final File folder) {
+      this.folder = folder;
+    }
+
+    @Override
+    protected void compute() {
+      // read-only folders (for instance in go module cache) don't allow deletion of children
+      if (!this.folder.canWrite() && !this.folder.setWritable(true)) {
+        return;
+      }
+      final File[] files = this.folder.listFiles();
+      if (files == null) {
+        return;
+      }
+      final List<DeleteAction> subFolders = new ArrayList<>();
+      for (final File f : files) {
+        if (f.isDirectory() && !Files.isSymbolicLink(f.toPath())) {
+          subFolders.add(new DeleteAction(f));
+        } else if (!f.delete()) {
+          f.setWritable(true);
+          f.delete();
+        }
+      }
+      invokeAll(subFolders);
+      this.folder.delete();
+    }
+  }
+}
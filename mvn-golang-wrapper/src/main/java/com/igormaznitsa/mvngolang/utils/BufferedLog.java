@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Log which keeps all records in memory and writes them into target log by
+ * request, allows to avoid interleaving of records written by concurrent
+ * tasks. Enabled levels are the same as in the target log.
+ *
+ * @since 2.3.10
+ */
+public final class BufferedLog implements Log {
+
+  private final Log target;
+  private final List<Record> records = new ArrayList<>();
+
+  public BufferedLog(@Nonnull final Log target) {
+    this.target = target;
+  }
+
+  /**
+   * Write all collected records into target log and clear the buffer.
+   */
+  public void flush() {
+    final List<Record> toWrite;
+    synchronized (this.records) {
+      toWrite = new ArrayList<>(this.records);
+      this.records.clear();
+    }
+    synchronized (this.target) {
+      for (final Record r : toWrite) {
+        r.writeTo(this.target);
+      }
+    }
+  }
+
+  private void add(@Nonnull final Level level, @Nullable final CharSequence message,
+                   @Nullable final Throwable error) {
+    synchronized (this.records) {
+      this.records.add(new Record(level, message, error));
+    }
+  }
+
+  @Override
+  public boolean isDebugEnabled() {
+    return this.target.isDebugEnabled();
+  }
+
+  @Override
+  public void debug(@Nullable final CharSequence content) {
+    this.add(Level.DEBUG, content, null);
+  }
+
+  @Override
+  public void debug(@Nullable final CharSequence content, @Nullable final Throwable error) {
+    this.add(Level.DEBUG, content, error);
+  }
+
+  @Override
+  public void debug(@Nullable final Throwable error) {
+    this.add(Level.DEBUG, null, error);
+  }
+
+  @Override
+  public boolean isInfoEnabled() {
+    return this.target.isInfoEnabled();
+  }
+
+  @Override
+  public void info(@Nullable final CharSequence content) {
+    this.add(Level.INFO, content, null);
+  }
+
+  @Override
+  public void info(@Nullable final CharSequence content, @Nullable final Throwable error) {
+    this.add(Level.INFO, content, error);
+  }
+
+  @Override
+  public void info(@Nullable final Throwable error) {
+    this.add(Level.INFO, null, error);
+  }
+
+  @Override
+  public boolean isWarnEnabled() {
+    return this.target.isWarnEnabled();
+  }
+
+  @Override
+  public void warn(@Nullable final CharSequence content) {
+    this.add(Level.WARN, content, null);
+  }
+
+  @Override
+  public void warn(@Nullable final CharSequence content, @Nullable final Throwable error) {
+    this.add(Level.WARN, content, error);
+  }
+
+  @Override
+  public void warn(@Nullable final Throwable error) {
+    this.add(Level.WARN, null, error);
+  }
+
+  @Override
+  public boolean isErrorEnabled() {
+    return this.target.isErrorEnabled();
+  }
+
+  @Override
+  public void error(@Nullable final CharSequence content) {
+    this.add(Level.ERROR, content, null);
+  }
+
+  @Override
+  public void error(@Nullable final CharSequence content, @Nullable final Throwable error) {
+    this.add(Level.ERROR, content, error);
+  }
+
+  @Override
+  public void error(@Nullable final Throwable error) {
+    this.add(Level.ERROR, null, error);
+  }
+
+  private enum Level {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+  }
+
+  private static final class Record {
+
+    private final Level level;
+    private final CharSequence message;
+    private final Throwable error;
+
+    private Record(@Nonnull final Level level, @Nullable final CharSequence message,
+                   @Nullable final Throwable error) {
+      this.level = level;
+      this.message = message;
+      this.error = error;
+    }
+
+    private void writeTo(@Nonnull final Log log) {
+      switch (this.level) {
+        case DEBUG:
+          log.debug(this.message, this.error);
+          break;
+        case INFO:
+          log.info(this.message, this.error);
+          break;
+        case WARN:
+          log.warn(this.message, this.error);
+          break;
+        default:
+          log.error(this.message, this.error);
+          break;
+      }
+    }
+  }
+}
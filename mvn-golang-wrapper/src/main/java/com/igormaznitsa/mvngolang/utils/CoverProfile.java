@@ -0,0 +1,425 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Merger of Go coverage profiles (format produced by '-coverprofile'). Profiles
+ * are parsed line by line as a stream and blocks are kept in primitive array
+ * tables per source file, so that memory depends only on number of unique
+ * blocks but not on size or number of merged profiles.
+ *
+ * @since 2.3.10
+ */
+public final class CoverProfile {
+
+  public static final String MODE_SET = "set";
+  public static final String MODE_COUNT = "count";
+  public static final String MODE_ATOMIC = "atomic";
+
+  private static final String MODE_PREFIX = "mode:";
+
+  private final Map<String, BlockTable> files = new TreeMap<>();
+  private String mode;
+
+  private static int parseInt(@Nonnull final String line, final int start, final int end) {
+    if (start >= end) {
+      throw new NumberFormatException("Empty number in line: " + line);
+    }
+    int result = 0;
+    for (int i = start; i < end; i++) {
+      final char c = line.charAt(i);
+      if (c < '0' || c > '9') {
+        throw new NumberFormatException("Unexpected char '" + c + "' in line: " + line);
+      }
+      result = result * 10 + (c - '0');
+    }
+    return result;
+  }
+
+  private static long parseLong(@Nonnull final String line, final int start, final int end) {
+    if (start >= end) {
+      throw new NumberFormatException("Empty number in line: " + line);
+    }
+    long result = 0L;
+    for (int i = start; i < end; i++) {
+      final char c = line.charAt(i);
+      if (c < '0' || c > '9') {
+        throw new NumberFormatException("Unexpected char '" + c + "' in line: " + line);
+      }
+      result = result * 10L + (c - '0');
+    }
+    return result;
+  }
+
+  private static int indexOf(@Nonnull final String line, final char chr, final int from,
+                             final int to) {
+    for (int i = from; i < to; i++) {
+      if (line.charAt(i) == chr) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Nullable
+  public String getMode() {
+    return this.mode;
+  }
+
+  public int getFileCount() {
+    return this.files.size();
+  }
+
+  public long getBlockCount() {
+    long result = 0L;
+    for (final BlockTable t : this.files.values()) {
+      result += t.size;
+    }
+    return result;
+  }
+
+  public boolean isEmpty() {
+    return this.files.isEmpty();
+  }
+
+  private void mergeMode(@Nonnull final String newMode) throws IOException {
+    if (!(MODE_SET.equals(newMode) || MODE_COUNT.equals(newMode) ||
+        MODE_ATOMIC.equals(newMode))) {
+      throw new IOException("Unsupported coverage mode: " + newMode);
+    }
+    if (this.mode == null) {
+      this.mode = newMode;
+    } else if (!this.mode.equals(newMode)) {
+      // set mode can't be converted into counters so it has priority
+      if (MODE_SET.equals(newMode)) {
+        this.mode = MODE_SET;
+      }
+    }
+  }
+
+  /**
+   * Read profile and merge its blocks into the current one. Counters of the
+   * same block are summed (or joined as flags in set mode).
+   *
+   * @param reader source of profile text, must not be null
+   * @throws IOException if data can't be read or has wrong format
+   */
+  public void read(@Nonnull final Reader reader) throws IOException {
+    final BufferedReader bufferedReader =
+        reader instanceof BufferedReader ? (BufferedReader) reader :
+            new BufferedReader(reader, 64 * 1024);
+
+    boolean modeFound = false;
+    int lineNumber = 0;
+    String lastFileName = null;
+    BlockTable lastTable = null;
+
+    String line;
+    while ((line = bufferedReader.readLine()) != null) {
+      lineNumber++;
+      final int length = line.length();
+      if (length == 0) {
+        continue;
+      }
+      if (line.startsWith(MODE_PREFIX)) {
+        mergeMode(line.substring(MODE_PREFIX.length()).trim());
+        modeFound = true;
+        continue;
+      }
+      if (!modeFound) {
+        throw new IOException("Coverage profile must be started with mode line");
+      }
+
+      final int countStart = line.lastIndexOf(' ');
+      final int stmtStart = countStart <= 0 ? -1 : line.lastIndexOf(' ', countStart - 1);
+      final int colon = stmtStart <= 0 ? -1 : line.lastIndexOf(':', stmtStart - 1);
+      if (colon <= 0) {
+        throw new IOException("Can't parse coverage line " + lineNumber + ": " + line);
+      }
+
+      try {
+        final int dot1 = indexOf(line, '.', colon + 1, stmtStart);
+        final int comma = indexOf(line, ',', dot1 + 1, stmtStart);
+        final int dot2 = indexOf(line, '.', comma + 1, stmtStart);
+        if (dot1 < 0 || comma < 0 || dot2 < 0) {
+          throw new NumberFormatException("Wrong block position");
+        }
+
+        final int startLine = parseInt(line, colon + 1, dot1);
+        final int startCol = parseInt(line, dot1 + 1, comma);
+        final int endLine = parseInt(line, comma + 1, dot2);
+        final int endCol = parseInt(line, dot2 + 1, stmtStart);
+        final int statements = parseInt(line, stmtStart + 1, countStart);
+        final long count = parseLong(line, countStart + 1, length);
+
+        if (lastFileName == null || !line.regionMatches(0, lastFileName, 0, colon) ||
+            lastFileName.length() != colon) {
+          lastFileName = line.substring(0, colon);
+          lastTable = this.files.get(lastFileName);
+          if (lastTable == null) {
+            lastTable = new BlockTable();
+            this.files.put(lastFileName, lastTable);
+          }
+        }
+
+        lastTable.merge(startLine, startCol, endLine, endCol, statements, count,
+            MODE_SET.equals(this.mode));
+      } catch (NumberFormatException ex) {
+        throw new IOException("Can't parse coverage line " + lineNumber + ": " + line, ex);
+      }
+    }
+  }
+
+  /**
+   * Merge another profile into the current one.
+   *
+   * @param other profile to be merged, must not be null
+   * @throws IOException if mode of profile is unsupported
+   */
+  public void merge(@Nonnull final CoverProfile other) throws IOException {
+    if (other.mode == null) {
+      return;
+    }
+    mergeMode(other.mode);
+    final boolean setMode = MODE_SET.equals(this.mode);
+    for (final Map.Entry<String, BlockTable> e : other.files.entrySet()) {
+      BlockTable table = this.files.get(e.getKey());
+      if (table == null) {
+        table = new BlockTable();
+        this.files.put(e.getKey(), table);
+      }
+      final BlockTable src = e.getValue();
+      for (int i = 0; i < src.size; i++) {
+        final int p = i * 4;
+        table.merge(src.positions[p], src.positions[p + 1], src.positions[p + 2],
+            src.positions[p + 3], src.statements[i], src.counts[i], setMode);
+      }
+    }
+  }
+
+  /**
+   * Write merged profile, blocks of each file are sorted by their position.
+   *
+   * @param writer target writer, must not be null
+   * @throws IOException if error during write
+   */
+  public void write(@Nonnull final Writer writer) throws IOException {
+    final boolean setMode = MODE_SET.equals(this.mode);
+    writer.write(MODE_PREFIX);
+    writer.write(' ');
+    writer.write(this.mode == null ? MODE_SET : this.mode);
+    writer.write('\n');
+
+    final StringBuilder buffer = new StringBuilder(128);
+    for (final Map.Entry<String, BlockTable> e : this.files.entrySet()) {
+      final BlockTable table = e.getValue();
+      for (final int i : table.makeSortedOrder()) {
+        final int p = i * 4;
+        final long count = table.counts[i];
+        buffer.setLength(0);
+        buffer.append(e.getKey()).append(':')
+            .append(table.positions[p]).append('.').append(table.positions[p + 1]).append(',')
+            .append(table.positions[p + 2]).append('.').append(table.positions[p + 3])
+            .append(' ').append(table.statements[i])
+            .append(' ').append(setMode ? (count > 0L ? 1L : 0L) : count)
+            .append('\n');
+        writer.append(buffer);
+      }
+    }
+    writer.flush();
+  }
+
+  /**
+   * Write text summary report with coverage of statements for each file and
+   * total.
+   *
+   * @param writer target writer, must not be null
+   * @throws IOException if error during write
+   */
+  public void writeSummary(@Nonnull final Writer writer) throws IOException {
+    long totalStatements = 0L;
+    long totalCovered = 0L;
+    for (final Map.Entry<String, BlockTable> e : this.files.entrySet()) {
+      final BlockTable table = e.getValue();
+      long statements = 0L;
+      long covered = 0L;
+      for (int i = 0; i < table.size; i++) {
+        statements += table.statements[i];
+        if (table.counts[i] > 0L) {
+          covered += table.statements[i];
+        }
+      }
+      totalStatements += statements;
+      totalCovered += covered;
+      writer.write(String.format("%s\t%d/%d\t%s%n", e.getKey(), covered, statements,
+          formatPercent(covered, statements)));
+    }
+    writer.write(String.format("total:\t%d/%d\t%s%n", totalCovered, totalStatements,
+        formatPercent(totalCovered, totalStatements)));
+    writer.flush();
+  }
+
+  /**
+   * Get total percent of covered statements.
+   *
+   * @return percent of covered statements, 0 if there is no any statement
+   */
+  public double getCoveredPercent() {
+    long statements = 0L;
+    long covered = 0L;
+    for (final BlockTable table : this.files.values()) {
+      for (int i = 0; i < table.size; i++) {
+        statements += table.statements[i];
+        if (table.counts[i] > 0L) {
+          covered += table.statements[i];
+        }
+      }
+    }
+    return statements == 0L ? 0.0d : (covered * 100.0d) / statements;
+  }
+
+  @Nonnull
+  private static String formatPercent(final long covered, final long total) {
+    return String.format("%.1f%%", total == 0L ? 0.0d : (covered * 100.0d) / total);
+  }
+
+  /**
+   * Table of blocks for single source file, every block is kept as four
+   * position integers, statement number and counter; lookup is made through
+   * open addressing hash index.
+   */
+  private static final class BlockTable {
+
+    private int[] positions = new int[4 * 16];
+    private int[] statements = new int[16];
+    private long[] counts = new long[16];
+    private int[] index = new int[32];
+    private int size;
+
+    private static int hash(final int a, final int b, final int c, final int d) {
+      int h = a * 0x9E3779B1;
+      h = (h ^ b) * 0x85EBCA6B;
+      h = (h ^ c) * 0xC2B2AE35;
+      h = (h ^ d) * 0x27D4EB2F;
+      return h ^ (h >>> 16);
+    }
+
+    private int find(final int a, final int b, final int c, final int d) {
+      final int mask = this.index.length - 1;
+      int slot = hash(a, b, c, d) & mask;
+      while (true) {
+        final int value = this.index[slot];
+        if (value == 0) {
+          return -(slot + 1);
+        }
+        final int p = (value - 1) * 4;
+        if (this.positions[p] == a && this.positions[p + 1] == b && this.positions[p + 2] == c &&
+            this.positions[p + 3] == d) {
+          return value - 1;
+        }
+        slot = (slot + 1) & mask;
+      }
+    }
+
+    private void rehash() {
+      this.index = new int[this.index.length * 2];
+      final int mask = this.index.length - 1;
+      for (int i = 0; i < this.size; i++) {
+        final int p = i * 4;
+        int slot = hash(this.positions[p], this.positions[p + 1], this.positions[p + 2],
+            this.positions[p + 3]) & mask;
+        while (this.index[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        this.index[slot] = i + 1;
+      }
+    }
+
+    void merge(final int startLine, final int startCol, final int endLine, final int endCol,
+               final int numStatements, final long count, final boolean setMode)
+        throws IOException {
+      final int found = find(startLine, startCol, endLine, endCol);
+      if (found >= 0) {
+        if (this.statements[found] != numStatements) {
+          throw new IOException(String
+              .format("Inconsistent statement number for block %d.%d,%d.%d: %d != %d", startLine,
+                  startCol, endLine, endCol, this.statements[found], numStatements));
+        }
+        final long current = this.counts[found];
+        if (setMode) {
+          this.counts[found] = current > 0L || count > 0L ? 1L : 0L;
+        } else {
+          final long sum = current + count;
+          this.counts[found] = sum < 0L ? Long.MAX_VALUE : sum;
+        }
+      } else {
+        if (this.size == this.statements.length) {
+          final int newCapacity = this.size * 2;
+          this.positions = Arrays.copyOf(this.positions, newCapacity * 4);
+          this.statements = Arrays.copyOf(this.statements, newCapacity);
+          this.counts = Arrays.copyOf(this.counts, newCapacity);
+        }
+        final int p = this.size * 4;
+        this.positions[p] = startLine;
+        this.positions[p + 1] = startCol;
+        this.positions[p + 2] = endLine;
+        this.positions[p + 3] = endCol;
+        this.statements[this.size] = numStatements;
+        this.counts[this.size] = count;
+        this.index[-found - 1] = this.size + 1;
+        this.size++;
+        if (this.size * 2 > this.index.length) {
+          rehash();
+        }
+      }
+    }
+
+    @Nonnull
+    int[] makeSortedOrder() {
+      final Integer[] order = new Integer[this.size];
+      for (int i = 0; i < this.size; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (x, y) -> {
+        final int px = x * 4;
+        final int py = y * 4;
+        for (int i = 0; i < 4; i++) {
+          final int result = Integer.compare(this.positions[px + i], this.positions[py + i]);
+          if (result != 0) {
+            return result;
+          }
+        }
+        return 0;
+      });
+      final int[] result = new int[this.size];
+      for (int i = 0; i < this.size; i++) {
+        result[i] = order[i];
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Pool of CPU tokens shared by processes started by mojos, works like make
+ * jobserver. Every started process takes at least one token and no more than
+ * requested number of tokens, a process waits if there is no free token. Tokens
+ * are shared between all mojos in JVM and if folder is provided then also
+ * between JVMs, in the case every token is a lock of file in the folder.
+ *
+ * @since 2.3.10
+ */
+public final class CpuTokenPool {
+
+  private static final long FILE_POLL_MILLIS = 100L;
+  private static final Map<String, CpuTokenPool> POOLS = new HashMap<>();
+
+  private final int capacity;
+  private final File folder;
+  private final boolean[] used;
+
+  /**
+   * Constructor, shared pools should be got through
+   * {@link #find(int, File)}.
+   *
+   * @param capacity number of tokens, must be positive
+   * @param folder   folder to keep token lock files, null if tokens are not
+   *                 shared with other JVMs
+   */
+  CpuTokenPool(final int capacity, @Nullable final File folder) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.folder = folder;
+    this.used = new boolean[capacity];
+  }
+
+  /**
+   * Find pool shared in JVM, pool is created if not found.
+   *
+   * @param capacity number of tokens, must be positive
+   * @param folder   folder to keep token lock files, null if tokens are not
+   *                 shared with other JVMs
+   * @return shared pool
+   */
+  @Nonnull
+  public static CpuTokenPool find(final int capacity, @Nullable final File folder) {
+    final String key =
+        capacity + (folder == null ? "" : File.pathSeparator + folder.getAbsolutePath());
+    synchronized (POOLS) {
+      return POOLS.computeIfAbsent(key, k -> new CpuTokenPool(capacity, folder));
+    }
+  }
+
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Take tokens, waits until at least one token is free.
+   *
+   * @param wanted max number of tokens to be taken, one token is taken if zero
+   *               or negative
+   * @return grant which must be closed to release tokens
+   * @throws IOException          if any error during work with lock files
+   * @throws InterruptedException if interrupted during wait
+   */
+  @Nonnull
+  public Grant acquire(final int wanted) throws IOException, InterruptedException {
+    final int max = Math.max(1, Math.min(wanted, this.capacity));
+    final long start = System.currentTimeMillis();
+    synchronized (this.used) {
+      while (true) {
+        final List<Token> tokens = new ArrayList<>();
+        try {
+          for (int i = 0; i < this.capacity && tokens.size() < max; i++) {
+            if (!this.used[i]) {
+              final Token token = this.tryTake(i);
+              if (token != null) {
+                tokens.add(token);
+              }
+            }
+          }
+        } catch (IOException ex) {
+          this.release(tokens);
+          throw ex;
+        }
+        if (!tokens.isEmpty()) {
+          return new Grant(tokens, System.currentTimeMillis() - start);
+        }
+        // tokens released by other JVMs are not notified
+        this.used.wait(this.folder == null ? 0L : FILE_POLL_MILLIS);
+      }
+    }
+  }
+
+  @Nullable
+  private Token tryTake(final int index) throws IOException {
+    if (this.folder == null) {
+      this.used[index] = true;
+      return new Token(index, null, null);
+    }
+    if (!this.folder.isDirectory() && !this.folder.mkdirs()) {
+      throw new IOException("Can't create folder: " + this.folder);
+    }
+    final FileChannel channel = FileChannel.open(
+        new File(this.folder, "cpu-token-" + index + ".lock").toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    FileLock lock = null;
+    try {
+      lock = channel.tryLock();
+    } catch (OverlappingFileLockException ex) {
+      // the file is locked by another pool in the same JVM
+    } finally {
+      if (lock == null) {
+        channel.close();
+      }
+    }
+    if (lock == null) {
+      return null;
+    }
+    this.used[index] = true;
+    return new Token(index, channel, lock);
+  }
+
+  private void release(@Nonnull final List<Token> tokens) throws IOException {
+    IOException error = null;
+    synchronized (this.used) {
+      for (final Token t : tokens) {
+        try {
+          t.close();
+        } catch (IOException ex) {
+          error = ex;
+        }
+        this.used[t.index] = false;
+      }
+      this.used.notifyAll();
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  private static final class Token {
+
+    private final int index;
+    private final FileChannel channel;
+    private final FileLock lock;
+
+    private Token(final int index, @Nullable final FileChannel channel,
+                  @Nullable final FileLock lock) {
+      this.index = index;
+      this.channel = channel;
+      this.lock = lock;
+    }
+
+    private void close() throws IOException {
+      if (this.channel != null) {
+        try {
+          this.lock.release();
+        } finally {
+          this.channel.close();
+        }
+      }
+    }
+  }
+
+  /**
+   * Tokens taken from pool.
+   */
+  public final class Grant implements AutoCloseable {
+
+    private final List<Token> tokens;
+    private final long waitMillis;
+    private boolean released;
+
+    private Grant(@Nonnull final List<Token> tokens, final long waitMillis) {
+      this.tokens = tokens;
+      this.waitMillis = waitMillis;
+    }
+
+    public int getTokens() {
+      return this.tokens.size();
+    }
+
+    public long getWaitMillis() {
+      return this.waitMillis;
+    }
+
+    /**
+     * Return tokens into pool, repeated calls are ignored.
+     *
+     * @throws IOException if any error during release of lock files
+     */
+    @Override
+    public void close() throws IOException {
+      if (!this.released) {
+        this.released = true;
+        release(this.tokens);
+      }
+    }
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+import javax.annotation.Nonnull;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Machine-wide store of unpacked dependency archives. Every archive is
+ * unpacked only once into a read-only folder named by SHA-256 of the archive
+ * file, so that folders can be shared between modules and builds. Every use
+ * of a folder touches its reference file, folders which have not been
+ * referenced during defined time are removed by garbage collection.
+ *
+ * @since 2.3.10
+ */
+public final class DependencyStore {
+
+  private static final String REF_EXTENSION = ".ref";
+  private static final String TEMP_PREFIX = ".tmp-";
+  private static final String DELETED_PREFIX = ".del-";
+  private static final String LOCK_FILE = ".lock";
+  private static final String GC_FLAG_FILE = ".gc";
+
+  private static final long GC_INTERVAL_MILLIS = 24L * 60L * 60L * 1000L;
+
+  private final File folder;
+
+  public DependencyStore(@Nonnull final File folder) {
+    this.folder = folder;
+  }
+
+  @Nonnull
+  public static String sha256(@Nonnull final File file) throws IOException {
+    try (final InputStream in = Files.newInputStream(file.toPath())) {
+      return DigestUtils.sha256Hex(in);
+    }
+  }
+
+  @Nonnull
+  public File getFolder() {
+    return this.folder;
+  }
+
+  /**
+   * Find folder contains unpacked archive or unpack the archive into the store.
+   *
+   * @param archive  archive file, must not be null
+   * @param unpacker unpacker to be called if there is no such archive in the
+   *                 store
+   * @return folder in the store contains unpacked archive, must not be modified
+   * @throws IOException if any error during operation
+   */
+  @Nonnull
+  public File findOrUnpack(@Nonnull final File archive, @Nonnull final Unpacker unpacker)
+      throws IOException {
+    if (!this.folder.isDirectory() && !this.folder.mkdirs() && !this.folder.isDirectory()) {
+      throw new IOException("Can't create dependency store folder: " + this.folder);
+    }
+
+    final String hash = sha256(archive);
+    final File target = new File(this.folder, hash);
+    final File refFile = new File(this.folder, hash + REF_EXTENSION);
+
+    final boolean found = this.locked(() -> {
+      if (target.isDirectory()) {
+        touch(refFile);
+        return true;
+      }
+      return false;
+    });
+
+    if (!found) {
+      final File tempFolder = new File(this.folder, TEMP_PREFIX + hash + '-' + UUID.randomUUID());
+      try {
+        if (!tempFolder.mkdirs()) {
+          throw new IOException("Can't create folder: " + tempFolder);
+        }
+        unpacker.unpack(archive, tempFolder);
+        makeReadOnly(tempFolder.toPath());
+        this.locked(() -> {
+          if (!target.isDirectory()) {
+            Files.move(tempFolder.toPath(), target.toPath());
+          }
+          touch(refFile);
+          return true;
+        });
+      } finally {
+        if (tempFolder.exists()) {
+          deleteFolder(tempFolder.toPath());
+        }
+      }
+    }
+    return target;
+  }
+
+  /**
+   * Remove folders which have not been referenced during defined time. The
+   * collection is made not often than once per day.
+   *
+   * @param maxAgeMillis max age of reference in milliseconds
+   * @return number of removed folders
+   * @throws IOException if any error during operation
+   */
+  public int collectGarbage(final long maxAgeMillis) throws IOException {
+    if (!this.folder.isDirectory()) {
+      return 0;
+    }
+
+    final long now = System.currentTimeMillis();
+    final File gcFlag = new File(this.folder, GC_FLAG_FILE);
+    final File[] toDelete = this.locked(() -> {
+      if (gcFlag.isFile() && now - gcFlag.lastModified() < GC_INTERVAL_MILLIS) {
+        return new File[0];
+      }
+      touch(gcFlag);
+
+      final File[] files = this.folder.listFiles();
+      if (files == null) {
+        return new File[0];
+      }
+      int counter = 0;
+      final File[] found = new File[files.length];
+      for (final File f : files) {
+        final String name = f.getName();
+        if (!f.isDirectory()) {
+          continue;
+        }
+        if (name.startsWith(DELETED_PREFIX)) {
+          found[counter++] = f;
+        } else if (name.startsWith(TEMP_PREFIX)) {
+          if (now - f.lastModified() > maxAgeMillis) {
+            found[counter++] = f;
+          }
+        } else {
+          final File ref = new File(this.folder, name + REF_EXTENSION);
+          if (!ref.isFile() || now - ref.lastModified() > maxAgeMillis) {
+            // rename under lock to prevent use of the folder by other processes, the suffix
+            // prevents collision with tombstone left by crashed collection
+            final File tombstone =
+                new File(this.folder, DELETED_PREFIX + name + '-' + UUID.randomUUID());
+            Files.move(f.toPath(), tombstone.toPath());
+            Files.deleteIfExists(ref.toPath());
+            found[counter++] = tombstone;
+          }
+        }
+      }
+      final File[] result = new File[counter];
+      System.arraycopy(found, 0, result, 0, counter);
+      return result;
+    });
+
+    for (final File f : toDelete) {
+      deleteFolder(f.toPath());
+    }
+    return toDelete.length;
+  }
+
+  private <T> T locked(@Nonnull final FileLocks.LockedAction<T> action) throws IOException {
+    return FileLocks.locked(new File(this.folder, LOCK_FILE), action);
+  }
+
+  private static void touch(@Nonnull final File file) throws IOException {
+    if (file.isFile()) {
+      Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+    } else {
+      FileUtils.touch(file);
+    }
+  }
+
+  private static void makeReadOnly(@Nonnull final Path root) throws IOException {
+    if (!Files.isDirectory(root)) {
+      return;
+    }
+    Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+      @Override
+      @Nonnull
+      public FileVisitResult visitFile(@Nonnull final Path file,
+                                       @Nonnull final BasicFileAttributes attrs)
+          throws IOException {
+        if (!file.toFile().setWritable(false, false)) {
+          throw new IOException("Can't make file read-only: " + file);
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private static void deleteFolder(@Nonnull final Path root) throws IOException {
+    Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+      @Override
+      @Nonnull
+      public FileVisitResult visitFile(@Nonnull final Path file,
+                                       @Nonnull final BasicFileAttributes attrs)
+          throws IOException {
+        if (!file.toFile().setWritable(true)) {
+          throw new IOException("Can't make file writable: " + file);
+        }
+        Files.delete(file);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      @Nonnull
+      public FileVisitResult postVisitDirectory(@Nonnull final Path dir,
+                                                final IOException exc) throws IOException {
+        if (exc != null) {
+          throw exc;
+        }
+        Files.delete(dir);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  /**
+   * Unpacker of an archive into a folder.
+   */
+  @FunctionalInterface
+  public interface Unpacker {
+    void unpack(@Nonnull File archive, @Nonnull File folder) throws IOException;
+  }
+}
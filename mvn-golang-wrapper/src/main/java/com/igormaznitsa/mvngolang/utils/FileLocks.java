@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+
+/**
+ * Auxiliary class to perform actions under lock file shared by threads and
+ * JVMs. File locks are held by JVM and overlapping locks of the same JVM are
+ * not allowed, so threads are synchronized through monitor of the lock file
+ * path before taking the file lock.
+ *
+ * @since 2.3.10
+ */
+public final class FileLocks {
+
+  private static final ConcurrentMap<String, Object> JVM_LOCKS = new ConcurrentHashMap<>();
+
+  private FileLocks() {
+
+  }
+
+  /**
+   * Perform action under lock of file, the file and its parent folder are
+   * created if not exist.
+   *
+   * @param lockFile lock file, must not be null
+   * @param action   action to be performed, must not be null
+   * @param <T>      type of result
+   * @return result of the action
+   * @throws IOException if any error during lock or action
+   */
+  public static <T> T locked(@Nonnull final File lockFile, @Nonnull final LockedAction<T> action)
+      throws IOException {
+    final File file = lockFile.getAbsoluteFile();
+    final File parent = file.getParentFile();
+    if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+      throw new IOException("Can't create folder: " + parent);
+    }
+    synchronized (JVM_LOCKS.computeIfAbsent(file.getPath(), k -> new Object())) {
+      try (final FileChannel channel = FileChannel.open(file.toPath(),
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        final FileLock lock = channel.lock();
+        try {
+          return action.perform();
+        } finally {
+          lock.release();
+        }
+      }
+    }
+  }
+
+  @FunctionalInterface
+  public interface LockedAction<T> {
+    T perform() throws IOException;
+  }
+}
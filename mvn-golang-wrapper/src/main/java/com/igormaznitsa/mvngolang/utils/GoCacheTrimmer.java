@@ -0,0 +1,370 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Trimmer of go build cache (GOCACHE) and module cache (GOMODCACHE). Entries
+ * not used longer than max age are removed and if total size of both caches is
+ * greater than budget then least recently used entries are removed until the
+ * size is under the budget. Entry of build cache is a file in one of the 256
+ * hash folders, entry of module cache is a module version (its download cache
+ * files and extracted folder). Module versions listed in protected go.sum files
+ * are never removed. Folders of both caches are scanned in parallel.
+ *
+ * @since 2.3.10
+ */
+public final class GoCacheTrimmer {
+
+  private static final Pattern BUILD_CACHE_FOLDER = Pattern.compile("[0-9a-f]{2}");
+  private static final String[] MODULE_FILE_EXTENSIONS =
+      {".info", ".mod", ".zip", ".ziphash", ".lock", ".partial"};
+
+  private final long maxAgeMillis;
+  private final long maxSize;
+  private final int threads;
+  private final Set<String> protectedModules = new HashSet<>();
+
+  /**
+   * Constructor.
+   *
+   * @param maxAgeMillis max time since last use of entry, zero or negative
+   *                     disables the limit
+   * @param maxSize      max total size of caches in bytes, zero or negative
+   *                     disables the limit
+   * @param threads      number of threads to scan and trim caches
+   */
+  public GoCacheTrimmer(final long maxAgeMillis, final long maxSize, final int threads) {
+    this.maxAgeMillis = maxAgeMillis;
+    this.maxSize = maxSize;
+    this.threads = Math.max(1, threads);
+  }
+
+  /**
+   * Protect all module versions listed in go.sum file.
+   *
+   * @param goSum go.sum file, must not be null
+   * @throws IOException if any error during read
+   */
+  public void protectGoSum(@Nonnull final File goSum) throws IOException {
+    for (final String line : Files.readAllLines(goSum.toPath(), StandardCharsets.UTF_8)) {
+      final String[] fields = line.trim().split("\\s+");
+      if (fields.length >= 2) {
+        final String version = fields[1].endsWith("/go.mod")
+            ? fields[1].substring(0, fields[1].length() - "/go.mod".length()) : fields[1];
+        this.protectedModules.add(
+            GoModuleProxy.escape(fields[0]) + '@' + GoModuleProxy.escape(version));
+      }
+    }
+  }
+
+  public boolean isProtected(@Nonnull final String escapedModule,
+                             @Nonnull final String escapedVersion) {
+    return this.protectedModules.contains(escapedModule + '@' + escapedVersion);
+  }
+
+  /**
+   * Trim caches.
+   *
+   * @param goCache    build cache folder, can be null
+   * @param goModCache module cache folder, can be null
+   * @return result of trimming
+   * @throws IOException if any error during scan or removal
+   */
+  @Nonnull
+  public Result trim(@Nullable final File goCache, @Nullable final File goModCache)
+      throws IOException {
+    final ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+    try {
+      final List<Future<List<Entry>>> scans = new ArrayList<>();
+      if (goCache != null) {
+        for (final File f : listFolders(goCache)) {
+          if (BUILD_CACHE_FOLDER.matcher(f.getName()).matches()) {
+            scans.add(executor.submit(() -> scanBuildCacheFolder(f)));
+          }
+        }
+      }
+      if (goModCache != null) {
+        final File download = new File(goModCache, "cache" + File.separatorChar + "download");
+        for (final File host : listFolders(download)) {
+          if ("sumdb".equals(host.getName())) {
+            continue;
+          }
+          for (final File owner : listFolders(host)) {
+            scans.add(executor.submit(() -> this.scanModuleCacheFolder(goModCache, download,
+                owner)));
+          }
+        }
+      }
+
+      final List<Entry> entries = new ArrayList<>();
+      for (final Future<List<Entry>> f : scans) {
+        entries.addAll(takeResult(f));
+      }
+
+      long totalSize = 0L;
+      for (final Entry e : entries) {
+        totalSize += e.size;
+      }
+      entries.sort(Comparator.comparingLong(e -> e.lastUse));
+
+      final long oldest = System.currentTimeMillis() - this.maxAgeMillis;
+      final List<Entry> toRemove = new ArrayList<>();
+      long removedSize = 0L;
+      for (final Entry e : entries) {
+        if (e.isProtected) {
+          continue;
+        }
+        final boolean tooOld = this.maxAgeMillis > 0L && e.lastUse < oldest;
+        final boolean overBudget = this.maxSize > 0L && totalSize - removedSize > this.maxSize;
+        if (!tooOld && !overBudget) {
+          break;
+        }
+        toRemove.add(e);
+        removedSize += e.size;
+      }
+
+      final List<Future<Void>> removals = new ArrayList<>();
+      for (final Entry e : toRemove) {
+        removals.add(executor.submit(() -> {
+          e.remove();
+          return null;
+        }));
+      }
+      for (final Future<Void> f : removals) {
+        takeResult(f);
+      }
+      return new Result(entries.size(), toRemove.size(), totalSize, removedSize);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static <T> T takeResult(@Nonnull final Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted", ex);
+    } catch (ExecutionException ex) {
+      final Throwable cause = ex.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException("Error during cache trimming", cause);
+    }
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private static List<File> listFolders(@Nonnull final File folder) {
+    final File[] found = folder.listFiles(File::isDirectory);
+    return found == null ? Collections.emptyList() : Arrays.asList(found);
+  }
+
+  private static long lastUse(@Nonnull final BasicFileAttributes attrs) {
+    return Math.max(attrs.lastModifiedTime().toMillis(), attrs.lastAccessTime().toMillis());
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private static List<Entry> scanBuildCacheFolder(@Nonnull final File folder) throws IOException {
+    final List<Entry> result = new ArrayList<>();
+    final File[] files = folder.listFiles(File::isFile);
+    if (files != null) {
+      for (final File f : files) {
+        final BasicFileAttributes attrs =
+            Files.readAttributes(f.toPath(), BasicFileAttributes.class);
+        final Entry entry = new Entry(false);
+        entry.add(f.toPath(), attrs.size(), lastUse(attrs));
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private List<Entry> scanModuleCacheFolder(@Nonnull final File goModCache,
+                                            @Nonnull final File download,
+                                            @Nonnull final File folder) throws IOException {
+    final List<Entry> result = new ArrayList<>();
+    final Path downloadPath = download.toPath();
+    final List<Path> versionFolders = new ArrayList<>();
+    Files.walkFileTree(folder.toPath(), new SimpleFileVisitor<Path>() {
+      @Override
+      @Nonnull
+      public FileVisitResult preVisitDirectory(@Nonnull final Path dir,
+                                               @Nonnull final BasicFileAttributes attrs) {
+        if ("@v".equals(dir.getFileName().toString())) {
+          versionFolders.add(dir);
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+
+    for (final Path versionFolder : versionFolders) {
+      final String module = downloadPath.relativize(versionFolder.getParent()).toString()
+          .replace(File.separatorChar, '/');
+      final Map<String, List<Path>> versions = new LinkedHashMap<>();
+      final File[] files = versionFolder.toFile().listFiles(File::isFile);
+      if (files == null) {
+        continue;
+      }
+      for (final File f : files) {
+        final String name = f.getName();
+        for (final String ext : MODULE_FILE_EXTENSIONS) {
+          if (name.endsWith(ext) && name.length() > ext.length()) {
+            versions.computeIfAbsent(name.substring(0, name.length() - ext.length()),
+                k -> new ArrayList<>()).add(f.toPath());
+            break;
+          }
+        }
+      }
+      for (final Map.Entry<String, List<Path>> v : versions.entrySet()) {
+        final Entry entry = new Entry(this.isProtected(module, v.getKey()));
+        for (final Path p : v.getValue()) {
+          final BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+          entry.add(p, attrs.size(), lastUse(attrs));
+        }
+        final File extracted = new File(goModCache,
+            module.replace('/', File.separatorChar) + '@' + v.getKey());
+        if (extracted.isDirectory()) {
+          entry.addFolder(extracted.toPath());
+        }
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Result of trimming.
+   */
+  public static final class Result {
+
+    private final int entries;
+    private final int removedEntries;
+    private final long size;
+    private final long removedSize;
+
+    private Result(final int entries, final int removedEntries, final long size,
+                   final long removedSize) {
+      this.entries = entries;
+      this.removedEntries = removedEntries;
+      this.size = size;
+      this.removedSize = removedSize;
+    }
+
+    public int getEntries() {
+      return this.entries;
+    }
+
+    public int getRemovedEntries() {
+      return this.removedEntries;
+    }
+
+    public long getSize() {
+      return this.size;
+    }
+
+    public long getRemovedSize() {
+      return this.removedSize;
+    }
+  }
+
+  private static final class Entry {
+
+    private final boolean isProtected;
+    private final List<Path> files = new ArrayList<>();
+    private final List<Path> folders = new ArrayList<>();
+    private long size;
+    private long lastUse;
+
+    private Entry(final boolean isProtected) {
+      this.isProtected = isProtected;
+    }
+
+    private void add(@Nonnull final Path file, final long size, final long lastUse) {
+      this.files.add(file);
+      this.size += size;
+      this.lastUse = Math.max(this.lastUse, lastUse);
+    }
+
+    private void addFolder(@Nonnull final Path folder) throws IOException {
+      this.folders.add(folder);
+      Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+        @Override
+        @Nonnull
+        public FileVisitResult preVisitDirectory(@Nonnull final Path dir,
+                                                 @Nonnull final BasicFileAttributes attrs) {
+          // access time of folder is changed by the scan itself, so only modification time
+          lastUse = Math.max(lastUse, attrs.lastModifiedTime().toMillis());
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        @Nonnull
+        public FileVisitResult visitFile(@Nonnull final Path file,
+                                         @Nonnull final BasicFileAttributes attrs) {
+          size += attrs.size();
+          lastUse = Math.max(lastUse, lastUse(attrs));
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    }
+
+    private void remove() throws IOException {
+      // extracted folder is removed first because go treats module as present while it exists
+      for (final Path folder : this.folders) {
+        BackgroundDeleter.delete(folder.toFile()).join();
+        if (Files.exists(folder)) {
+          throw new IOException("Can't delete folder: " + folder);
+        }
+      }
+      for (final Path file : this.files) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+}
@@ -20,24 +20,60 @@ import com.igormaznitsa.meta.annotation.MustNotContainNull;
 import com.igormaznitsa.meta.common.utils.Assertions;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.TreeSet;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+/**
+ * Model of go.mod file. Parsing is made by single pass character lexer, the
+ * original text is kept so that the file can be written back with its
+ * formatting and comments through {@link #toSource()}.
+ */
 public final class GoMod {
 
-  private static final Pattern TOKENIZER =
-      Pattern.compile("(\\/\\/|\\\"[^\\\"]+\\\"|[<>=\\w.+\\-/\\\\]+|[<>=-]+|\\(|\\)|[\\s\\n]+)");
   private final List<GoModItem> items;
+  private final String source;
+  private final List<GoModItem> addedItems = new ArrayList<>();
+  private final Map<String, List<GoRequire>> requireIndex = new HashMap<>();
+  private final Map<String, List<GoReplace>> replaceIndex = new HashMap<>();
+  private boolean sorted;
+
+  private GoMod(@Nonnull @MustNotContainNull final List<GoModItem> items,
+                @Nonnull final String source) {
+    this.items = new ArrayList<>(items);
+    this.source = source;
+    for (final GoModItem i : this.items) {
+      this.index(i);
+    }
+  }
+
+  private void index(@Nonnull final GoModItem item) {
+    if (item instanceof GoRequire) {
+      this.requireIndex
+          .computeIfAbsent(((GoRequire) item).getModuleInfo().getName(), k -> new ArrayList<>(1))
+          .add((GoRequire) item);
+    } else if (item instanceof GoReplace) {
+      this.replaceIndex
+          .computeIfAbsent(((GoReplace) item).getModule().getName(), k -> new ArrayList<>(1))
+          .add((GoReplace) item);
+    }
+  }
 
-  private GoMod(@Nonnull @MustNotContainNull final List<GoModItem> items) {
-    final List<GoModItem> newList = new ArrayList<>(items);
-    Collections.sort(newList);
-    this.items = newList;
+  @Nonnull
+  @MustNotContainNull
+  private List<GoModItem> sortedItems() {
+    if (!this.sorted) {
+      Collections.sort(this.items);
+      this.sorted = true;
+    }
+    return this.items;
   }
 
   @Nonnull
@@ -46,296 +82,176 @@ public final class GoMod {
   }
 
   @Nonnull
-  private static String ensureNoQuoting(@Nonnull final String text) {
-    return text.startsWith("\"") ? text.substring(1, text.length() - 1) : text;
+  private static ModuleInfo makeModuleInfo(@Nonnull @MustNotContainNull final List<String> args,
+                                           final int from, final int to,
+                                           @Nonnull final String directive) {
+    switch (to - from) {
+      case 1:
+        return new ModuleInfo(args.get(from));
+      case 2:
+        return new ModuleInfo(args.get(from), args.get(from + 1));
+      default:
+        throw new IllegalArgumentException(
+            "Can't extract module info from tokens of " + directive + ": " + args);
+    }
   }
 
-  @Nonnull
-  @MustNotContainNull
-  private static List<ModuleInfo> extractModuleInfo(
-      @Nonnull @MustNotContainNull final List<String> tokens,
-      @Nonnull @MustNotContainNull final String... separators) {
-    final List<ModuleInfo> result = new ArrayList<>();
-    final List<String> tokenBuffer = new ArrayList<>(tokens);
-    final List<String> accum = new ArrayList<>();
-
-    while (!tokenBuffer.isEmpty()) {
-      final String next = tokenBuffer.remove(0);
-      boolean separator = false;
-      for (final String s : separators) {
-        if (s.equals(next)) {
-          separator = true;
-          break;
-        }
+  private static void addDirectiveItem(@Nonnull @MustNotContainNull final List<GoModItem> items,
+                                       @Nonnull final String directive,
+                                       @Nonnull @MustNotContainNull final List<String> args,
+                                       @Nullable final String comment) {
+    if (args.isEmpty()) {
+      return;
+    }
+    final GoModItem item;
+    switch (directive) {
+      case "module": {
+        item = new GoModule(makeModuleInfo(args, 0, args.size(), directive));
       }
-      if (separator) {
-        switch (accum.size()) {
-          case 1: {
-            result.add(new ModuleInfo(accum.remove(0)));
-          }
-          break;
-          case 2: {
-            final String name = accum.remove(0);
-            final String version = accum.remove(0);
-            result.add(new ModuleInfo(name, version));
-          }
-          break;
-          default:
-            throw new IllegalArgumentException("Can't extract module info from tokens: " + tokens);
+      break;
+      case "require": {
+        item = new GoRequire(makeModuleInfo(args, 0, args.size(), directive));
+      }
+      break;
+      case "exclude": {
+        item = new GoExclude(makeModuleInfo(args, 0, args.size(), directive));
+      }
+      break;
+      case "replace": {
+        final int arrow = args.indexOf(Lexer.ARROW);
+        if (arrow < 0 || arrow == args.size() - 1) {
+          throw new IllegalArgumentException("Can't find target in replace");
         }
-      } else {
-        accum.add(next);
+        item = new GoReplace(makeModuleInfo(args, 0, arrow, directive),
+            makeModuleInfo(args, arrow + 1, args.size(), directive));
       }
-    }
-
-    switch (accum.size()) {
-      case 1: {
-        result.add(new ModuleInfo(accum.remove(0)));
+      break;
+      case "go": {
+        item = new GoVersion(args.get(0));
       }
       break;
-      case 2: {
-        final String name = accum.remove(0);
-        final String version = accum.remove(0);
-        result.add(new ModuleInfo(name, version));
+      case "toolchain": {
+        item = new GoToolchain(args.get(0));
+      }
+      break;
+      case "retract": {
+        item = new GoRetract(String.join(" ", args).replace("[ ", "[").replace(" ]", "]")
+            .replace(" ,", ","));
+      }
+      break;
+      case "godebug": {
+        final String joined = String.join("", args);
+        final int eq = joined.indexOf('=');
+        if (eq <= 0) {
+          throw new IllegalArgumentException("Expected key=value in godebug: " + args);
+        }
+        item = new GoDebug(joined.substring(0, eq), joined.substring(eq + 1));
+      }
+      break;
+      default: {
+        item = new GoCustom(directive, args.toArray(new String[0]));
       }
       break;
-      default:
-        throw new IllegalArgumentException("Can't extract module info from tokens: " + tokens);
     }
-
-    return result;
+    item.comment = comment;
+    items.add(item);
   }
 
   @Nonnull
   public static GoMod from(@Nonnull final String str) {
     final List<GoModItem> foundItems = new ArrayList<>();
-
-    final Matcher matcher = TOKENIZER.matcher(str);
-
-    ParserState state = ParserState.FIND;
-
-    boolean findEol = false;
-    boolean bracket = false;
-
-    final List<String> tokenList = new ArrayList<>();
-
-    String customTokenName = null;
-
-    while (matcher.find()) {
-      final String token = matcher.group(1);
-      if (findEol) {
-        if (token.contains("\n")) {
-          findEol = false;
-          state = bracket ? state : ParserState.FIND;
+    final Lexer lexer = new Lexer(str);
+    final List<String> args = new ArrayList<>();
+
+    int token;
+    while ((token = lexer.next()) != Lexer.EOF) {
+      if (token != Lexer.WORD) {
+        if (token == Lexer.RPAREN) {
+          throw new IllegalArgumentException("Unexpected closing bracket at " + lexer.start);
         }
-      } else {
-        switch (state) {
-          case FIND: {
-            tokenList.clear();
-            switch (token) {
-              case "module": {
-                state = ParserState.MODULE;
-              }
-              break;
-              case "exclude": {
-                state = ParserState.EXCLUDE;
-              }
-              break;
-              case "replace": {
-                state = ParserState.REPLACE;
-              }
-              break;
-              case "require": {
-                state = ParserState.REQUIRE;
-              }
-              break;
-              default: {
-                if ("//".equals(token)) {
-                  findEol = true;
-                } else if (!token.trim().isEmpty()) {
-                  state = ParserState.CUSTOM;
-                  customTokenName = token;
-                }
-              }
-              break;
+        continue;
+      }
+      final String directive = lexer.text();
+
+      token = lexer.next();
+      if (token == Lexer.LPAREN) {
+        boolean closed = false;
+        String comment = null;
+        args.clear();
+        while (!closed) {
+          token = lexer.next();
+          switch (token) {
+            case Lexer.EOF:
+            case Lexer.RPAREN: {
+              addDirectiveItem(foundItems, directive, args, comment);
+              args.clear();
+              closed = true;
             }
-          }
-          break;
-          case CUSTOM: {
-            if ("//".equals(token)) {
-              if (!bracket) {
-                foundItems.add(new GoCustom(customTokenName, tokenList.toArray(new String[0])));
-                foundItems.clear();
-                customTokenName = null;
-                state = ParserState.FIND;
-              }
-            } else {
-              if ("(".equals(token)) {
-                if (bracket) {
-                  throw new IllegalArgumentException("Duplicated opening bracket in " + state);
-                }
-                bracket = true;
-              } else if (")".equals(token)) {
-                if (!bracket) {
-                  throw new IllegalArgumentException("Unexpected closing bracket in " + state);
-                }
-                bracket = false;
-                foundItems.add(new GoCustom(customTokenName, tokenList.toArray(new String[0])));
-                foundItems.clear();
-                customTokenName = null;
-                state = ParserState.FIND;
-              } else if (token.contains("\n")) {
-                if (!bracket) {
-                  state = ParserState.FIND;
-                  foundItems.add(new GoCustom(customTokenName, tokenList.toArray(new String[0])));
-                }
-              } else {
-                if (!token.trim().isEmpty()) {
-                  tokenList.add(token);
-                }
-              }
+            break;
+            case Lexer.LPAREN:
+              throw new IllegalArgumentException("Duplicated opening bracket in " + directive);
+            case Lexer.NEWLINE: {
+              addDirectiveItem(foundItems, directive, args, comment);
+              args.clear();
+              comment = null;
             }
-          }
-          break;
-          case MODULE:
-          case EXCLUDE:
-          case REPLACE:
-          case REQUIRE: {
-            if ("(".equals(token)) {
-              if (bracket) {
-                throw new IllegalArgumentException("Duplicated opening bracket in " + state);
-              }
-              if (!tokenList.isEmpty()) {
-                throw new IllegalArgumentException(
-                    "Unexpected tokens " + tokenList + " before bracket in " + state);
-              }
-              bracket = true;
-            } else {
-              final boolean processTokenList;
-              ParserState nextState = state;
-
-              if (")".equals(token)) {
-                if (!bracket) {
-                  throw new IllegalArgumentException("Unexpected closing bracket in " + state);
-                }
-                bracket = false;
-                processTokenList = !tokenList.isEmpty();
-                nextState = ParserState.FIND;
-              } else if ("//".equals(token)) {
-                findEol = true;
-                processTokenList = !bracket || !tokenList.isEmpty();
-                nextState = bracket ? state : ParserState.FIND;
-              } else if (token.contains("\n")) {
-                processTokenList = !bracket || !tokenList.isEmpty();
-                nextState = bracket ? state : ParserState.FIND;
-              } else {
-                if (!token.trim().isEmpty()) {
-                  tokenList.add(ensureNoQuoting(token));
-                }
-                processTokenList = false;
-              }
-
-              if (processTokenList) {
-                switch (state) {
-                  case MODULE: {
-                    final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
-                    tokenList.clear();
-                    while (!moduleInfos.isEmpty()) {
-                      foundItems.add(new GoModule(moduleInfos.remove(0)));
-                    }
-                  }
-                  break;
-                  case REQUIRE: {
-                    final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
-                    tokenList.clear();
-                    while (!moduleInfos.isEmpty()) {
-                      foundItems.add(new GoRequire(moduleInfos.remove(0)));
-                    }
-                  }
-                  break;
-                  case EXCLUDE: {
-                    final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
-                    tokenList.clear();
-                    while (!moduleInfos.isEmpty()) {
-                      foundItems.add(new GoExclude(moduleInfos.remove(0)));
-                    }
-                  }
-                  break;
-                  case REPLACE: {
-                    final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList, "=>");
-                    tokenList.clear();
-                    while (!moduleInfos.isEmpty()) {
-                      final ModuleInfo from = moduleInfos.remove(0);
-                      if (moduleInfos.isEmpty()) {
-                        throw new IllegalArgumentException("Can't find target in replace");
-                      }
-                      final ModuleInfo to = moduleInfos.remove(0);
-                      foundItems.add(new GoReplace(from, to));
-                    }
-                  }
-                  break;
-                  default:
-                    throw new Error("Unexpected: " + state);
-                }
-              }
-
-              state = nextState;
+            break;
+            case Lexer.COMMENT: {
+              comment = lexer.commentText();
             }
-          }
-          break;
-        }
-      }
-    }
-
-    if (!tokenList.isEmpty()) {
-      switch (state) {
-        case MODULE: {
-          final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
-          tokenList.clear();
-          while (!moduleInfos.isEmpty()) {
-            foundItems.add(new GoModule(moduleInfos.remove(0)));
-          }
-        }
-        break;
-        case REQUIRE: {
-          final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
-          tokenList.clear();
-          while (!moduleInfos.isEmpty()) {
-            foundItems.add(new GoRequire(moduleInfos.remove(0)));
+            break;
+            default: {
+              args.add(lexer.text());
+            }
+            break;
           }
         }
-        break;
-        case EXCLUDE: {
-          final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
-          tokenList.clear();
-          while (!moduleInfos.isEmpty()) {
-            foundItems.add(new GoExclude(moduleInfos.remove(0)));
-          }
+        // ignore rest of line after closing bracket
+        while (token != Lexer.NEWLINE && token != Lexer.EOF) {
+          token = lexer.next();
         }
-        break;
-        case REPLACE: {
-          final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList, "=>");
-          tokenList.clear();
-          while (!moduleInfos.isEmpty()) {
-            final ModuleInfo from = moduleInfos.remove(0);
-            if (moduleInfos.isEmpty()) {
-              throw new IllegalArgumentException("Can't find target in replace");
-            }
-            final ModuleInfo to = moduleInfos.remove(0);
-            foundItems.add(new GoReplace(from, to));
+      } else {
+        args.clear();
+        String comment = null;
+        while (token != Lexer.NEWLINE && token != Lexer.EOF) {
+          if (token == Lexer.COMMENT) {
+            comment = lexer.commentText();
+          } else if (token == Lexer.RPAREN) {
+            throw new IllegalArgumentException("Unexpected closing bracket in " + directive);
+          } else {
+            args.add(lexer.text());
           }
+          token = lexer.next();
         }
-        break;
-        case CUSTOM: {
-          foundItems.add(new GoCustom(customTokenName, tokenList.toArray(new String[0])));
-        }
-        break;
-        default:
-          break;
+        addDirectiveItem(foundItems, directive, args, comment);
       }
     }
 
-    return new GoMod(foundItems);
+    return new GoMod(foundItems, str);
+  }
+
+  /**
+   * Get text of the go.mod, the original text is returned with all its
+   * formatting and comments and items added after parsing are appended to
+   * the end.
+   *
+   * @return text of go.mod, must not be null
+   * @since 2.3.10
+   */
+  @Nonnull
+  public String toSource() {
+    if (this.addedItems.isEmpty()) {
+      return this.source;
+    }
+    final StringBuilder buffer = new StringBuilder(this.source.length() + this.addedItems.size() * 64);
+    buffer.append(this.source);
+    if (buffer.length() > 0 && buffer.charAt(buffer.length() - 1) != '\n') {
+      buffer.append('\n');
+    }
+    for (final GoModItem i : this.addedItems) {
+      buffer.append(i.toString()).append('\n');
+    }
+    return buffer.toString();
   }
 
   @Override
@@ -348,12 +264,13 @@ public final class GoMod {
     }
 
     if (that instanceof GoMod) {
-      final GoMod thatGoMod = (GoMod) that;
-      if (this.items.size() != thatGoMod.items.size()) {
+      final List<GoModItem> thisItems = this.sortedItems();
+      final List<GoModItem> thatItems = ((GoMod) that).sortedItems();
+      if (thisItems.size() != thatItems.size()) {
         return false;
       }
-      for (int i = 0; i < this.items.size(); i++) {
-        if (!this.items.get(i).equals(thatGoMod.items.get(i))) {
+      for (int i = 0; i < thisItems.size(); i++) {
+        if (!thisItems.get(i).equals(thatItems.get(i))) {
           return false;
         }
       }
@@ -370,7 +287,24 @@ public final class GoMod {
   @Nonnull
   public GoMod addItem(@Nonnull final GoModItem item) {
     this.items.add(item);
-    Collections.sort(this.items);
+    this.addedItems.add(item);
+    this.index(item);
+    this.sorted = false;
+    return this;
+  }
+
+  /**
+   * Add batch of items, items are sorted only when needed.
+   *
+   * @param items items to be added, must not be null
+   * @return this instance
+   * @since 2.3.10
+   */
+  @Nonnull
+  public GoMod addItems(@Nonnull @MustNotContainNull final Collection<? extends GoModItem> items) {
+    for (final GoModItem i : items) {
+      this.addItem(i);
+    }
     return this;
   }
 
@@ -379,7 +313,7 @@ public final class GoMod {
   public <T extends GoModItem> List<T> find(@Nonnull final Class<T> klass) {
     final List<T> result = new ArrayList<>();
 
-    for (final GoModItem i : this.items) {
+    for (final GoModItem i : this.sortedItems()) {
       if (klass == i.getClass()) {
         result.add(klass.cast(i));
       }
@@ -396,7 +330,7 @@ public final class GoMod {
   @Override
   public String toString() {
     final StringBuilder buffer = new StringBuilder();
-    for (final GoModItem i : this.items) {
+    for (final GoModItem i : this.sortedItems()) {
       if (buffer.length() > 0) {
         buffer.append('\n');
       }
@@ -406,31 +340,47 @@ public final class GoMod {
   }
 
   public boolean hasReplaceFor(@Nonnull final String moduleName, @Nullable final String version) {
-    boolean found = false;
-    for (final GoModItem r : this.items) {
-      if (r instanceof GoReplace) {
-        final GoReplace require = (GoReplace) r;
-        if (moduleName.equals(require.getModule().getName()) &&
-            (version == null || version.equals(require.getModule().getVersion()))) {
-          found = true;
-        }
+    final List<GoReplace> found = this.replaceIndex.get(moduleName);
+    if (found == null) {
+      return false;
+    }
+    if (version == null) {
+      return true;
+    }
+    for (final GoReplace r : found) {
+      if (version.equals(r.getModule().getVersion())) {
+        return true;
       }
     }
-    return found;
+    return false;
   }
 
   public boolean hasRequireFor(@Nonnull final String moduleName, @Nullable final String version) {
-    boolean found = false;
-    for (final GoModItem r : this.items) {
-      if (r instanceof GoRequire) {
-        final GoRequire require = (GoRequire) r;
-        if (moduleName.equals(require.getModuleInfo().getName()) &&
-            (version == null || version.equals(require.getModuleInfo().getVersion()))) {
-          found = true;
-        }
+    final List<GoRequire> found = this.requireIndex.get(moduleName);
+    if (found == null) {
+      return false;
+    }
+    if (version == null) {
+      return true;
+    }
+    for (final GoRequire r : found) {
+      if (version.equals(r.getModuleInfo().getVersion())) {
+        return true;
       }
     }
-    return found;
+    return false;
+  }
+
+  /**
+   * Get names of all required modules.
+   *
+   * @return set of module names in sorted order
+   * @since 2.3.10
+   */
+  @Nonnull
+  @MustNotContainNull
+  public Set<String> getRequiredModules() {
+    return new TreeSet<>(this.requireIndex.keySet());
   }
 
   @Nullable
@@ -439,17 +389,177 @@ public final class GoMod {
     return found.isEmpty() ? null : found.get(0).getModuleInfo().getName();
   }
 
-  private enum ParserState {
-    FIND,
-    MODULE,
-    REQUIRE,
-    REPLACE,
-    EXCLUDE,
-    CUSTOM
+  /**
+   * Single pass lexer of go.mod text, it doesn't make strings for white spaces
+   * and punctuation.
+   */
+  private static final class Lexer {
+
+    static final int EOF = 0;
+    static final int WORD = 1;
+    static final int STRING = 2;
+    static final int LPAREN = 3;
+    static final int RPAREN = 4;
+    static final int NEWLINE = 5;
+    static final int COMMENT = 6;
+    static final int PUNCTUATION = 7;
+
+    static final String ARROW = "=>";
+
+    private final String text;
+    private int pos;
+    private int start;
+    private int end;
+    private int type;
+
+    Lexer(@Nonnull final String text) {
+      this.text = text;
+    }
+
+    private static boolean isWordChar(final char c) {
+      switch (c) {
+        case ' ':
+        case '\t':
+        case '\r':
+        case '\n':
+        case '(':
+        case ')':
+        case '[':
+        case ']':
+        case ',':
+        case '"':
+        case '`':
+          return false;
+        default:
+          return true;
+      }
+    }
+
+    int next() {
+      final int length = this.text.length();
+      while (this.pos < length) {
+        final char c = this.text.charAt(this.pos);
+        if (c == ' ' || c == '\t' || c == '\r' || c == '\uFEFF') {
+          this.pos++;
+        } else {
+          break;
+        }
+      }
+      this.start = this.pos;
+      if (this.pos >= length) {
+        this.end = this.pos;
+        return this.type = EOF;
+      }
+      final char c = this.text.charAt(this.pos);
+      switch (c) {
+        case '\n': {
+          this.end = ++this.pos;
+          return this.type = NEWLINE;
+        }
+        case '(': {
+          this.end = ++this.pos;
+          return this.type = LPAREN;
+        }
+        case ')': {
+          this.end = ++this.pos;
+          return this.type = RPAREN;
+        }
+        case '[':
+        case ']':
+        case ',': {
+          this.end = ++this.pos;
+          return this.type = PUNCTUATION;
+        }
+        case '"':
+        case '`': {
+          int i = this.pos + 1;
+          while (i < length) {
+            final char q = this.text.charAt(i);
+            if (q == c) {
+              break;
+            }
+            if (q == '\\' && c == '"') {
+              i++;
+            } else if (q == '\n') {
+              throw new IllegalArgumentException("Unexpected end of line in string at " + this.pos);
+            }
+            i++;
+          }
+          if (i >= length) {
+            throw new IllegalArgumentException("Unclosed string at " + this.pos);
+          }
+          this.end = i + 1;
+          this.pos = this.end;
+          return this.type = STRING;
+        }
+        default: {
+          if (this.text.startsWith("//", this.pos)) {
+            int i = this.pos;
+            while (i < length && this.text.charAt(i) != '\n') {
+              i++;
+            }
+            this.end = i;
+            this.pos = i;
+            return this.type = COMMENT;
+          }
+          if (this.text.startsWith(ARROW, this.pos)) {
+            this.end = this.pos + 2;
+            this.pos = this.end;
+            return this.type = WORD;
+          }
+          int i = this.pos;
+          while (i < length && isWordChar(this.text.charAt(i))) {
+            i++;
+          }
+          this.end = i;
+          this.pos = i;
+          return this.type = WORD;
+        }
+      }
+    }
+
+    @Nonnull
+    String text() {
+      if (this.type == STRING) {
+        final String body = this.text.substring(this.start + 1, this.end - 1);
+        if (this.text.charAt(this.start) == '`' || body.indexOf('\\') < 0) {
+          return body;
+        }
+        final StringBuilder result = new StringBuilder(body.length());
+        for (int i = 0; i < body.length(); i++) {
+          final char c = body.charAt(i);
+          if (c == '\\' && i + 1 < body.length()) {
+            result.append(body.charAt(++i));
+          } else {
+            result.append(c);
+          }
+        }
+        return result.toString();
+      }
+      return this.text.substring(this.start, this.end);
+    }
+
+    @Nonnull
+    String commentText() {
+      return this.text.substring(this.start + 2, this.end).trim();
+    }
   }
 
   public static abstract class GoModItem implements Comparable<GoModItem> {
 
+    private String comment;
+
+    /**
+     * Get comment placed on the same line with the item in the parsed text.
+     *
+     * @return comment text without slashes or null
+     * @since 2.3.10
+     */
+    @Nullable
+    public String getComment() {
+      return this.comment;
+    }
+
     @Override
     public int compareTo(@Nonnull final GoModItem that) {
       int result = Integer.compare(this.getPriority(), that.getPriority());
@@ -613,6 +723,260 @@ public final class GoMod {
     }
   }
 
+  /**
+   * Go language version directive.
+   *
+   * @since 2.3.10
+   */
+  public static final class GoVersion extends GoModItem {
+
+    private final String version;
+
+    public GoVersion(@Nonnull final String version) {
+      this.version = Assertions.assertNotNull(version);
+    }
+
+    /**
+     * Compare two go language versions like 1.18, 1.21.3 or 1.22rc1, missing
+     * numbers are zero and a pre-release is less than the release.
+     *
+     * @param version1 the first version, must not be null
+     * @param version2 the second version, must not be null
+     * @return negative, zero or positive like {@link Comparable#compareTo(Object)}
+     */
+    public static int compare(@Nonnull final String version1, @Nonnull final String version2) {
+      final String[] parts1 = version1.trim().split("\\.");
+      final String[] parts2 = version2.trim().split("\\.");
+      for (int i = 0; i < Math.max(parts1.length, parts2.length); i++) {
+        final String part1 = i < parts1.length ? parts1[i] : "0";
+        final String part2 = i < parts2.length ? parts2[i] : "0";
+        final int digits1 = countDigits(part1);
+        final int digits2 = countDigits(part2);
+        final int result = Long.compare(parseNumber(part1, digits1), parseNumber(part2, digits2));
+        if (result != 0) {
+          return result;
+        }
+        final String suffix1 = part1.substring(digits1);
+        final String suffix2 = part2.substring(digits2);
+        if (!suffix1.equals(suffix2)) {
+          if (suffix1.isEmpty()) {
+            return 1;
+          }
+          if (suffix2.isEmpty()) {
+            return -1;
+          }
+          return suffix1.compareTo(suffix2);
+        }
+      }
+      return 0;
+    }
+
+    private static int countDigits(@Nonnull final String text) {
+      int result = 0;
+      while (result < text.length() && Character.isDigit(text.charAt(result))) {
+        result++;
+      }
+      return result;
+    }
+
+    private static long parseNumber(@Nonnull final String text, final int digits) {
+      return digits == 0 ? 0L : Long.parseLong(text.substring(0, Math.min(digits, 18)));
+    }
+
+    @Nonnull
+    public String getVersion() {
+      return this.version;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object that) {
+      if (that == null) {
+        return false;
+      }
+      if (that == this) {
+        return true;
+      }
+
+      if (that instanceof GoVersion) {
+        return this.version.equals(((GoVersion) that).version);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.version.hashCode();
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+      return "go " + this.version;
+    }
+
+    @Override
+    public int getPriority() {
+      return 4;
+    }
+  }
+
+  /**
+   * Toolchain directive.
+   *
+   * @since 2.3.10
+   */
+  public static final class GoToolchain extends GoModItem {
+
+    private final String name;
+
+    public GoToolchain(@Nonnull final String name) {
+      this.name = Assertions.assertNotNull(name);
+    }
+
+    @Nonnull
+    public String getName() {
+      return this.name;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object that) {
+      if (that == null) {
+        return false;
+      }
+      if (that == this) {
+        return true;
+      }
+
+      if (that instanceof GoToolchain) {
+        return this.name.equals(((GoToolchain) that).name);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.name.hashCode();
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+      return "toolchain " + this.name;
+    }
+
+    @Override
+    public int getPriority() {
+      return 5;
+    }
+  }
+
+  /**
+   * Retract directive, version can be single version or interval in form [low, high].
+   *
+   * @since 2.3.10
+   */
+  public static final class GoRetract extends GoModItem {
+
+    private final String version;
+
+    public GoRetract(@Nonnull final String version) {
+      this.version = Assertions.assertNotNull(version);
+    }
+
+    @Nonnull
+    public String getVersion() {
+      return this.version;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object that) {
+      if (that == null) {
+        return false;
+      }
+      if (that == this) {
+        return true;
+      }
+
+      if (that instanceof GoRetract) {
+        return this.version.equals(((GoRetract) that).version);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.version.hashCode();
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+      return "retract " + this.version;
+    }
+
+    @Override
+    public int getPriority() {
+      return 6;
+    }
+  }
+
+  /**
+   * Godebug directive.
+   *
+   * @since 2.3.10
+   */
+  public static final class GoDebug extends GoModItem {
+
+    private final String key;
+    private final String value;
+
+    public GoDebug(@Nonnull final String key, @Nonnull final String value) {
+      this.key = Assertions.assertNotNull(key);
+      this.value = Assertions.assertNotNull(value);
+    }
+
+    @Nonnull
+    public String getKey() {
+      return this.key;
+    }
+
+    @Nonnull
+    public String getValue() {
+      return this.value;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object that) {
+      if (that == null) {
+        return false;
+      }
+      if (that == this) {
+        return true;
+      }
+
+      if (that instanceof GoDebug) {
+        return this.key.equals(((GoDebug) that).key) && this.value.equals(((GoDebug) that).value);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.key.hashCode() ^ this.value.hashCode();
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+      return "godebug " + this.key + '=' + this.value;
+    }
+
+    @Override
+    public int getPriority() {
+      return 7;
+    }
+  }
+
   public static final class GoCustom extends GoModItem {
 
     private final String name;
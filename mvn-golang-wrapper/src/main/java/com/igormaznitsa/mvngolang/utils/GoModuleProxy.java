@@ -0,0 +1,276 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.annotation.Nonnull;
+
+/**
+ * Folder with Go module proxy content (the GOPROXY protocol layout) which can
+ * be provided to the go tool through 'file://' URL. For every module there
+ * are '@v/list', '.info', '.mod' and '.zip' files and go.sum records with
+ * 'h1:' hashes are calculated for added module versions.
+ *
+ * @since 2.3.10
+ */
+public final class GoModuleProxy {
+
+  private static final String GO_MOD = "go.mod";
+  private static final Set<String> IGNORED_FOLDERS =
+      Collections.unmodifiableSet(new HashSet<>(Arrays.asList(".git", ".hg", ".svn", ".bzr", "vendor")));
+  private static final long ZIP_ENTRY_TIME = 315532800000L;
+
+  private final File folder;
+  private final Map<String, Set<String>> versions = new TreeMap<>();
+  private final Set<String> sumRecords = new TreeSet<>();
+
+  public GoModuleProxy(@Nonnull final File folder) {
+    this.folder = folder;
+  }
+
+  @Nonnull
+  public File getFolder() {
+    return this.folder;
+  }
+
+  /**
+   * Escape module path or version for use in proxy file paths, upper case
+   * letters are replaced by '!' and lower case letter.
+   *
+   * @param path module path or version, must not be null
+   * @return escaped text
+   */
+  @Nonnull
+  public static String escape(@Nonnull final String path) {
+    final StringBuilder result = new StringBuilder(path.length() + 8);
+    for (int i = 0; i < path.length(); i++) {
+      final char c = path.charAt(i);
+      if (c >= 'A' && c <= 'Z') {
+        result.append('!').append(Character.toLowerCase(c));
+      } else {
+        result.append(c);
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Calculate 'h1:' hash for set of files in the same way as the go tool does
+   * for module content.
+   *
+   * @param files map of file names and their SHA-256 digests
+   * @return calculated hash
+   */
+  @Nonnull
+  public static String hash1(@Nonnull final Map<String, byte[]> files) {
+    final MessageDigest summary = newSha256();
+    for (final String name : new TreeSet<>(files.keySet())) {
+      if (name.indexOf('\n') >= 0) {
+        throw new IllegalArgumentException("Unsupported file name: " + name);
+      }
+      final String line = toHex(files.get(name)) + "  " + name + '\n';
+      summary.update(line.getBytes(StandardCharsets.UTF_8));
+    }
+    return "h1:" + Base64.getEncoder().encodeToString(summary.digest());
+  }
+
+  @Nonnull
+  private static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not supported", ex);
+    }
+  }
+
+  @Nonnull
+  private static String toHex(@Nonnull final byte[] data) {
+    final StringBuilder result = new StringBuilder(data.length * 2);
+    for (final byte b : data) {
+      result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return result.toString();
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private static List<Path> listModuleFiles(@Nonnull final Path root) throws IOException {
+    final List<Path> result = new ArrayList<>();
+    Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+      @Override
+      @Nonnull
+      public FileVisitResult preVisitDirectory(@Nonnull final Path dir,
+                                               @Nonnull final BasicFileAttributes attrs) {
+        if (dir.equals(root)) {
+          return FileVisitResult.CONTINUE;
+        }
+        if (IGNORED_FOLDERS.contains(dir.getFileName().toString())
+            || Files.isRegularFile(dir.resolve(GO_MOD))) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      @Nonnull
+      public FileVisitResult visitFile(@Nonnull final Path file,
+                                       @Nonnull final BasicFileAttributes attrs) {
+        final String name = file.getFileName().toString();
+        if (attrs.isRegularFile() && !name.startsWith(".#go.mod.mvn.")
+            && !name.equals(IncrementalUnpacker.STAMP_FILE)) {
+          result.add(file);
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * Add module version into proxy, content of module folder is packed
+   * excluding nested modules and VCS folders.
+   *
+   * @param module       module path, must not be null
+   * @param version      module version, must not be null
+   * @param moduleFolder folder contains go.mod of module
+   * @param time         time of the version in milliseconds
+   * @throws IOException if any error during write
+   */
+  public void addModule(@Nonnull final String module, @Nonnull final String version,
+                        @Nonnull final File moduleFolder, final long time) throws IOException {
+    final Path root = moduleFolder.toPath();
+    final File versionFolder = new File(this.folder, escape(module) + File.separatorChar + "@v");
+    if (!versionFolder.isDirectory() && !versionFolder.mkdirs()) {
+      throw new IOException("Can't create folder: " + versionFolder);
+    }
+    final String fileBase = escape(version);
+
+    final byte[] goMod = Files.readAllBytes(root.resolve(GO_MOD));
+    Files.write(new File(versionFolder, fileBase + ".mod").toPath(), goMod);
+    this.sumRecords.add(module + ' ' + version + "/go.mod "
+        + hash1(Collections.singletonMap(GO_MOD, newSha256().digest(goMod))));
+
+    final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    format.setTimeZone(TimeZone.getTimeZone("UTC"));
+    final String info = "{\"Version\":\"" + version + "\",\"Time\":\"" + format.format(new Date(time)) + "\"}";
+    Files.write(new File(versionFolder, fileBase + ".info").toPath(),
+        info.getBytes(StandardCharsets.UTF_8));
+
+    final String prefix = module + '@' + version + '/';
+    final Map<String, byte[]> digests = new TreeMap<>();
+    final byte[] buffer = new byte[16384];
+    try (final ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(
+        Files.newOutputStream(new File(versionFolder, fileBase + ".zip").toPath())))) {
+      for (final Path file : listModuleFiles(root)) {
+        final String name = prefix + root.relativize(file).toString().replace(File.separatorChar, '/');
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setTime(ZIP_ENTRY_TIME);
+        zip.putNextEntry(entry);
+        final MessageDigest digest = newSha256();
+        try (final InputStream in = Files.newInputStream(file)) {
+          int read;
+          while ((read = in.read(buffer)) >= 0) {
+            digest.update(buffer, 0, read);
+            zip.write(buffer, 0, read);
+          }
+        }
+        zip.closeEntry();
+        digests.put(name, digest.digest());
+      }
+    }
+    this.sumRecords.add(module + ' ' + version + ' ' + hash1(digests));
+    this.versions.computeIfAbsent(module, k -> new TreeSet<>()).add(version);
+  }
+
+  /**
+   * Write version lists for all added modules.
+   *
+   * @throws IOException if any error during write
+   */
+  public void writeLists() throws IOException {
+    for (final Map.Entry<String, Set<String>> e : this.versions.entrySet()) {
+      final File list = new File(this.folder, escape(e.getKey()) + File.separatorChar + "@v"
+          + File.separatorChar + "list");
+      try (final OutputStream out = Files.newOutputStream(list.toPath())) {
+        for (final String v : e.getValue()) {
+          out.write((v + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+      }
+    }
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  public Set<String> getModules() {
+    return Collections.unmodifiableSet(this.versions.keySet());
+  }
+
+  /**
+   * Get go.sum records for all added module versions.
+   *
+   * @return sorted set of records
+   */
+  @Nonnull
+  @MustNotContainNull
+  public Set<String> getSumRecords() {
+    return Collections.unmodifiableSet(this.sumRecords);
+  }
+
+  /**
+   * Make value for GOPROXY environment variable.
+   *
+   * @param upstream upstream proxy list, can be empty
+   * @return value where the folder is the first proxy
+   */
+  @Nonnull
+  public String makeGoProxyValue(@Nonnull final String upstream) {
+    String url = this.folder.getAbsoluteFile().toPath().toUri().toString();
+    if (url.endsWith("/")) {
+      url = url.substring(0, url.length() - 1);
+    }
+    return upstream.trim().isEmpty() ? url : url + ',' + upstream.trim();
+  }
+}
@@ -0,0 +1,435 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Unpacker of ZIP archives which keeps stamp with the archive hash and CRC and
+ * size of every unpacked entry in the target folder. If the folder is unpacked
+ * again then only changed entries are written and removed ones are deleted.
+ * Unpacked files are checked against the stamp, so that deleted or changed
+ * files are restored: size is checked for all files but CRC only for top-level
+ * ones (placed in the folder or in its direct sub-folder) to keep the check
+ * cheap.
+ *
+ * @since 2.3.10
+ */
+public final class IncrementalUnpacker {
+
+  public static final String STAMP_FILE = ".mvn-golang-unpack.stamp";
+
+  private static final String HASH_PREFIX = "hash ";
+
+  private IncrementalUnpacker() {
+  }
+
+  /**
+   * Unpack archive into folder, only changed entries will be written.
+   *
+   * @param archive  archive file, must not be null
+   * @param folder   target folder, must not be null
+   * @param provider provider of entry name mapper for opened archive, must not
+   *                 be null
+   * @return statistics of the unpack operation
+   * @throws IOException if any error during operation
+   */
+  @Nonnull
+  public static Statistics unpack(@Nonnull final File archive, @Nonnull final File folder,
+                                  @Nonnull final MapperProvider provider) throws IOException {
+    return unpack(archive, folder, provider, null);
+  }
+
+  /**
+   * Unpack archive into folder, only changed entries will be written. The
+   * archive is opened once and its entries are enumerated in single pass,
+   * changed entries can be written in parallel.
+   *
+   * @param archive  archive file, must not be null
+   * @param folder   target folder, must not be null
+   * @param provider provider of entry name mapper for opened archive, must not
+   *                 be null
+   * @param writers  executor to write entries, if null then entries are
+   *                 written in the current thread
+   * @return statistics of the unpack operation
+   * @throws IOException if any error during operation
+   */
+  @Nonnull
+  public static Statistics unpack(@Nonnull final File archive, @Nonnull final File folder,
+                                  @Nonnull final MapperProvider provider,
+                                  @Nullable final ExecutorService writers) throws IOException {
+    final String hash = DependencyStore.sha256(archive);
+    final File stampFile = new File(folder, STAMP_FILE);
+    Stamp oldStamp = null;
+    if (stampFile.isFile()) {
+      try {
+        oldStamp = readStamp(stampFile);
+      } catch (IOException ex) {
+        // broken stamp, all entries will be rewritten
+        oldStamp = null;
+      }
+    }
+
+    if (oldStamp != null && hash.equals(oldStamp.hash) && isIntact(folder, oldStamp)) {
+      return new Statistics(0, oldStamp.entries.size(), 0, true, oldStamp.entries.keySet());
+    }
+
+    if (!folder.isDirectory() && !folder.mkdirs()) {
+      throw new IOException("Can't create folder: " + folder);
+    }
+    final String folderPath = folder.getCanonicalPath() + File.separatorChar;
+
+    final Stamp newStamp = new Stamp(hash);
+    int skipped = 0;
+    final List<Tuple<ZipEntry, File>> toWrite = new ArrayList<>();
+    try (final ZipFile zipFile = new ZipFile(archive)) {
+      final NameMapper mapper = provider.make(zipFile);
+      final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        final ZipEntry entry = entries.nextElement();
+        for (final String path : mapper.map(entry.getName())) {
+          if (path.isEmpty()) {
+            continue;
+          }
+          final File target = new File(folder, path);
+          if (!target.getCanonicalPath().startsWith(folderPath)) {
+            throw new IOException("Detected entry outside of target folder: " + entry.getName());
+          }
+          if (entry.isDirectory()) {
+            if (!target.isDirectory() && !target.mkdirs()) {
+              throw new IOException("Can't create folder: " + target);
+            }
+            continue;
+          }
+          final EntryInfo info = new EntryInfo(entry.getCrc(), entry.getSize());
+          newStamp.entries.put(path, info);
+
+          final EntryInfo oldInfo = oldStamp == null ? null : oldStamp.entries.get(path);
+          if (info.equals(oldInfo) && isIntact(target, path, info)) {
+            skipped++;
+          } else {
+            toWrite.add(Tuple.of(entry, target));
+          }
+        }
+      }
+      writeEntries(zipFile, toWrite, writers);
+    }
+
+    int deleted = 0;
+    if (oldStamp != null) {
+      for (final String path : oldStamp.entries.keySet()) {
+        if (!newStamp.entries.containsKey(path)) {
+          final File file = new File(folder, path);
+          if (file.isFile()) {
+            Files.delete(file.toPath());
+            deleteEmptyParents(file.getParentFile(), folder);
+            deleted++;
+          }
+        }
+      }
+    }
+
+    writeStamp(stampFile, newStamp);
+    return new Statistics(toWrite.size(), skipped, deleted, false, newStamp.entries.keySet());
+  }
+
+  private static boolean isIntact(@Nonnull final File folder, @Nonnull final Stamp stamp)
+      throws IOException {
+    for (final Map.Entry<String, EntryInfo> e : stamp.entries.entrySet()) {
+      if (!isIntact(new File(folder, e.getKey()), e.getKey(), e.getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isIntact(@Nonnull final File file, @Nonnull final String path,
+                                  @Nonnull final EntryInfo info) throws IOException {
+    if (!file.isFile() || file.length() != info.size) {
+      return false;
+    }
+    final int slash = path.indexOf('/');
+    return (slash >= 0 && path.indexOf('/', slash + 1) >= 0) || crcOf(file) == info.crc;
+  }
+
+  private static long crcOf(@Nonnull final File file) throws IOException {
+    final CRC32 crc = new CRC32();
+    try (final InputStream in = Files.newInputStream(file.toPath())) {
+      final byte[] buffer = new byte[16384];
+      int read;
+      while ((read = in.read(buffer)) >= 0) {
+        crc.update(buffer, 0, read);
+      }
+    }
+    return crc.getValue();
+  }
+
+  private static void writeEntries(@Nonnull final ZipFile zipFile,
+                                   @Nonnull @MustNotContainNull
+                                   final List<Tuple<ZipEntry, File>> entries,
+                                   @Nullable final ExecutorService writers) throws IOException {
+    if (writers == null || entries.size() < 2) {
+      for (final Tuple<ZipEntry, File> e : entries) {
+        writeEntry(zipFile, e.left(), e.right());
+      }
+      return;
+    }
+
+    final List<Future<?>> futures = new ArrayList<>(entries.size());
+    try {
+      for (final Tuple<ZipEntry, File> e : entries) {
+        futures.add(writers.submit(() -> {
+          writeEntry(zipFile, e.left(), e.right());
+          return null;
+        }));
+      }
+      for (final Future<?> f : futures) {
+        f.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted unpack of " + zipFile.getName());
+    } catch (ExecutionException ex) {
+      final Throwable cause = ex.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException("Can't unpack entry of " + zipFile.getName(), cause);
+    } finally {
+      for (final Future<?> f : futures) {
+        f.cancel(true);
+      }
+    }
+  }
+
+  private static void writeEntry(@Nonnull final ZipFile zipFile, @Nonnull final ZipEntry entry,
+                                 @Nonnull final File target) throws IOException {
+    final File parent = target.getParentFile();
+    if (parent != null) {
+      Files.createDirectories(parent.toPath());
+    }
+    try (final InputStream in = zipFile.getInputStream(entry);
+         final OutputStream out = Files.newOutputStream(target.toPath())) {
+      org.apache.commons.io.IOUtils.copy(in, out);
+    }
+    if (entry.getTime() >= 0L && !target.setLastModified(entry.getTime())) {
+      throw new IOException("Can't set last modified time: " + target);
+    }
+  }
+
+  private static void deleteEmptyParents(@Nullable final File start, @Nonnull final File root) {
+    File current = start;
+    while (current != null && !current.equals(root)) {
+      final String[] content = current.list();
+      if (content == null || content.length > 0 || !current.delete()) {
+        break;
+      }
+      current = current.getParentFile();
+    }
+  }
+
+  @Nonnull
+  private static Stamp readStamp(@Nonnull final File file) throws IOException {
+    try (final BufferedReader reader = Files.newBufferedReader(file.toPath(),
+        StandardCharsets.UTF_8)) {
+      final String first = reader.readLine();
+      if (first == null || !first.startsWith(HASH_PREFIX)) {
+        throw new IOException("Wrong unpack stamp format: " + file);
+      }
+      final Stamp result = new Stamp(first.substring(HASH_PREFIX.length()).trim());
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty()) {
+          continue;
+        }
+        final int tab1 = line.indexOf('\t');
+        final int tab2 = tab1 < 0 ? -1 : line.indexOf('\t', tab1 + 1);
+        if (tab2 < 0) {
+          throw new IOException("Wrong unpack stamp line: " + line);
+        }
+        try {
+          result.entries.put(line.substring(tab2 + 1),
+              new EntryInfo(Long.parseLong(line.substring(0, tab1), 16),
+                  Long.parseLong(line.substring(tab1 + 1, tab2))));
+        } catch (NumberFormatException ex) {
+          throw new IOException("Wrong unpack stamp line: " + line, ex);
+        }
+      }
+      return result;
+    }
+  }
+
+  private static void writeStamp(@Nonnull final File file, @Nonnull final Stamp stamp)
+      throws IOException {
+    try (final Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      writer.write(HASH_PREFIX);
+      writer.write(stamp.hash);
+      writer.write('\n');
+      for (final Map.Entry<String, EntryInfo> e : stamp.entries.entrySet()) {
+        writer.write(Long.toHexString(e.getValue().crc));
+        writer.write('\t');
+        writer.write(Long.toString(e.getValue().size));
+        writer.write('\t');
+        writer.write(e.getKey());
+        writer.write('\n');
+      }
+    }
+  }
+
+  /**
+   * Mapper of archive entry names to paths inside target folder.
+   */
+  @FunctionalInterface
+  public interface NameMapper {
+    /**
+     * Map entry name.
+     *
+     * @param entryName name of entry in archive
+     * @return collection of relative paths in target folder, empty if entry
+     * should not be unpacked
+     */
+    @Nonnull
+    @MustNotContainNull
+    Collection<String> map(@Nonnull String entryName);
+  }
+
+  /**
+   * Provider of name mapper for opened archive, allows to read descriptors
+   * from the archive without its reopening.
+   */
+  @FunctionalInterface
+  public interface MapperProvider {
+    @Nonnull
+    NameMapper make(@Nonnull ZipFile zipFile) throws IOException;
+  }
+
+  public static final class Statistics {
+
+    private final int written;
+    private final int skipped;
+    private final int deleted;
+    private final boolean upToDate;
+    private final List<String> paths;
+
+    private Statistics(final int written, final int skipped, final int deleted,
+                       final boolean upToDate,
+                       @Nonnull @MustNotContainNull final Collection<String> paths) {
+      this.written = written;
+      this.skipped = skipped;
+      this.deleted = deleted;
+      this.upToDate = upToDate;
+      this.paths = Collections.unmodifiableList(new ArrayList<>(paths));
+    }
+
+    /**
+     * Get relative paths of all files unpacked into the folder.
+     *
+     * @return list of paths, must not be changed
+     */
+    @Nonnull
+    @MustNotContainNull
+    public List<String> getPaths() {
+      return this.paths;
+    }
+
+    public int getWritten() {
+      return this.written;
+    }
+
+    public int getSkipped() {
+      return this.skipped;
+    }
+
+    public int getDeleted() {
+      return this.deleted;
+    }
+
+    public boolean isUpToDate() {
+      return this.upToDate;
+    }
+
+    @Override
+    @Nonnull
+    public String toString() {
+      return this.upToDate ? "up-to-date"
+          : String.format("written %d, skipped %d, deleted %d", this.written, this.skipped,
+          this.deleted);
+    }
+  }
+
+  private static final class EntryInfo {
+
+    private final long crc;
+    private final long size;
+
+    private EntryInfo(final long crc, final long size) {
+      this.crc = crc;
+      this.size = size;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object that) {
+      if (this == that) {
+        return true;
+      }
+      if (that instanceof EntryInfo) {
+        final EntryInfo other = (EntryInfo) that;
+        return this.crc == other.crc && this.size == other.size;
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (this.crc ^ (this.size * 31L));
+    }
+  }
+
+  private static final class Stamp {
+
+    private final String hash;
+    private final Map<String, EntryInfo> entries = new LinkedHashMap<>();
+
+    private Stamp(@Nonnull final String hash) {
+      this.hash = hash;
+    }
+  }
+}
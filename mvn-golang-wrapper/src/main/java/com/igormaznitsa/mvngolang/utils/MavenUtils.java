@@ -35,15 +35,27 @@ import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.shared.transfer.artifact.resolve.ArtifactResolver;
 import org.apache.maven.shared.transfer.artifact.resolve.ArtifactResolverException;
 import org.apache.maven.shared.transfer.artifact.resolve.ArtifactResult;
-import org.zeroturnaround.zip.ZipUtil;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static com.igormaznitsa.meta.common.utils.Assertions.assertNotNull;
 
 /**
  * Auxiliary methods to work with maven entities.
@@ -55,6 +67,14 @@ public final class MavenUtils {
   private static final Pattern ARTIFACT_RECORD_PATTERN =
       Pattern.compile("^([^:]+)::([^:]+)::([^:]*)::([^:]*)::([^:]*)::([^:]*)$");
 
+  private static final AtomicInteger RESOLVER_THREAD_COUNTER = new AtomicInteger();
+  private static final ThreadFactory RESOLVER_THREAD_FACTORY = runnable -> {
+    final Thread thread =
+        new Thread(runnable, "mvn-golang-resolver-" + RESOLVER_THREAD_COUNTER.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  };
+
   private MavenUtils() {
 
   }
@@ -168,94 +188,335 @@ public final class MavenUtils {
           @Nonnull final ArtifactResolver resolver,
           @Nonnull @MustNotContainNull final List<ArtifactRepository> remoteRepositories
   ) throws ArtifactResolverException {
-    final List<Tuple<Artifact, File>> result = new ArrayList<>();
-//    final String phase = execution.getLifecyclePhase();
-
-    final Set<String> alreadyFoundArtifactRecords = new HashSet<>();
+    return scanForMvnGoArtifacts(mavenProject, ignoreNonResolvedArtifact,
+        includeTestDependencies, mojo, session, execution, resolver, remoteRepositories,
+        Runtime.getRuntime().availableProcessors(), null);
+  }
 
-    MavenProject currentProject = mavenProject;
-    while (currentProject != null && !Thread.currentThread().isInterrupted()) {
-      final Set<Artifact> projectDependencies = currentProject.getDependencyArtifacts();
-      final List<Artifact> artifacts = new ArrayList<>(
-          projectDependencies == null ? Collections.emptySet() : projectDependencies);
-      mojo.getLog().debug("Detected dependency artifacts: " + artifacts);
+  /**
+   * Scan project dependencies to find artifacts generated by mvn golang
+   * project. Dependency graph is processed level by level, all artifacts of a
+   * level are resolved and their dependency descriptors are read concurrently
+   * but the result order is the same as for sequential processing.
+   *
+   * @param mavenProject              maven project, must not be null
+   * @param ignoreNonResolvedArtifact if true then missing artifact will be ignored, otherwise exception will be thrown
+   * @param includeTestDependencies   flag to process dependencies marked for test
+   *                                  phases
+   * @param mojo                      calling mojo, must not be null
+   * @param session                   maven session, must not be null
+   * @param execution                 maven execution, must not be null
+   * @param resolver                  artifact resolver, must not be null
+   * @param remoteRepositories        list of remote repositories, must not be null
+   * @param threads                   max number of threads to resolve artifacts, 1 means sequential processing
+   * @param cache                     session cache of resolved artifacts and their descriptors, can be null
+   * @return list of files found in artifacts generated by mvn golang plugin
+   * @throws ArtifactResolverException exception thrown if some artifact can't
+   *                                   be resolved
+   * @since 2.3.10
+   */
+  @Nonnull
+  @MustNotContainNull
+  public static List<Tuple<Artifact, File>> scanForMvnGoArtifacts(
+          @Nonnull final MavenProject mavenProject,
+          final boolean ignoreNonResolvedArtifact,
+          final boolean includeTestDependencies,
+          @Nonnull final AbstractMojo mojo,
+          @Nonnull final MavenSession session,
+          @Nonnull final MojoExecution execution,
+          @Nonnull final ArtifactResolver resolver,
+          @Nonnull @MustNotContainNull final List<ArtifactRepository> remoteRepositories,
+          final int threads,
+          @Nullable final ArtifactGraphCache cache
+  ) throws ArtifactResolverException {
+    return scanForMvnGoArtifacts(mavenProject, ignoreNonResolvedArtifact,
+        includeTestDependencies, mojo, session, execution, resolver, remoteRepositories,
+        threads, cache, Collections.emptyMap());
+  }
 
-      while (!artifacts.isEmpty() && !Thread.currentThread().isInterrupted()) {
-        final Artifact artifact = artifacts.remove(0);
+  /**
+   * Scan project dependencies to find artifacts generated by mvn golang
+   * project. Artifacts of reactor projects provided in the map are not
+   * resolved, the source folder of such project is returned instead of
+   * artifact file and its dependencies are taken from the project model.
+   *
+   * @param mavenProject              maven project, must not be null
+   * @param ignoreNonResolvedArtifact if true then missing artifact will be ignored, otherwise exception will be thrown
+   * @param includeTestDependencies   flag to process dependencies marked for test
+   *                                  phases
+   * @param mojo                      calling mojo, must not be null
+   * @param session                   maven session, must not be null
+   * @param execution                 maven execution, must not be null
+   * @param resolver                  artifact resolver, must not be null
+   * @param remoteRepositories        list of remote repositories, must not be null
+   * @param threads                   max number of threads to resolve artifacts, 1 means sequential processing
+   * @param cache                     session cache of resolved artifacts and their descriptors, can be null
+   * @param reactorProjects           reactor projects to be linked by their sources, keys are made by {@link #makeProjectKey(Artifact)}
+   * @return list of files found in artifacts generated by mvn golang plugin
+   * @throws ArtifactResolverException exception thrown if some artifact can't
+   *                                   be resolved
+   * @since 2.3.10
+   */
+  @Nonnull
+  @MustNotContainNull
+  public static List<Tuple<Artifact, File>> scanForMvnGoArtifacts(
+          @Nonnull final MavenProject mavenProject,
+          final boolean ignoreNonResolvedArtifact,
+          final boolean includeTestDependencies,
+          @Nonnull final AbstractMojo mojo,
+          @Nonnull final MavenSession session,
+          @Nonnull final MojoExecution execution,
+          @Nonnull final ArtifactResolver resolver,
+          @Nonnull @MustNotContainNull final List<ArtifactRepository> remoteRepositories,
+          final int threads,
+          @Nullable final ArtifactGraphCache cache,
+          @Nonnull final Map<String, MavenProject> reactorProjects
+  ) throws ArtifactResolverException {
+    final List<Tuple<Artifact, File>> result = new ArrayList<>();
+    final Set<File> alreadyAddedFiles = new HashSet<>();
+    final Set<String> alreadyFoundArtifactRecords = ConcurrentHashMap.newKeySet();
+    final ProjectBuildingRequest buildingRequest =
+        makeResolveArtifactProjectBuildingRequest(session, remoteRepositories);
 
-        if (Artifact.SCOPE_TEST.equals(artifact.getScope()) && !includeTestDependencies) {
-          continue;
-        }
+    final ExecutorService executor =
+        threads > 1 ? Executors.newFixedThreadPool(threads, RESOLVER_THREAD_FACTORY) : null;
+    try {
+      MavenProject currentProject = mavenProject;
+      while (currentProject != null && !Thread.currentThread().isInterrupted()) {
+        final Set<Artifact> projectDependencies = currentProject.getDependencyArtifacts();
+        List<Artifact> level = new ArrayList<>(
+            projectDependencies == null ? Collections.emptySet() : projectDependencies);
+        mojo.getLog().debug("Detected dependency artifacts: " + level);
 
-        if (artifact.getType().equals(AbstractGolangMojo.GOARTIFACT_PACKAGING)) {
-          final ArtifactResult artifactResult;
-          try {
-            artifactResult = resolver.resolveArtifact(
-                    makeResolveArtifactProjectBuildingRequest(session, remoteRepositories), artifact);
-          } catch (ArtifactResolverException ex) {
-            if (ignoreNonResolvedArtifact) {
-              mojo.getLog().debug("Can't resolve artifact: " + artifact, ex);
+        while (!level.isEmpty() && !Thread.currentThread().isInterrupted()) {
+          final List<Artifact> toResolve = new ArrayList<>();
+          for (final Artifact artifact : level) {
+            if (Artifact.SCOPE_TEST.equals(artifact.getScope()) && !includeTestDependencies) {
               continue;
-            } else {
-              throw ex;
+            }
+            if (artifact.getType().equals(AbstractGolangMojo.GOARTIFACT_PACKAGING)) {
+              toResolve.add(artifact);
             }
           }
-          final File zipFilePath = artifactResult.getArtifact().getFile();
-
-          mojo.getLog().debug(
-                  "Detected MVN-GOLANG marker inside ZIP dependency: " + artifact.getGroupId() + ':' +
-                          artifact.getArtifactId() + ':' + artifact.getVersion() + ':' +
-                          artifact.getType());
-
-          if (ZipUtil
-                  .containsEntry(zipFilePath, GolangMvnInstallMojo.MVNGOLANG_DEPENDENCIES_FILE)) {
-            final byte[] artifactFlagFile = ZipUtil
-                .unpackEntry(zipFilePath, GolangMvnInstallMojo.MVNGOLANG_DEPENDENCIES_FILE,
-                    StandardCharsets.UTF_8);
-
-            for (final String str : new String(artifactFlagFile, StandardCharsets.UTF_8)
-                .split("\\R")) {
-              if (str.trim().isEmpty() || alreadyFoundArtifactRecords.contains(str)) {
+
+          final List<ResolvedArtifact> resolved = resolveLevel(executor, toResolve, resolver,
+              buildingRequest, mojo, cache, reactorProjects);
+
+          final List<Artifact> nextLevel = new ArrayList<>();
+          for (final ResolvedArtifact r : resolved) {
+            if (r.error != null) {
+              if (ignoreNonResolvedArtifact) {
+                mojo.getLog().debug("Can't resolve artifact: " + r.artifact, r.error);
+                continue;
+              } else {
+                throw r.error;
+              }
+            }
+
+            for (final String str : r.records) {
+              if (str.trim().isEmpty() || !alreadyFoundArtifactRecords.add(str)) {
                 continue;
               }
               mojo.getLog().debug("Adding mvn-golang dependency: " + str);
-              alreadyFoundArtifactRecords.add(str);
               try {
-                artifacts.add(parseArtifactRecord(str, new MvnGolangArtifactHandler()));
+                nextLevel.add(parseArtifactRecord(str, new MvnGolangArtifactHandler()));
               } catch (InvalidVersionSpecificationException ex) {
                 throw new ArtifactResolverException("Can't make artifact: " + str, ex);
               }
             }
-          }
 
-          final File artifactFile = artifactResult.getArtifact().getFile();
-          mojo.getLog().debug("Artifact file: " + artifactFile);
-          if (doesContainFile(result, artifactFile)) {
-            mojo.getLog().debug("Artifact file ignored as duplication: " + artifactFile);
-          } else {
-            result.add(Tuple.of(artifact, artifactFile));
+            mojo.getLog().debug("Artifact file: " + r.file);
+            if (alreadyAddedFiles.add(assertNotNull(r.file))) {
+              result.add(Tuple.of(r.artifact, r.file));
+            } else {
+              mojo.getLog().debug("Artifact file ignored as duplication: " + r.file);
+            }
           }
+          level = nextLevel;
         }
+        currentProject = currentProject.hasParent() ? currentProject.getParent() : null;
+      }
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
       }
-      currentProject = currentProject.hasParent() ? currentProject.getParent() : null;
     }
 
     return result;
   }
 
-  private static boolean doesContainFile(
-      @Nonnull @MustNotContainNull final List<Tuple<Artifact, File>> list,
-      @Nonnull final File file) {
-    boolean result = false;
-    for (final Tuple<Artifact, File> t : list) {
-      if (t.right().equals(file)) {
-        result = true;
-        break;
+  @Nonnull
+  @MustNotContainNull
+  private static List<ResolvedArtifact> resolveLevel(
+          @Nullable final ExecutorService executor,
+          @Nonnull @MustNotContainNull final List<Artifact> artifacts,
+          @Nonnull final ArtifactResolver resolver,
+          @Nonnull final ProjectBuildingRequest buildingRequest,
+          @Nonnull final AbstractMojo mojo,
+          @Nullable final ArtifactGraphCache cache,
+          @Nonnull final Map<String, MavenProject> reactorProjects
+  ) throws ArtifactResolverException {
+    final List<ResolvedArtifact> result = new ArrayList<>(artifacts.size());
+    if (executor == null || artifacts.size() < 2) {
+      for (final Artifact a : artifacts) {
+        result.add(resolveArtifact(a, resolver, buildingRequest, mojo, cache, reactorProjects));
+      }
+    } else {
+      final List<Future<ResolvedArtifact>> futures = new ArrayList<>(artifacts.size());
+      for (final Artifact a : artifacts) {
+        futures.add(executor.submit(
+            () -> resolveArtifact(a, resolver, buildingRequest, mojo, cache, reactorProjects)));
+      }
+      try {
+        for (final Future<ResolvedArtifact> f : futures) {
+          result.add(f.get());
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new ArtifactResolverException("Interrupted artifact resolving", ex);
+      } catch (ExecutionException ex) {
+        final Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new ArtifactResolverException("Error during artifact resolving", (Exception) cause);
+      } finally {
+        for (final Future<ResolvedArtifact> f : futures) {
+          f.cancel(true);
+        }
       }
     }
     return result;
   }
 
+  @Nonnull
+  private static ResolvedArtifact resolveArtifact(
+          @Nonnull final Artifact artifact,
+          @Nonnull final ArtifactResolver resolver,
+          @Nonnull final ProjectBuildingRequest buildingRequest,
+          @Nonnull final AbstractMojo mojo,
+          @Nullable final ArtifactGraphCache cache,
+          @Nonnull final Map<String, MavenProject> reactorProjects
+  ) {
+    final MavenProject reactorProject = reactorProjects.get(makeProjectKey(artifact));
+    if (reactorProject != null) {
+      final File sourceFolder = new File(reactorProject.getBuild().getSourceDirectory());
+      mojo.getLog().debug("Artifact is linked to sources of reactor project: " + artifact + " -> " + sourceFolder);
+      return new ResolvedArtifact(artifact, sourceFolder, makeDependencyRecords(reactorProject), null);
+    }
+
+    File zipFilePath = cache == null ? null : cache.findResolved(artifact);
+    if (zipFilePath == null) {
+      final ArtifactResult artifactResult;
+      try {
+        artifactResult = resolver.resolveArtifact(buildingRequest, artifact);
+      } catch (ArtifactResolverException ex) {
+        return new ResolvedArtifact(artifact, null, Collections.emptyList(), ex);
+      }
+      zipFilePath = artifactResult.getArtifact().getFile();
+      if (cache != null && zipFilePath != null) {
+        cache.putResolved(artifact, zipFilePath);
+      }
+    } else {
+      mojo.getLog().debug("Resolved artifact found in session cache: " + artifact);
+    }
+
+    mojo.getLog().debug(
+            "Detected MVN-GOLANG marker inside ZIP dependency: " + artifact.getGroupId() + ':' +
+                    artifact.getArtifactId() + ':' + artifact.getVersion() + ':' +
+                    artifact.getType());
+
+    final List<String> records;
+    try {
+      records = cache == null ? readDependencyRecords(zipFilePath)
+          : cache.getRecords(zipFilePath, MavenUtils::readDependencyRecords);
+    } catch (IOException ex) {
+      return new ResolvedArtifact(artifact, null, Collections.emptyList(),
+          new ArtifactResolverException("Can't read dependency descriptor from " + zipFilePath, ex));
+    }
+    return new ResolvedArtifact(artifact, zipFilePath, records, null);
+  }
+
+  /**
+   * Make key to find project for artifact.
+   *
+   * @param artifact artifact, must not be null
+   * @return key contains group id, artifact id and version
+   * @since 2.3.10
+   */
+  @Nonnull
+  public static String makeProjectKey(@Nonnull final Artifact artifact) {
+    return artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getVersion();
+  }
+
+  /**
+   * Make records of mvn-golang dependencies for project, records are collected
+   * from the project and its parents.
+   *
+   * @param project project, must not be null
+   * @return list of dependency records
+   * @since 2.3.10
+   */
+  @Nonnull
+  @MustNotContainNull
+  public static List<String> makeDependencyRecords(@Nonnull final MavenProject project) {
+    final List<String> result = new ArrayList<>();
+    MavenProject currentProject = project;
+    while (currentProject != null && !Thread.currentThread().isInterrupted()) {
+      final Set<Artifact> dependencies = currentProject.getDependencyArtifacts();
+      if (dependencies != null) {
+        for (final Artifact a : dependencies) {
+          if (AbstractGolangMojo.GOARTIFACT_PACKAGING.equals(a.getType())) {
+            result.add(makeArtifactRecord(a));
+          }
+        }
+      }
+      currentProject = currentProject.getParent();
+    }
+    return result;
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private static List<String> readDependencyRecords(@Nonnull final File zipFile)
+      throws IOException {
+    try (final ZipFile zip = new ZipFile(zipFile)) {
+      final ArtifactIndex index = ArtifactIndex.read(zip);
+      if (index != null) {
+        return index.getDependencyRecords();
+      }
+      final ZipEntry entry = zip.getEntry(GolangMvnInstallMojo.MVNGOLANG_DEPENDENCIES_FILE);
+      if (entry == null) {
+        return Collections.emptyList();
+      }
+      try (final InputStream in = zip.getInputStream(entry)) {
+        return Arrays.asList(
+            new String(org.apache.commons.io.IOUtils.toByteArray(in), StandardCharsets.UTF_8)
+                .split("\\R"));
+      }
+    }
+  }
+
+  private static final class ResolvedArtifact {
+
+    private final Artifact artifact;
+    private final File file;
+    private final List<String> records;
+    private final ArtifactResolverException error;
+
+    private ResolvedArtifact(@Nonnull final Artifact artifact, @Nullable final File file,
+                             @Nonnull @MustNotContainNull final List<String> records,
+                             @Nullable final ArtifactResolverException error) {
+      this.artifact = artifact;
+      this.file = file;
+      this.records = records;
+      this.error = error;
+    }
+  }
+
   @Nullable
   public static String findProperty(
       @Nonnull final MavenSession session,
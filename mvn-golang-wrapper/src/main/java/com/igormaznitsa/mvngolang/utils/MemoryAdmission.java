@@ -0,0 +1,366 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Admission control of started processes by available memory. A process is
+ * admitted if estimated headroom (available memory minus part of reservations
+ * of admitted processes which is not consumed yet and minus the reserve) is
+ * enough for expected memory of the process, else it waits. Memory consumed
+ * since the reading taken at the first admission is considered as consumed by
+ * admitted processes, so that their memory is not counted twice. A process is
+ * always admitted if there is no other admitted process. Available memory is
+ * read from limits of cgroup of the JVM process and its parents (v2 or v1) and
+ * /proc/meminfo, if it can't be detected then processes are admitted at once.
+ *
+ * @since 2.3.10
+ */
+public final class MemoryAdmission {
+
+  private static final long POLL_MILLIS = 250L;
+  private static final long UNLIMITED = 1L << 60;
+  private static final File CGROUP_ROOT = new File("/sys/fs/cgroup");
+  private static final Map<String, MemoryAdmission> CONTROLLERS = new HashMap<>();
+
+  private final long perProcess;
+  private final long reserve;
+  private final LongSupplier availableMemory;
+  private long reserved;
+  private long baseline;
+  private int admitted;
+
+  /**
+   * Constructor, shared controllers should be got through
+   * {@link #find(long, long)}.
+   *
+   * @param perProcess      expected memory of process in bytes
+   * @param reserve         memory which should be kept free in bytes
+   * @param availableMemory supplier of available memory in bytes, negative
+   *                        value means unknown
+   */
+  MemoryAdmission(final long perProcess, final long reserve,
+                  @Nonnull final LongSupplier availableMemory) {
+    this.perProcess = Math.max(1L, perProcess);
+    this.reserve = Math.max(0L, reserve);
+    this.availableMemory = availableMemory;
+  }
+
+  /**
+   * Find controller shared in JVM, controller is created if not found.
+   *
+   * @param perProcess expected memory of process in bytes
+   * @param reserve    memory which should be kept free in bytes
+   * @return shared controller
+   */
+  @Nonnull
+  public static MemoryAdmission find(final long perProcess, final long reserve) {
+    synchronized (CONTROLLERS) {
+      return CONTROLLERS.computeIfAbsent(perProcess + ":" + reserve,
+          k -> new MemoryAdmission(perProcess, reserve, MemoryAdmission::readAvailableMemory));
+    }
+  }
+
+  /**
+   * Read memory available for new processes, minimal value among
+   * MemAvailable of /proc/meminfo and cgroup (v2 or v1) limit minus usage.
+   *
+   * @return available memory in bytes or -1 if it can't be detected
+   */
+  public static long readAvailableMemory() {
+    long result = -1L;
+    final List<String> memInfo = readLines(new File("/proc/meminfo"));
+    if (memInfo != null) {
+      result = parseMemInfo(memInfo);
+    }
+    final long cgroup = readCgroupAvailable(CGROUP_ROOT, readLines(new File("/proc/self/cgroup")));
+    if (cgroup >= 0L) {
+      result = result < 0L ? cgroup : Math.min(result, cgroup);
+    }
+    return result;
+  }
+
+  /**
+   * Read memory available in cgroup of process. The cgroup is found in content
+   * of /proc/self/cgroup, limits of the cgroup and all its parents are checked
+   * because a limit can be defined on any level. Unified hierarchy (v2) is
+   * checked first, memory controller hierarchy (v1) is checked if there is no
+   * limit in v2. If the cgroup is not found then only root of hierarchy is
+   * checked.
+   *
+   * @param root    mount folder of cgroup file system, must not be null
+   * @param cgroups lines of /proc/self/cgroup, can be null
+   * @return available memory in bytes or -1 if there is no limit or it can't
+   * be detected
+   */
+  static long readCgroupAvailable(@Nonnull final File root, @Nullable final List<String> cgroups) {
+    String unifiedPath = "";
+    String memoryPath = "";
+    if (cgroups != null) {
+      for (final String line : cgroups) {
+        final String[] fields = line.trim().split(":", 3);
+        if (fields.length < 3) {
+          continue;
+        }
+        if ("0".equals(fields[0]) && fields[1].isEmpty()) {
+          unifiedPath = normalizeCgroupPath(fields[2]);
+        } else if (Arrays.asList(fields[1].split(",")).contains("memory")) {
+          memoryPath = normalizeCgroupPath(fields[2]);
+        }
+      }
+    }
+    final long result = readCgroupLevels(root, unifiedPath, "memory.max", "memory.current");
+    return result < 0L
+        ? readCgroupLevels(new File(root, "memory"), memoryPath, "memory.limit_in_bytes",
+        "memory.usage_in_bytes")
+        : result;
+  }
+
+  @Nonnull
+  private static String normalizeCgroupPath(@Nonnull final String path) {
+    final String result = path.trim().replaceAll("^/+|/+$", "");
+    // cgroup outside of namespace of process, mounted folder is its own cgroup
+    return result.equals("..") || result.startsWith("../") || result.contains("/..")
+        ? "" : result;
+  }
+
+  private static long readCgroupLevels(@Nonnull final File base, @Nonnull final String path,
+                                       @Nonnull final String limitName,
+                                       @Nonnull final String usageName) {
+    long result = -1L;
+    String current = path;
+    while (true) {
+      final File folder = current.isEmpty() ? base : new File(base, current);
+      final long value = parseCgroupAvailable(readFirstLine(new File(folder, limitName)),
+          readFirstLine(new File(folder, usageName)));
+      if (value >= 0L) {
+        result = result < 0L ? value : Math.min(result, value);
+      }
+      if (current.isEmpty()) {
+        break;
+      }
+      final int index = current.lastIndexOf('/');
+      current = index < 0 ? "" : current.substring(0, index);
+    }
+    return result;
+  }
+
+  /**
+   * Find available memory in content of /proc/meminfo.
+   *
+   * @param lines lines of the file, must not be null
+   * @return available memory in bytes or -1 if not found
+   */
+  static long parseMemInfo(@Nonnull final List<String> lines) {
+    long free = -1L;
+    for (final String line : lines) {
+      final String[] fields = line.trim().split("\\s+");
+      if (fields.length < 2) {
+        continue;
+      }
+      try {
+        final long value = Long.parseLong(fields[1])
+            * (fields.length > 2 && "kB".equalsIgnoreCase(fields[2]) ? 1024L : 1L);
+        if ("MemAvailable:".equals(fields[0])) {
+          return value;
+        } else if ("MemFree:".equals(fields[0])) {
+          // old kernels don't provide MemAvailable
+          free = value;
+        }
+      } catch (NumberFormatException ex) {
+        // ignore wrong line
+      }
+    }
+    return free;
+  }
+
+  /**
+   * Calculate memory available in cgroup.
+   *
+   * @param limit content of limit file, can be null
+   * @param usage content of usage file, can be null
+   * @return available memory in bytes or -1 if there is no limit or it can't
+   * be detected
+   */
+  static long parseCgroupAvailable(@Nullable final String limit, @Nullable final String usage) {
+    if (limit == null || usage == null || "max".equals(limit.trim())) {
+      return -1L;
+    }
+    try {
+      final long limitValue = Long.parseLong(limit.trim());
+      if (limitValue >= UNLIMITED) {
+        return -1L;
+      }
+      return Math.max(0L, limitValue - Long.parseLong(usage.trim()));
+    } catch (NumberFormatException ex) {
+      return -1L;
+    }
+  }
+
+  @Nullable
+  private static List<String> readLines(@Nonnull final File file) {
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private static String readFirstLine(@Nonnull final File file) {
+    final List<String> lines = readLines(file);
+    return lines == null || lines.isEmpty() ? null : lines.get(0);
+  }
+
+  /**
+   * Wait for admission of process.
+   *
+   * @return ticket which must be closed after process end
+   * @throws InterruptedException if interrupted during wait
+   */
+  @Nonnull
+  public synchronized Ticket admit() throws InterruptedException {
+    final long start = System.currentTimeMillis();
+    while (true) {
+      final long available = this.availableMemory.getAsLong();
+      if (this.admitted == 0) {
+        this.baseline = available;
+        this.reserved = 0L;
+      }
+      final long headroom = available - this.findPending(available) - this.reserve;
+      final long share;
+      if (available < 0L || headroom >= this.perProcess) {
+        share = this.perProcess;
+      } else if (this.admitted == 0) {
+        share = Math.max(this.perProcess / 4L, headroom);
+      } else {
+        // memory is released by processes outside of the controller too, so poll
+        this.wait(POLL_MILLIS);
+        continue;
+      }
+      this.reserved += share;
+      this.admitted++;
+      return new Ticket(share, available < 0L ? share : Math.max(share, headroom),
+          share < this.perProcess, available, System.currentTimeMillis() - start);
+    }
+  }
+
+  /**
+   * Find part of reservations which is not reflected in available memory yet.
+   *
+   * @param available current reading of available memory
+   * @return memory in bytes, zero or positive
+   */
+  private long findPending(final long available) {
+    final long consumed = Math.max(0L, this.baseline - available);
+    return Math.max(0L, this.reserved - consumed);
+  }
+
+  private synchronized void release(final long share) {
+    this.reserved -= share;
+    this.admitted--;
+    this.notifyAll();
+  }
+
+  /**
+   * Admission of process.
+   */
+  public final class Ticket implements AutoCloseable {
+
+    private final long share;
+    private final long limit;
+    private final boolean tight;
+    private final long available;
+    private final long waitMillis;
+    private boolean released;
+
+    private Ticket(final long share, final long limit, final boolean tight,
+                   final long available, final long waitMillis) {
+      this.share = share;
+      this.limit = limit;
+      this.tight = tight;
+      this.available = available;
+      this.waitMillis = waitMillis;
+    }
+
+    /**
+     * Get memory reserved for process.
+     *
+     * @return memory in bytes
+     */
+    public long getShare() {
+      return this.share;
+    }
+
+    /**
+     * Get memory which was left for process at admission after reservations
+     * of other admitted processes and the reserve, not less than the share.
+     *
+     * @return memory in bytes
+     */
+    public long getLimit() {
+      return this.limit;
+    }
+
+    /**
+     * Check that the share is less than expected memory of process.
+     *
+     * @return true if the process has got less memory than expected
+     */
+    public boolean isTight() {
+      return this.tight;
+    }
+
+    /**
+     * Get available memory detected during admission.
+     *
+     * @return memory in bytes, negative if unknown
+     */
+    public long getAvailable() {
+      return this.available;
+    }
+
+    public long getWaitMillis() {
+      return this.waitMillis;
+    }
+
+    /**
+     * Return reserved memory to controller, repeated calls are ignored.
+     */
+    @Override
+    public void close() {
+      if (!this.released) {
+        this.released = true;
+        release(this.share);
+      }
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Lock of packages loaded by the get mojo, keeps revision resolved for every
+ * package together with branch, tag and revision requested for it. The file
+ * contains tab separated line for every package, lines are sorted by package.
+ *
+ * @since 2.3.10
+ */
+public final class PackageLock {
+
+  private static final String HEADER = "# mvn-golang get lock, generated file";
+
+  private final Map<String, Record> records = new TreeMap<>();
+
+  /**
+   * Read lock from file.
+   *
+   * @param file lock file, must not be null
+   * @return lock, empty one if there is no such file
+   * @throws IOException if any error during read or wrong format
+   */
+  @Nonnull
+  public static PackageLock read(@Nonnull final File file) throws IOException {
+    final PackageLock result = new PackageLock();
+    if (file.isFile()) {
+      for (final String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+        if (line.trim().isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        final String[] fields = line.split("\t", -1);
+        if (fields.length != 5) {
+          throw new IOException("Wrong lock line: " + line);
+        }
+        result.records.put(fields[0],
+            new Record(emptyToNull(fields[1]), emptyToNull(fields[2]), emptyToNull(fields[3]),
+                fields[4]));
+      }
+    }
+    return result;
+  }
+
+  @Nullable
+  private static String emptyToNull(@Nonnull final String text) {
+    return text.isEmpty() ? null : text;
+  }
+
+  @Nonnull
+  private static String nullToEmpty(@Nullable final String text) {
+    return text == null ? "" : text;
+  }
+
+  /**
+   * Write lock into file.
+   *
+   * @param file target file, must not be null
+   * @throws IOException if any error during write
+   */
+  public void write(@Nonnull final File file) throws IOException {
+    final List<String> lines = new ArrayList<>(this.records.size() + 1);
+    lines.add(HEADER);
+    for (final Map.Entry<String, Record> e : this.records.entrySet()) {
+      final Record r = e.getValue();
+      lines.add(e.getKey() + '\t' + nullToEmpty(r.branch) + '\t' + nullToEmpty(r.tag) + '\t'
+          + nullToEmpty(r.revision) + '\t' + r.resolved);
+    }
+    Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Set resolved revision for package, already existing record for the
+   * package is replaced.
+   *
+   * @param pkg      package, must not be null
+   * @param resolved resolved revision, must not be null
+   */
+  public void put(@Nonnull final PackageList.Package pkg, @Nonnull final String resolved) {
+    this.records.put(pkg.getPackage(),
+        new Record(pkg.getBranch(), pkg.getTag(), pkg.getRevision(), resolved));
+  }
+
+  /**
+   * Find resolved revision of package.
+   *
+   * @param pkg package, must not be null
+   * @return resolved revision or null if there is no record or the record is
+   * made for another branch, tag or revision of the package
+   */
+  @Nullable
+  public String find(@Nonnull final PackageList.Package pkg) {
+    final Record r = this.records.get(pkg.getPackage());
+    if (r != null
+        && Objects.equals(r.branch, pkg.getBranch())
+        && Objects.equals(r.tag, pkg.getTag())
+        && Objects.equals(r.revision, pkg.getRevision())) {
+      return r.resolved;
+    }
+    return null;
+  }
+
+  /**
+   * Check that all packages have records with the same requisites and the
+   * provided revisions.
+   *
+   * @param packages packages with their current revisions, null revision
+   *                 means unknown one, must not be null
+   * @return true if all packages are locked at the revisions
+   */
+  public boolean matches(@Nonnull final Map<PackageList.Package, String> packages) {
+    for (final Map.Entry<PackageList.Package, String> e : packages.entrySet()) {
+      if (e.getValue() == null || !e.getValue().equals(this.find(e.getKey()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean isEmpty() {
+    return this.records.isEmpty();
+  }
+
+  private static final class Record {
+
+    private final String branch;
+    private final String tag;
+    private final String revision;
+    private final String resolved;
+
+    private Record(@Nullable final String branch, @Nullable final String tag,
+                   @Nullable final String revision, @Nonnull final String resolved) {
+      this.branch = branch;
+      this.tag = tag;
+      this.revision = revision;
+      this.resolved = resolved;
+    }
+  }
+}
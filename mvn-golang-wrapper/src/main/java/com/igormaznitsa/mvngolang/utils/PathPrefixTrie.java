@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+/**
+ * Trie of slash separated path prefixes, allows to find all prefixes of a path
+ * during single pass over its segments.
+ *
+ * @since 2.3.10
+ */
+public final class PathPrefixTrie {
+
+  private final Node root = new Node();
+  private int size;
+
+  public PathPrefixTrie(@Nonnull @MustNotContainNull final Iterable<String> prefixes) {
+    for (final String prefix : prefixes) {
+      this.add(prefix);
+    }
+  }
+
+  private void add(@Nonnull final String prefix) {
+    Node current = this.root;
+    int start = 0;
+    while (start < prefix.length()) {
+      int end = prefix.indexOf('/', start);
+      if (end < 0) {
+        end = prefix.length();
+      }
+      if (end > start) {
+        current = current.children.computeIfAbsent(prefix.substring(start, end), k -> new Node());
+      }
+      start = end + 1;
+    }
+    if (!current.terminal && current != this.root) {
+      current.terminal = true;
+      this.size++;
+    }
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Find remainders of path for all prefixes of the path, from the shortest
+   * prefix to the longest one. Path equal to a prefix is not matched.
+   *
+   * @param path slash separated path
+   * @return list of path parts after matched prefixes, empty if not matched
+   */
+  @Nonnull
+  @MustNotContainNull
+  public List<String> findRemainders(@Nonnull final String path) {
+    List<String> result = Collections.emptyList();
+    Node current = this.root;
+    int start = 0;
+    while (start < path.length()) {
+      final int end = path.indexOf('/', start);
+      if (end < 0) {
+        break;
+      }
+      current = current.children.get(path.substring(start, end));
+      if (current == null) {
+        break;
+      }
+      start = end + 1;
+      if (current.terminal && start < path.length()) {
+        if (result.isEmpty()) {
+          result = new ArrayList<>(1);
+        }
+        result.add(path.substring(start));
+      }
+    }
+    return result;
+  }
+
+  private static final class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+    private boolean terminal;
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import javax.annotation.Nonnull;
+
+/**
+ * Scanner of source trees for files with known names. Folders which can't
+ * contain files interesting for build (vendor, VCS and test data folders) are
+ * not visited, sub-folders are walked in parallel. Scan result is cached and
+ * reused until modification time of any visited folder is changed.
+ *
+ * @since 2.3.10
+ */
+public final class SourceTreeScanner {
+
+  public static final Set<String> PRUNED_FOLDERS = Collections.unmodifiableSet(
+      new HashSet<>(Arrays.asList("vendor", ".git", "testdata", "node_modules")));
+
+  /**
+   * Folders modified during the period before scan are not trusted because
+   * of coarse time resolution of some file systems.
+   */
+  private static final long RACY_PERIOD_MILLIS = 2000L;
+
+  private final Set<String> fileNames;
+  private final ConcurrentMap<Path, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+  public SourceTreeScanner(@Nonnull @MustNotContainNull final Collection<String> fileNames) {
+    this.fileNames = Collections.unmodifiableSet(new HashSet<>(fileNames));
+  }
+
+  /**
+   * Find all files with known names in folder tree.
+   *
+   * @param folder root folder, must not be null
+   * @return map of found files by their names, all known names are presented
+   * @throws IOException if any error during scan
+   */
+  @Nonnull
+  public Map<String, List<File>> scan(@Nonnull final File folder) throws IOException {
+    final Path root = folder.toPath().toAbsolutePath().normalize();
+    final Snapshot cached = this.snapshots.get(root);
+    if (cached != null && cached.isValid()) {
+      return cached.copyFound();
+    }
+
+    final long scanStart = System.currentTimeMillis();
+    final ScanResult result;
+    try {
+      result = ForkJoinPool.commonPool().invoke(new ScanTask(root, this.fileNames));
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+
+    final Map<String, List<File>> found = new HashMap<>();
+    for (final String name : this.fileNames) {
+      found.put(name, new ArrayList<>());
+    }
+    Collections.sort(result.files);
+    for (final Path p : result.files) {
+      found.get(p.getFileName().toString()).add(p.toFile());
+    }
+    final Snapshot snapshot = new Snapshot(result.folders, found);
+
+    boolean racy = false;
+    for (final long modified : result.folders.values()) {
+      if (modified >= scanStart - RACY_PERIOD_MILLIS) {
+        racy = true;
+        break;
+      }
+    }
+    if (racy) {
+      this.snapshots.remove(root);
+    } else {
+      this.snapshots.put(root, snapshot);
+    }
+    return snapshot.copyFound();
+  }
+
+  /**
+   * Drop all cached scan results.
+   */
+  public void reset() {
+    this.snapshots.clear();
+  }
+
+  private static final class Snapshot {
+
+    private final Map<Path, Long> folders;
+    private final Map<String, List<File>> found;
+
+    private Snapshot(@Nonnull final Map<Path, Long> folders,
+                     @Nonnull final Map<String, List<File>> found) {
+      this.folders = folders;
+      this.found = found;
+    }
+
+    private boolean isValid() {
+      for (final Map.Entry<Path, Long> e : this.folders.entrySet()) {
+        try {
+          if (Files.getLastModifiedTime(e.getKey()).toMillis() != e.getValue()) {
+            return false;
+          }
+        } catch (IOException ex) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Nonnull
+    private Map<String, List<File>> copyFound() {
+      final Map<String, List<File>> result = new HashMap<>();
+      for (final Map.Entry<String, List<File>> e : this.found.entrySet()) {
+        result.put(e.getKey(), new ArrayList<>(e.getValue()));
+      }
+      return result;
+    }
+  }
+
+  private static final class ScanResult {
+
+    private final Map<Path, Long> folders = new HashMap<>();
+    private final List<Path> files = new ArrayList<>();
+
+    private void merge(@Nonnull final ScanResult other) {
+      this.folders.putAll(other.folders);
+      this.files.addAll(other.files);
+    }
+  }
+
+  private static final class ScanTask extends RecursiveTask<ScanResult> {
+
+    private static final long serialVersionUID = -2381722516379418236L;
+
+    private final transient Path folder;
+    private final transient Set<String> fileNames;
+
+    private ScanTask(@Nonnull final Path folder, @Nonnull final Set<String> fileNames) {
+      this.folder = folder;
+      this.fileNames = fileNames;
+    }
+
+    @Override
+    @Nonnull
+    protected ScanResult compute() {
+      final ScanResult result = new ScanResult();
+      final List<ScanTask> subTasks = new ArrayList<>();
+      try {
+        Files.walkFileTree(this.folder, new SimpleFileVisitor<Path>() {
+          @Override
+          @Nonnull
+          public FileVisitResult preVisitDirectory(@Nonnull final Path dir,
+                                                   @Nonnull final BasicFileAttributes attrs) {
+            if (dir.equals(folder)) {
+              result.folders.put(dir, attrs.lastModifiedTime().toMillis());
+              return FileVisitResult.CONTINUE;
+            }
+            if (!PRUNED_FOLDERS.contains(dir.getFileName().toString())) {
+              final ScanTask task = new ScanTask(dir, fileNames);
+              task.fork();
+              subTasks.add(task);
+            }
+            return FileVisitResult.SKIP_SUBTREE;
+          }
+
+          @Override
+          @Nonnull
+          public FileVisitResult visitFile(@Nonnull final Path file,
+                                           @Nonnull final BasicFileAttributes attrs) {
+            if (attrs.isRegularFile() && fileNames.contains(file.getFileName().toString())) {
+              result.files.add(file);
+            }
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          @Nonnull
+          public FileVisitResult visitFileFailed(@Nonnull final Path file,
+                                                 @Nonnull final IOException exc)
+              throws IOException {
+            if (exc instanceof NoSuchFileException) {
+              return FileVisitResult.CONTINUE;
+            }
+            throw exc;
+          }
+        });
+      } catch (IOException ex) {
+        for (final ScanTask t : subTasks) {
+          t.cancel(true);
+        }
+        throw new UncheckedIOException(ex);
+      }
+      for (final ScanTask t : subTasks) {
+        result.merge(t.join());
+      }
+      return result;
+    }
+  }
+}
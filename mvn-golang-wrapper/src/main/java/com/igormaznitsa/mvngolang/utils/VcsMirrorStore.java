@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Store of local mirrors of remote VCS repositories, there is one mirror for
+ * every remote URL. Work with a mirror is performed under lock which is shared
+ * between threads and processes, so that several builds can use the same
+ * store.
+ *
+ * @since 2.3.10
+ */
+public final class VcsMirrorStore {
+
+  /**
+   * Name of the store folder in the mvn-golang store folder.
+   */
+  public static final String FOLDER_NAME = ".vcs-mirrors";
+
+  private static final String LOCK_EXTENSION = ".lock";
+
+  private final File folder;
+
+  public VcsMirrorStore(@Nonnull final File folder) {
+    this.folder = folder;
+  }
+
+  @Nonnull
+  public File getFolder() {
+    return this.folder;
+  }
+
+  /**
+   * Get folder of mirror for remote repository, the folder may not exist.
+   *
+   * @param type type of VCS, must not be null
+   * @param url  URL of remote repository, must not be null
+   * @return mirror folder
+   */
+  @Nonnull
+  public File findMirrorFolder(@Nonnull final String type, @Nonnull final String url) {
+    return new File(this.folder, type.toLowerCase(Locale.ENGLISH) + File.separatorChar
+        + DigestUtils.sha1Hex(url.trim()));
+  }
+
+  /**
+   * Perform action under lock of mirror folder.
+   *
+   * @param mirror mirror folder, must not be null
+   * @param action action to be performed, must not be null
+   * @param <T>    type of result
+   * @return result of the action
+   * @throws IOException if any error during lock or action
+   */
+  public <T> T locked(@Nonnull final File mirror,
+                      @Nonnull final FileLocks.LockedAction<T> action) throws IOException {
+    return FileLocks.locked(new File(mirror.getAbsolutePath() + LOCK_EXTENSION), action);
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang;
+
+import com.igormaznitsa.mvngolang.utils.GoMod;
+import com.igormaznitsa.mvngolang.utils.MvnGolangArtifactHandler;
+import com.igormaznitsa.mvngolang.utils.Tuple;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.testing.AbstractMojoTestCase;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.junit.Test;
+
+public class AbstractGoDependencyAwareMojoTest extends AbstractMojoTestCase {
+
+  private File projectFolder;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    this.projectFolder = Files.createTempDirectory("mvngolang-deps").toFile();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    FileUtils.deleteQuietly(this.projectFolder);
+    super.tearDown();
+  }
+
+  private GolangModMojo findMojo() throws Exception {
+    final File pomFile = new File(this.projectFolder, "pom.xml");
+    FileUtils.copyURLToFile(AbstractGoDependencyAwareMojoTest.class.getResource("mojoMod.xml"),
+        pomFile);
+    final MavenExecutionRequest executionRequest = new DefaultMavenExecutionRequest();
+    final ProjectBuildingRequest buildingRequest = executionRequest.getProjectBuildingRequest();
+    buildingRequest.setSystemProperties(System.getProperties());
+    final ProjectBuilder projectBuilder = this.lookup(ProjectBuilder.class);
+    final MavenProject project = projectBuilder.build(pomFile, buildingRequest).getProject();
+    return (GolangModMojo) this.lookupConfiguredMojo(project, "mod");
+  }
+
+  private Tuple<Artifact, File> makeArchive(final String folder, final String name,
+                                            final String... pathsAndTexts) throws Exception {
+    final File file = new File(this.projectFolder, folder + File.separator + name + ".zip");
+    assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+    try (final ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+      for (int i = 0; i < pathsAndTexts.length; i += 2) {
+        zip.putNextEntry(new ZipEntry(pathsAndTexts[i]));
+        zip.write(pathsAndTexts[i + 1].getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+      }
+    }
+    return Tuple.of(makeArtifact(folder + '-' + name), file);
+  }
+
+  private static Artifact makeArtifact(final String artifactId) {
+    return makeArtifact("com.igormaznitsa", artifactId);
+  }
+
+  private static Artifact makeArtifact(final String groupId, final String artifactId) {
+    return new DefaultArtifact(groupId, artifactId, "1.0", "compile",
+        AbstractGolangMojo.GOARTIFACT_PACKAGING, null, new MvnGolangArtifactHandler());
+  }
+
+  private static String read(final File file) throws Exception {
+    return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testMakeGoWorkText() {
+    final GoMod first = GoMod.from("module example.com/a\n\ngo 1.20\n");
+    final GoMod second = GoMod.from("module example.com/b\n\ngo 1.21.3\n");
+
+    assertEquals("go 1.21.3\n\nuse (\n"
+            + "\t/work/a\n"
+            + "\t\"/work/with space/b\"\n"
+            + ")\n",
+        AbstractGoDependencyAwareMojo.makeGoWorkText(Arrays.asList(first, second),
+            Arrays.asList(new File("/work/with space/b"), new File("/work/a"))));
+  }
+
+  @Test
+  public void testMakeGoWorkTextMinVersion() {
+    final GoMod old = GoMod.from("module example.com/a\n\ngo 1.16\n");
+    final GoMod noVersion = GoMod.from("module example.com/b\n");
+
+    assertEquals("go 1.18\n\nuse (\n\t/work/a\n\t/work/b\n)\n",
+        AbstractGoDependencyAwareMojo.makeGoWorkText(Arrays.asList(old, noVersion),
+            Arrays.asList(new File("/work/a"), new File("/work/b"))));
+    assertEquals("go 1.18\n\nuse (\n)\n",
+        AbstractGoDependencyAwareMojo.makeGoWorkText(Collections.emptyList(),
+            Collections.emptyList()));
+  }
+
+  @Test
+  public void testUnpackArtifactsIntoFolder() throws Exception {
+    final File linked = new File(this.projectFolder, "reactor/src");
+    assertTrue(linked.mkdirs());
+
+    final List<Tuple<Artifact, File>> archives = new ArrayList<>();
+    archives.add(makeArchive("repo1", "lib-a", "src/a.go", "package a", "src/old.go", "old"));
+    archives.add(makeArchive("repo1", "lib-b", "src/b.go", "package b"));
+    archives.add(Tuple.of(makeArtifact("reactor"), linked));
+    // archive with the same file name as the first one but for another artifact
+    archives.add(makeArchive("repo2", "lib-a", "src/a.go", "package a2", "src/go.mod",
+        "module example.com/a\n"));
+
+    for (final int threads : new int[] {1, 4}) {
+      final File target = new File(this.projectFolder, "unpack" + threads);
+      final GolangModMojo mojo = findMojo();
+      mojo.setUnpackThreads(threads);
+
+      final List<Tuple<Artifact, File>> result = mojo.unpackArtifactsIntoFolder(archives, target);
+
+      assertEquals(archives.size(), result.size());
+      for (int i = 0; i < archives.size(); i++) {
+        assertSame(archives.get(i).left(), result.get(i).left());
+      }
+      final File group = new File(target, "com.igormaznitsa");
+      assertEquals(new File(group, "repo1-lib-a-1.0"), result.get(0).right());
+      assertEquals(new File(group, "repo1-lib-b-1.0"), result.get(1).right());
+      assertEquals(linked, result.get(2).right());
+      assertEquals(new File(group, "repo2-lib-a-1.0"), result.get(3).right());
+
+      assertEquals("package a", read(new File(group, "repo1-lib-a-1.0/src/a.go")));
+      assertEquals("old", read(new File(group, "repo1-lib-a-1.0/src/old.go")));
+      assertEquals("package a2", read(new File(group, "repo2-lib-a-1.0/src/a.go")));
+      assertEquals("module example.com/a\n",
+          read(new File(group, "repo2-lib-a-1.0/src/go.mod")));
+      assertEquals("package b", read(new File(group, "repo1-lib-b-1.0/src/b.go")));
+    }
+  }
+
+  @Test
+  public void testUnpackArtifactsWithDifferentGroupsInParallel() throws Exception {
+    final List<Tuple<Artifact, File>> archives = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      // the same artifact id, version and archive name but different groups
+      final Tuple<Artifact, File> archive = makeArchive("group" + i, "lib-1.0",
+          "src/lib.go", "package lib" + i, "src/only" + i + ".go", "package lib" + i);
+      archives.add(Tuple.of(makeArtifact("com.group" + i, "lib"), archive.right()));
+    }
+
+    final File target = new File(this.projectFolder, "unpack");
+    final GolangModMojo mojo = findMojo();
+    mojo.setUnpackThreads(4);
+    for (int pass = 0; pass < 2; pass++) {
+      final List<Tuple<Artifact, File>> result = mojo.unpackArtifactsIntoFolder(archives, target);
+
+      assertEquals(archives.size(), result.size());
+      for (int i = 0; i < archives.size(); i++) {
+        final File folder = new File(target, "com.group" + i + File.separator + "lib-1.0");
+        assertEquals(folder, result.get(i).right());
+        assertEquals("package lib" + i, read(new File(folder, "src/lib.go")));
+        assertEquals("package lib" + i, read(new File(folder, "src/only" + i + ".go")));
+        assertEquals(2, new File(folder, "src").list().length);
+      }
+    }
+  }
+
+  @Test
+  public void testUnpackArtifactsIntoFolderReportsFirstError() throws Exception {
+    final List<Tuple<Artifact, File>> archives = new ArrayList<>();
+    archives.add(makeArchive("repo", "lib-a", "src/a.go", "package a"));
+    archives.add(Tuple.of(makeArtifact("bad-1"), new File(this.projectFolder, "bad-1.zip")));
+    archives.add(makeArchive("repo", "lib-b", "src/b.go", "package b"));
+    archives.add(Tuple.of(makeArtifact("bad-2"), new File(this.projectFolder, "bad-2.zip")));
+    FileUtils.write(archives.get(1).right(), "not zip", StandardCharsets.UTF_8);
+    FileUtils.write(archives.get(3).right(), "not zip", StandardCharsets.UTF_8);
+
+    for (final int threads : new int[] {1, 4}) {
+      final File target = new File(this.projectFolder, "unpack" + threads);
+      final GolangModMojo mojo = findMojo();
+      mojo.setUnpackThreads(threads);
+      try {
+        mojo.unpackArtifactsIntoFolder(archives, target);
+        fail("Must throw exception");
+      } catch (MojoExecutionException ex) {
+        assertTrue(ex.getMessage(), ex.getMessage().startsWith("Can't unpack 2 dependency"));
+        assertTrue(ex.getMessage(), ex.getMessage().contains("'bad-1.zip'"));
+        assertTrue(ex.getCause().getMessage().contains("'bad-1.zip'"));
+      }
+      assertEquals("package b",
+          read(new File(target, "com.igormaznitsa/repo-lib-b-1.0/src/b.go")));
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang;
+
+import com.igormaznitsa.mvngolang.utils.GoMod;
+import com.igormaznitsa.mvngolang.utils.Tuple;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.plugin.testing.AbstractMojoTestCase;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.junit.Test;
+
+public class AbstractModuleAwareTest extends AbstractMojoTestCase {
+
+  private static final String GO_MOD = "module example.com/app\n\n"
+      + "go 1.18\n\n"
+      + "require example.com/dep v1.0.0\n";
+  private static final String GO_SUM = "example.com/dep v1.0.0/go.mod h1:abc=\n";
+
+  private File projectFolder;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    this.projectFolder = Files.createTempDirectory("mvngolang-modfile").toFile();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    FileUtils.deleteQuietly(this.projectFolder);
+    super.tearDown();
+  }
+
+  private GolangModMojo findMojo() throws Exception {
+    final File pomFile = new File(this.projectFolder, "pom.xml");
+    FileUtils.copyURLToFile(AbstractModuleAwareTest.class.getResource("mojoModFile.xml"),
+        pomFile);
+    final MavenExecutionRequest executionRequest = new DefaultMavenExecutionRequest();
+    final ProjectBuildingRequest buildingRequest = executionRequest.getProjectBuildingRequest();
+    buildingRequest.setSystemProperties(System.getProperties());
+    final ProjectBuilder projectBuilder = this.lookup(ProjectBuilder.class);
+    final MavenProject project = projectBuilder.build(pomFile, buildingRequest).getProject();
+    return (GolangModMojo) this.lookupConfiguredMojo(project, "mod");
+  }
+
+  private Map<String, Tuple<GoMod, File>> makeDependencyModules() throws Exception {
+    final File depGoMod = new File(this.projectFolder, "deps/dep/go.mod");
+    FileUtils.write(depGoMod, "module example.com/dep\n", StandardCharsets.UTF_8);
+    return Collections.singletonMap("example.com/dep",
+        Tuple.of(GoMod.from("module example.com/dep\n"), depGoMod));
+  }
+
+  private File writeSources() throws Exception {
+    final File sources = new File(this.projectFolder, "src");
+    FileUtils.write(new File(sources, "go.mod"), GO_MOD, StandardCharsets.UTF_8);
+    FileUtils.write(new File(sources, "go.sum"), GO_SUM, StandardCharsets.UTF_8);
+    return sources;
+  }
+
+  private static long countModFileFlags(final String[] flags) {
+    return Arrays.stream(flags).filter(x -> x.startsWith("-modfile")).count();
+  }
+
+  @Test
+  public void testOverlayIsGeneratedAndSourcesAreNotChanged() throws Exception {
+    final File sources = writeSources();
+    final GolangModMojo mojo = findMojo();
+
+    mojo.makeModFileOverlay(makeDependencyModules(), Collections.emptySet());
+
+    final File overlay = mojo.getModFileOverlay();
+    assertNotNull(overlay);
+    assertEquals(new File(this.projectFolder,
+        "target" + File.separator + AbstractGoDependencyAwareMojo.MOD_FILE_FOLDER
+            + File.separator + "go.mod").getAbsoluteFile(), overlay.getAbsoluteFile());
+
+    final String overlayText = FileUtils.readFileToString(overlay, StandardCharsets.UTF_8);
+    assertTrue(overlayText, overlayText.startsWith(GO_MOD));
+    assertTrue(overlayText, overlayText.contains("replace example.com/dep => "));
+    assertEquals(GO_SUM, FileUtils.readFileToString(
+        new File(overlay.getParentFile(), "go.sum"), StandardCharsets.UTF_8));
+
+    assertEquals(GO_MOD,
+        FileUtils.readFileToString(new File(sources, "go.mod"), StandardCharsets.UTF_8));
+    assertEquals(GO_SUM,
+        FileUtils.readFileToString(new File(sources, "go.sum"), StandardCharsets.UTF_8));
+    assertFalse(new File(sources, "go.mod.bak").exists());
+  }
+
+  @Test
+  public void testModFileFlagIsAddedOnce() throws Exception {
+    writeSources();
+    final GolangModMojo mojo = findMojo();
+    assertEquals(0L, countModFileFlags(mojo.getCommandFlags()));
+
+    mojo.makeModFileOverlay(makeDependencyModules(), Collections.emptySet());
+    final String expected = "-modfile=" + mojo.getModFileOverlay().getAbsolutePath();
+
+    assertEquals(1L, countModFileFlags(mojo.getCommandFlags()));
+    assertTrue(Arrays.asList(mojo.getCommandFlags()).contains(expected));
+    assertEquals(1L, countModFileFlags(mojo.getCommandFlags()));
+    assertEquals("tidy", mojo.getCommandFlags()[0]);
+  }
+
+  @Test
+  public void testModFileFlagIsNotAddedIfProvidedByUser() throws Exception {
+    writeSources();
+    final GolangModMojo mojo = findMojo();
+    this.setVariableValueToObject(mojo, "buildFlags", new String[] {"-modfile=custom.mod"});
+
+    mojo.makeModFileOverlay(makeDependencyModules(), Collections.emptySet());
+    assertNotNull(mojo.getModFileOverlay());
+
+    assertEquals(0L, countModFileFlags(mojo.getCommandFlags()));
+    assertEquals(Collections.singletonList("-modfile=custom.mod"),
+        Arrays.asList(mojo.getBuildFlags()));
+  }
+
+  @Test
+  public void testNoOverlayIfGoModIsNotChanged() throws Exception {
+    writeSources();
+    final GolangModMojo mojo = findMojo();
+
+    mojo.makeModFileOverlay(Collections.emptyMap(), Collections.emptySet());
+
+    assertNull(mojo.getModFileOverlay());
+    assertEquals(0L, countModFileFlags(mojo.getCommandFlags()));
+  }
+}
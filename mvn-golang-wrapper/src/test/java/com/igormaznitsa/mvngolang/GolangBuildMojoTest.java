@@ -23,6 +23,7 @@ import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 
@@ -55,4 +56,12 @@ public class GolangBuildMojoTest {
     assertThat(asList(buildMojo.getCommandFlags()), hasItem(endsWith("targetName")));
   }
 
+  @Test
+  public void testParallelismFlag() {
+    assertTrue(AbstractGolangMojo.hasParallelismFlag(asList("-v", "-p", "4")));
+    assertTrue(AbstractGolangMojo.hasParallelismFlag(asList("-v", "-p=4")));
+    assertTrue(AbstractGolangMojo.hasParallelismFlag(asList("--p=4")));
+    assertFalse(AbstractGolangMojo.hasParallelismFlag(asList("-v", "-pgo=auto", "-race")));
+  }
+
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang;
+
+import static org.codehaus.plexus.util.ReflectionUtils.setVariableValueInObject;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+
+import com.igormaznitsa.mvngolang.cvs.CVSType;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zeroturnaround.exec.ProcessExecutor;
+
+public class GolangGetMojoTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private GolangGetMojo makeMojo(final File goPath, final File lockFile) throws Exception {
+    final GolangGetMojo mojo = new GolangGetMojo();
+    setVariableValueInObject(mojo, "project", new MavenProject());
+    setVariableValueInObject(mojo, "session", new MavenSession(null, null,
+        new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult()));
+    setVariableValueInObject(mojo, "goPath", goPath.getAbsolutePath());
+    mojo.setPackages(new String[] {"example.com/lib/sub"});
+    mojo.setUseGetLock(true);
+    mojo.setLockFile(lockFile);
+    return mojo;
+  }
+
+  private static boolean git(final File folder, final String... args) {
+    final String[] command = new String[args.length + 5];
+    command[0] = "git";
+    command[1] = "-c";
+    command[2] = "user.name=test";
+    command[3] = "-c";
+    command[4] = "user.email=test@example.com";
+    System.arraycopy(args, 0, command, 5, args.length);
+    try {
+      return new ProcessExecutor(command).directory(folder).execute().getExitValue() == 0;
+    } catch (Exception ex) {
+      return false;
+    }
+  }
+
+  @Test
+  public void testFindRemoteRepository() {
+    final GolangGetMojo.RemoteRepository github =
+        GolangGetMojo.findRemoteRepository("github.com/some/lib/sub/pkg");
+    assertEquals("github.com/some/lib", github.getRoot());
+    assertEquals("https://github.com/some/lib", github.getUrl());
+    assertEquals(CVSType.GIT, github.getType());
+
+    final GolangGetMojo.RemoteRepository suffixed =
+        GolangGetMojo.findRemoteRepository("example.com/repos/lib.git/sub");
+    assertEquals("example.com/repos/lib.git", suffixed.getRoot());
+    assertEquals("https://example.com/repos/lib.git", suffixed.getUrl());
+    assertEquals(CVSType.GIT, suffixed.getType());
+
+    assertEquals(CVSType.HG, GolangGetMojo.findRemoteRepository("example.com/lib.hg").getType());
+
+    assertNull(GolangGetMojo.findRemoteRepository("github.com/some"));
+    assertNull(GolangGetMojo.findRemoteRepository("golang.org/x/net"));
+  }
+
+  @Test
+  public void testSkipByLock() throws Exception {
+    final File goPath = new File(this.tempFolder.getRoot(), "gopath");
+    final File repo = new File(goPath, "src/example.com/lib");
+    final File source = new File(repo, "sub/lib.go");
+    FileUtils.writeStringToFile(source, "package sub\n", StandardCharsets.UTF_8);
+    assumeTrue("git is not available", git(repo, "init", "--quiet"));
+    assertTrue(git(repo, "add", "."));
+    assertTrue(git(repo, "commit", "--quiet", "-m", "first"));
+
+    final File lockFile = new File(this.tempFolder.getRoot(), "mvn-golang-get.lock");
+    final GolangGetMojo mojo = makeMojo(goPath, lockFile);
+    mojo.preparePackageList();
+
+    assertFalse("no lock file", mojo.isSkippedByLock());
+    mojo.afterExecution(null, false);
+    assertTrue(lockFile.isFile());
+    assertTrue("lock matches", mojo.isSkippedByLock());
+
+    mojo.getProject().getProperties().setProperty("mvn.golang.get.update", "true");
+    assertFalse("update is requested", mojo.isSkippedByLock());
+    mojo.getProject().getProperties().remove("mvn.golang.get.update");
+    assertTrue(mojo.isSkippedByLock());
+
+    setVariableValueInObject(mojo, "tag", "v1.0.0");
+    mojo.preparePackageList();
+    assertFalse("requisites are changed", mojo.isSkippedByLock());
+    setVariableValueInObject(mojo, "tag", null);
+    mojo.preparePackageList();
+    assertTrue(mojo.isSkippedByLock());
+
+    FileUtils.writeStringToFile(source, "package changed\n", StandardCharsets.UTF_8);
+    assertFalse("no revision for changed sources", mojo.isSkippedByLock());
+    mojo.afterExecution(null, false);
+    assertFalse("unknown revision is not locked", mojo.isSkippedByLock());
+
+    assertTrue(git(repo, "commit", "--quiet", "-a", "-m", "second"));
+    assertFalse("revision differs from locked one", mojo.isSkippedByLock());
+    mojo.afterExecution(null, false);
+    assertTrue(mojo.isSkippedByLock());
+
+    FileUtils.deleteDirectory(repo);
+    assertFalse("no package folder", mojo.isSkippedByLock());
+
+    mojo.setUseGetLock(false);
+    assertFalse(mojo.isSkippedByLock());
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.plugin.testing.AbstractMojoTestCase;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.junit.Test;
+
+public class GolangMvnInstallMojoTest extends AbstractMojoTestCase {
+
+  private File projectFolder;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    this.projectFolder = Files.createTempDirectory("mvngolang-install").toFile();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    FileUtils.deleteQuietly(this.projectFolder);
+    super.tearDown();
+  }
+
+  private GolangMvnInstallMojo findMojo() throws Exception {
+    final File pomFile = new File(this.projectFolder, "pom.xml");
+    FileUtils.copyURLToFile(GolangMvnInstallMojoTest.class.getResource("mojoMvnInstall.xml"),
+        pomFile);
+    final MavenExecutionRequest executionRequest = new DefaultMavenExecutionRequest();
+    final ProjectBuildingRequest buildingRequest = executionRequest.getProjectBuildingRequest();
+    buildingRequest.setSystemProperties(System.getProperties());
+    final ProjectBuilder projectBuilder = this.lookup(ProjectBuilder.class);
+    final MavenProject project = projectBuilder.build(pomFile, buildingRequest).getProject();
+    return (GolangMvnInstallMojo) this.lookupConfiguredMojo(project, "mvninstall");
+  }
+
+  @Test
+  public void testPackedPomIsEffectiveOneWithRelativeFolders() throws Exception {
+    final GolangMvnInstallMojo mojo = findMojo();
+
+    final File archive = mojo.compressProjectFiles();
+    assertTrue(archive.isFile());
+
+    final String pom;
+    try (final ZipFile zip = new ZipFile(archive)) {
+      final ZipEntry entry = zip.getEntry("pom.xml");
+      assertNotNull(entry);
+      pom = IOUtils.toString(zip.getInputStream(entry), StandardCharsets.UTF_8);
+    }
+
+    assertTrue(pom, pom.contains("<directory>${project.basedir}/target</directory>"));
+    assertTrue(pom,
+        pom.contains("<outputDirectory>${project.basedir}/target/classes</outputDirectory>"));
+    assertFalse(pom, pom.contains(this.projectFolder.getAbsolutePath()));
+  }
+}
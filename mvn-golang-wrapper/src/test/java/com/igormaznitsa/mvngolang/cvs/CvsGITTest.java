@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.cvs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zeroturnaround.exec.ProcessExecutor;
+
+public class CvsGITTest {
+
+  private static final Log LOG = new SystemStreamLog();
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static boolean git(final File folder, final String... args) throws Exception {
+    final String[] command = new String[args.length + 5];
+    command[0] = "git";
+    command[1] = "-c";
+    command[2] = "user.name=test";
+    command[3] = "-c";
+    command[4] = "user.email=test@example.com";
+    System.arraycopy(args, 0, command, 5, args.length);
+    return new ProcessExecutor(command).directory(folder).execute().getExitValue() == 0;
+  }
+
+  @Test
+  public void testIsAtReference() throws Exception {
+    final File folder = tempFolder.newFolder("repo");
+    boolean ready;
+    try {
+      ready = git(folder, "init", "--quiet");
+    } catch (Exception ex) {
+      ready = false;
+    }
+    assumeTrue("git is not available", ready);
+
+    FileUtils.writeStringToFile(new File(folder, "main.go"), "package main\n",
+        StandardCharsets.UTF_8);
+    assertTrue(git(folder, "add", "main.go"));
+    assertTrue(git(folder, "commit", "--quiet", "-m", "first"));
+    assertTrue(git(folder, "tag", "-a", "v1.0.0", "-m", "release"));
+
+    final CvsGIT cvs = new CvsGIT();
+    final String head = cvs.findCurrentRevision(LOG, null, folder);
+    assertNotNull(head);
+    assertEquals(40, head.length());
+
+    assertTrue(cvs.isAtReference(LOG, null, folder, head));
+    assertTrue(cvs.isAtReference(LOG, null, folder, head.substring(0, 12)));
+    assertTrue(cvs.isAtReference(LOG, null, folder, "refs/tags/v1.0.0"));
+    assertFalse(cvs.isAtReference(LOG, null, folder, "refs/tags/v2.0.0"));
+    assertFalse(cvs.isAtReference(LOG, null, folder,
+        "0123456789012345678901234567890123456789"));
+
+    assertTrue(git(folder, "commit", "--quiet", "--allow-empty", "-m", "second"));
+    assertFalse(cvs.isAtReference(LOG, null, folder, "refs/tags/v1.0.0"));
+
+    assertTrue(git(folder, "checkout", "--quiet", "v1.0.0"));
+    assertTrue(cvs.isAtReference(LOG, null, folder, "refs/tags/v1.0.0"));
+    FileUtils.writeStringToFile(new File(folder, "main.go"), "package changed\n",
+        StandardCharsets.UTF_8);
+    assertFalse(cvs.isAtReference(LOG, null, folder, "refs/tags/v1.0.0"));
+
+    assertFalse(cvs.isAtReference(LOG, null, tempFolder.newFolder("empty"), head));
+  }
+
+  @Test
+  public void testFetchShallowPinnedTag() throws Exception {
+    final File origin = tempFolder.newFolder("origin");
+    boolean ready;
+    try {
+      ready = git(origin, "init", "--quiet");
+    } catch (Exception ex) {
+      ready = false;
+    }
+    assumeTrue("git is not available", ready);
+
+    FileUtils.writeStringToFile(new File(origin, "main.go"), "package main\n",
+        StandardCharsets.UTF_8);
+    assertTrue(git(origin, "add", "main.go"));
+    assertTrue(git(origin, "commit", "--quiet", "-m", "first"));
+    assertTrue(git(origin, "tag", "-a", "v1.0.0", "-m", "release"));
+    assertTrue(git(origin, "commit", "--quiet", "--allow-empty", "-m", "second"));
+
+    final CvsGIT cvs = new CvsGIT();
+    final File folder = new File(tempFolder.getRoot(), "fetched");
+    assertTrue(cvs.fetchShallow(LOG, null, null, folder, "file://" + origin.getAbsolutePath(),
+        "refs/tags/v1.0.0"));
+    assertTrue(new File(folder, "main.go").isFile());
+    assertTrue(cvs.isAtReference(LOG, null, folder, "refs/tags/v1.0.0"));
+    assertFalse(cvs.isAtReference(LOG, null, origin, "refs/tags/v1.0.0"));
+
+    // repeated fetch of the same tag must not fail on existing local tag
+    assertTrue(cvs.fetchShallow(LOG, null, null, folder, "file://" + origin.getAbsolutePath(),
+        "refs/tags/v1.0.0"));
+    assertTrue(cvs.isAtReference(LOG, null, folder, "refs/tags/v1.0.0"));
+  }
+
+  @Test
+  public void testParseStatusRevision() {
+    final String oid = "4b825dc642cb6eb9a060e54bf8d69288fbee4904";
+    final String clean = "# branch.oid " + oid + "\n"
+        + "# branch.head master\n"
+        + "# branch.upstream origin/master\n"
+        + "# branch.ab +0 -0\n";
+    assertEquals(oid, CvsGIT.parseStatusRevision(clean));
+    assertEquals(oid, CvsGIT.parseStatusRevision(clean.replace("\n", "\r\n")));
+
+    assertEquals(oid, CvsGIT.parseStatusRevision("# branch.oid " + oid + "\n"
+        + "# branch.head (detached)\n"));
+
+    assertNull(CvsGIT.parseStatusRevision(clean
+        + "1 .M N... 100644 100644 100644 " + oid + ' ' + oid + " main.go\n"));
+    assertNull(CvsGIT.parseStatusRevision("# branch.oid " + oid + "\n"
+        + "# branch.head (detached)\n"
+        + "1 A. N... 000000 100644 100644 " + oid + ' ' + oid + " new.go\n"));
+    assertNull(CvsGIT.parseStatusRevision("# branch.oid " + oid + "\n"
+        + "u UU N... 100644 100644 100644 100644 " + oid + ' ' + oid + ' ' + oid + " c.go\n"));
+
+    assertNull(CvsGIT.parseStatusRevision("# branch.oid (initial)\n# branch.head master\n"));
+    assertNull(CvsGIT.parseStatusRevision(""));
+  }
+}
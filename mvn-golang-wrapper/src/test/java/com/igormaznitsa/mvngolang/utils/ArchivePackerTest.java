@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArchivePackerTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static String read(final ZipFile zip, final String name) throws Exception {
+    try (final InputStream in = zip.getInputStream(zip.getEntry(name))) {
+      return IOUtils.toString(in, StandardCharsets.UTF_8);
+    }
+  }
+
+  private File makeSources() throws Exception {
+    final File src = this.tempFolder.newFolder("src");
+    FileUtils.write(new File(src, "main.go"), "package main\n", StandardCharsets.UTF_8);
+    FileUtils.write(new File(src, "go.mod"), "module changed\n", StandardCharsets.UTF_8);
+    FileUtils.write(new File(src, ".#go.mod.mvn.orig"), "module original\n",
+        StandardCharsets.UTF_8);
+    FileUtils.write(new File(src, "lib/lib.go"), "package lib\n", StandardCharsets.UTF_8);
+    FileUtils.write(new File(src, "lib/data.zip"), "not really zip", StandardCharsets.UTF_8);
+    assertTrue(new File(src, "empty").mkdir());
+    return src;
+  }
+
+  private void assertPacked(final int threads) throws Exception {
+    final File src = makeSources();
+    final ArchivePacker packer = new ArchivePacker(9, threads);
+    packer.add("pom.xml", "<project/>".getBytes(StandardCharsets.UTF_8));
+    packer.addFolder(src, "src/", ".#go.mod.mvn.orig");
+
+    assertTrue(packer.contains("src/go.mod"));
+    assertFalse(packer.contains("src/.#go.mod.mvn.orig"));
+    assertEquals(new File(src, ".#go.mod.mvn.orig"), packer.findFile("src/go.mod"));
+    assertNull(packer.findFile("pom.xml"));
+
+    final File target = new File(this.tempFolder.getRoot(), "result-" + threads + ".zip");
+    final List<String> paths = packer.pack(target, packed -> Collections
+        .singletonMap("tail.txt", Integer.toString(packed.size()).getBytes(StandardCharsets.UTF_8)));
+    assertEquals(Arrays.asList("pom.xml", "src/", "src/empty/", "src/go.mod", "src/lib/",
+        "src/lib/data.zip", "src/lib/lib.go", "src/main.go"), paths);
+
+    try (final ZipFile zip = new ZipFile(target)) {
+      final List<String> names = new ArrayList<>();
+      for (final ZipEntry e : Collections.list(zip.entries())) {
+        names.add(e.getName());
+      }
+      final List<String> expected = new ArrayList<>(paths);
+      expected.add("tail.txt");
+      assertEquals(expected, names);
+
+      assertEquals("module original\n", read(zip, "src/go.mod"));
+      assertEquals("<project/>", read(zip, "pom.xml"));
+      assertEquals("8", read(zip, "tail.txt"));
+      assertTrue(zip.getEntry("src/empty/").isDirectory());
+      assertEquals(ZipEntry.STORED, zip.getEntry("src/lib/data.zip").getMethod());
+      assertEquals(ZipEntry.DEFLATED, zip.getEntry("src/main.go").getMethod());
+    }
+  }
+
+  @Test
+  public void testPackSequentially() throws Exception {
+    assertPacked(1);
+  }
+
+  @Test
+  public void testPackConcurrently() throws Exception {
+    assertPacked(4);
+  }
+
+  @Test
+  public void testFollowFolderLinks() throws Exception {
+    final File shared = this.tempFolder.newFolder("shared");
+    FileUtils.write(new File(shared, "util/util.go"), "package util\n", StandardCharsets.UTF_8);
+    final File src = this.tempFolder.newFolder("src");
+    FileUtils.write(new File(src, "main.go"), "package main\n", StandardCharsets.UTF_8);
+    try {
+      Files.createSymbolicLink(new File(src, "shared").toPath(), shared.toPath());
+      // cycles
+      Files.createSymbolicLink(new File(shared, "util/self").toPath(), shared.toPath());
+      Files.createSymbolicLink(new File(src, "root").toPath(), src.toPath());
+    } catch (UnsupportedOperationException | IOException ex) {
+      assumeTrue("symbolic links are not supported", false);
+    }
+
+    final ArchivePacker packer = new ArchivePacker(9, 1);
+    packer.addFolder(src, "src/", ".#go.mod.mvn.orig");
+    assertEquals(new HashSet<>(Arrays.asList("src/", "src/main.go", "src/shared/",
+        "src/shared/util/", "src/shared/util/util.go")), packer.getPaths());
+    assertEquals(new File(src, "shared/util/util.go"),
+        packer.findFile("src/shared/util/util.go"));
+  }
+
+  @Test
+  public void testPackIsReproducible() throws Exception {
+    final File src = makeSources();
+    final File first = new File(this.tempFolder.getRoot(), "first.zip");
+    final File second = new File(this.tempFolder.getRoot(), "second.zip");
+
+    final ArchivePacker packer = new ArchivePacker(9, 4);
+    packer.addFolder(src, "", ".#go.mod.mvn.orig");
+    packer.pack(first, null);
+
+    for (final File f : FileUtils.listFiles(src, null, true)) {
+      assertTrue(f.setLastModified(System.currentTimeMillis() - 3600000L));
+    }
+    final ArchivePacker other = new ArchivePacker(9, 1);
+    other.addFolder(src, "", ".#go.mod.mvn.orig");
+    other.pack(second, null);
+
+    assertTrue(FileUtils.contentEquals(first, second));
+    try (final ZipFile zip = new ZipFile(first)) {
+      for (final ZipEntry e : Collections.list(zip.entries())) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(e.getTime());
+        assertEquals(1980, calendar.get(Calendar.YEAR));
+        assertEquals(1, calendar.get(Calendar.DAY_OF_YEAR));
+      }
+    }
+  }
+
+  @Test
+  public void testPackIfChanged() throws Exception {
+    final File src = makeSources();
+    final File target = new File(this.tempFolder.getRoot(), "result.zip");
+    final File manifest = new File(this.tempFolder.getRoot(), "result.zip.manifest");
+
+    ArchivePacker packer = new ArchivePacker(9, 2);
+    packer.addFolder(src, "", ".#go.mod.mvn.orig");
+    assertTrue(packer.packIfChanged(target, manifest, null));
+    assertTrue(manifest.isFile());
+
+    packer = new ArchivePacker(9, 2);
+    packer.addFolder(src, "", ".#go.mod.mvn.orig");
+    assertFalse(packer.packIfChanged(target, manifest, null));
+
+    FileUtils.write(new File(src, "main.go"), "package main\n//changed\n", StandardCharsets.UTF_8);
+    packer = new ArchivePacker(9, 2);
+    packer.addFolder(src, "", ".#go.mod.mvn.orig");
+    assertTrue(packer.packIfChanged(target, manifest, null));
+    try (final ZipFile zip = new ZipFile(target)) {
+      assertEquals("package main\n//changed\n", read(zip, "main.go"));
+    }
+
+    packer = new ArchivePacker(5, 2);
+    packer.addFolder(src, "", ".#go.mod.mvn.orig");
+    assertTrue(packer.packIfChanged(target, manifest, null));
+
+    FileUtils.write(target, "broken", StandardCharsets.UTF_8);
+    packer = new ArchivePacker(5, 2);
+    packer.addFolder(src, "", ".#go.mod.mvn.orig");
+    assertTrue(packer.packIfChanged(target, manifest, null));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArtifactGraphCacheTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static Artifact makeArtifact() {
+    return new DefaultArtifact("com.igormaznitsa", "some", "1.0-SNAPSHOT", "compile",
+        "mvn-golang", null, new MvnGolangArtifactHandler());
+  }
+
+  @Test
+  public void testRecordsReadOncePerFileState() throws Exception {
+    final File file = tempFolder.newFile("some.zip");
+    FileUtils.writeStringToFile(file, "first", StandardCharsets.UTF_8);
+
+    final ArtifactGraphCache cache = new ArtifactGraphCache();
+    final AtomicInteger counter = new AtomicInteger();
+    final ArtifactGraphCache.RecordReader reader = f -> {
+      counter.incrementAndGet();
+      return Collections.singletonList(FileUtils.readFileToString(f, StandardCharsets.UTF_8));
+    };
+
+    assertEquals(Collections.singletonList("first"), cache.getRecords(file, reader));
+    assertEquals(Collections.singletonList("first"), cache.getRecords(file, reader));
+    assertEquals(1, counter.get());
+
+    FileUtils.writeStringToFile(file, "second!", StandardCharsets.UTF_8);
+    assertEquals(Collections.singletonList("second!"), cache.getRecords(file, reader));
+    assertEquals(2, counter.get());
+  }
+
+  @Test
+  public void testResolvedAndInvalidate() throws Exception {
+    final File file = tempFolder.newFile("some.zip");
+    final ArtifactGraphCache cache = new ArtifactGraphCache();
+    final Artifact artifact = makeArtifact();
+
+    assertNull(cache.findResolved(artifact));
+    cache.putResolved(artifact, file);
+    assertEquals(file, cache.findResolved(makeArtifact()));
+
+    cache.invalidate(makeArtifact());
+    assertNull(cache.findResolved(artifact));
+
+    cache.putResolved(artifact, file);
+    FileUtils.forceDelete(file);
+    assertNull(cache.findResolved(artifact));
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class ArtifactIndexTest {
+
+  @Test
+  public void testWriteRead() throws Exception {
+    final ArtifactIndex index = new ArtifactIndex(Collections.singletonList("src"),
+        Arrays.asList("a::b::1.0::compile::mvn-golang::", "c::d::2.0::::mvn-golang::"));
+
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    index.write(buffer);
+    final ArtifactIndex read = ArtifactIndex.read(new ByteArrayInputStream(buffer.toByteArray()));
+
+    assertEquals(Collections.singletonList("src"), read.getBuildFolders());
+    assertEquals(index.getDependencyRecords(), read.getDependencyRecords());
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnsupportedVersion() throws Exception {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final DataOutputStream data = new DataOutputStream(buffer);
+    data.writeInt(0x4D47494E);
+    data.writeByte(1);
+    data.writeInt(0);
+    data.flush();
+    ArtifactIndex.read(new ByteArrayInputStream(buffer.toByteArray()));
+  }
+
+  @Test(expected = IOException.class)
+  public void testWrongFormat() throws Exception {
+    ArtifactIndex.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5}));
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BackgroundDeleterTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static void makeTree(@Nonnull final File root) throws Exception {
+    for (int i = 0; i < 5; i++) {
+      final File folder = new File(root, "a" + i + File.separatorChar + "b" + i);
+      assertTrue(folder.mkdirs());
+      Files.write(new File(folder, "file.txt").toPath(), "test".getBytes(StandardCharsets.UTF_8));
+    }
+    final File readOnly = new File(root, "a0");
+    assertTrue(new File(readOnly, "b0" + File.separatorChar + "file.txt").setWritable(false));
+    assertTrue(readOnly.setWritable(false));
+  }
+
+  @Test
+  public void testBuryAndDelete() throws Exception {
+    final File folder = this.tempFolder.newFolder("target");
+    makeTree(folder);
+
+    final File tombstone = BackgroundDeleter.bury(folder);
+    assertFalse(folder.exists());
+    assertTrue(tombstone.isDirectory());
+    assertEquals(folder.getParentFile(), tombstone.getParentFile());
+    assertTrue(tombstone.getName().startsWith(BackgroundDeleter.TOMBSTONE_PREFIX + "target-"));
+
+    BackgroundDeleter.delete(tombstone).get();
+    assertFalse(tombstone.exists());
+  }
+
+  @Test
+  public void testSweep() throws Exception {
+    final File first = BackgroundDeleter.bury(this.tempFolder.newFolder("first"));
+    final File second = BackgroundDeleter.bury(this.tempFolder.newFolder("second"));
+    makeTree(second);
+    final File other = this.tempFolder.newFolder("other");
+
+    final List<CompletableFuture<Void>> futures =
+        BackgroundDeleter.sweep(this.tempFolder.getRoot());
+    assertEquals(2, futures.size());
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+
+    assertFalse(first.exists());
+    assertFalse(second.exists());
+    assertTrue(other.isDirectory());
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Test;
+
+public class BufferedLogTest {
+
+  @Test
+  public void testRecordsAreWrittenOnlyOnFlush() {
+    final List<String> written = new ArrayList<>();
+    final Log target = (Log) Proxy.newProxyInstance(Log.class.getClassLoader(),
+        new Class<?>[] {Log.class}, (proxy, method, args) -> {
+          if (method.getName().startsWith("is")) {
+            return true;
+          }
+          written.add(method.getName() + ':' + args[0] + ':' + (args[1] != null));
+          return null;
+        });
+
+    final BufferedLog log = new BufferedLog(target);
+    assertTrue(log.isDebugEnabled());
+    log.debug("first");
+    log.info("second");
+    log.warn("third");
+    log.error("fourth", new RuntimeException("test"));
+    assertTrue(written.isEmpty());
+
+    log.flush();
+    assertEquals(Arrays.asList("debug:first:false", "info:second:false", "warn:third:false",
+        "error:fourth:true"), written);
+
+    log.flush();
+    assertEquals(4, written.size());
+  }
+}
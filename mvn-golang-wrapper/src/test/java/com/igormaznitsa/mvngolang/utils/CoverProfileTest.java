@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.Test;
+
+public class CoverProfileTest {
+
+  private static String write(final CoverProfile profile) throws IOException {
+    final StringWriter writer = new StringWriter();
+    profile.write(writer);
+    return writer.toString();
+  }
+
+  @Test
+  public void testMergeCountMode() throws Exception {
+    final CoverProfile profile = new CoverProfile();
+    profile.read(new StringReader("mode: count\n"
+        + "example.com/a/b.go:10.2,12.3 2 1\n"
+        + "example.com/a/a.go:3.14,5.2 1 0\n"));
+    profile.read(new StringReader("mode: count\n"
+        + "example.com/a/a.go:3.14,5.2 1 4\n"
+        + "example.com/a/b.go:1.1,2.2 3 0\n"
+        + "example.com/a/b.go:10.2,12.3 2 2\n"));
+
+    assertEquals(2, profile.getFileCount());
+    assertEquals(3L, profile.getBlockCount());
+    assertEquals("mode: count\n"
+        + "example.com/a/a.go:3.14,5.2 1 4\n"
+        + "example.com/a/b.go:1.1,2.2 3 0\n"
+        + "example.com/a/b.go:10.2,12.3 2 3\n", write(profile));
+    assertEquals(50.0d, profile.getCoveredPercent(), 0.001d);
+  }
+
+  @Test
+  public void testMergeSetMode() throws Exception {
+    final CoverProfile profile = new CoverProfile();
+    profile.read(new StringReader("mode: set\nc:/x/a.go:1.1,2.2 1 1\nc:/x/a.go:3.1,4.2 1 0\n"));
+    profile.read(new StringReader("mode: set\nc:/x/a.go:1.1,2.2 1 1\nc:/x/a.go:3.1,4.2 1 1\n"));
+    assertEquals("mode: set\nc:/x/a.go:1.1,2.2 1 1\nc:/x/a.go:3.1,4.2 1 1\n", write(profile));
+  }
+
+  @Test
+  public void testManyBlocks() throws Exception {
+    final StringBuilder text = new StringBuilder("mode: atomic\n");
+    for (int i = 0; i < 10000; i++) {
+      text.append("a.go:").append(i).append(".1,").append(i).append(".10 1 1\n");
+    }
+    final CoverProfile profile = new CoverProfile();
+    profile.read(new StringReader(text.toString()));
+    profile.read(new StringReader(text.toString()));
+    assertEquals(10000L, profile.getBlockCount());
+
+    final CoverProfile other = new CoverProfile();
+    other.merge(profile);
+    assertEquals(write(profile), write(other));
+    assertEquals(100.0d, other.getCoveredPercent(), 0.001d);
+  }
+
+  @Test
+  public void testSummary() throws Exception {
+    final CoverProfile profile = new CoverProfile();
+    profile.read(new StringReader("mode: set\na.go:1.1,2.2 3 1\na.go:3.1,4.2 1 0\n"));
+    final StringWriter writer = new StringWriter();
+    profile.writeSummary(writer);
+    final String[] lines = writer.toString().split("\\R");
+    assertEquals(2, lines.length);
+    assertEquals("a.go\t3/4\t" + String.format("%.1f%%", 75.0d), lines[0]);
+    assertEquals("total:\t3/4\t" + String.format("%.1f%%", 75.0d), lines[1]);
+  }
+
+  @Test(expected = IOException.class)
+  public void testErrorForWrongLine() throws Exception {
+    new CoverProfile().read(new StringReader("mode: set\na.go:1.1 3 1\n"));
+  }
+
+  @Test(expected = IOException.class)
+  public void testErrorForMissingMode() throws Exception {
+    new CoverProfile().read(new StringReader("a.go:1.1,2.2 3 1\n"));
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CpuTokenPoolTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static CompletableFuture<CpuTokenPool.Grant> acquireAsync(
+      final CpuTokenPool pool, final int wanted) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return pool.acquire(wanted);
+      } catch (Exception ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+  }
+
+  private static void assertWaiting(final CompletableFuture<?> future) throws Exception {
+    try {
+      future.get(300L, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      return;
+    }
+    throw new AssertionError("Must wait for tokens");
+  }
+
+  @Test
+  public void testFind() {
+    final File folder = this.tempFolder.getRoot();
+    assertSame(CpuTokenPool.find(3, null), CpuTokenPool.find(3, null));
+    assertSame(CpuTokenPool.find(3, folder), CpuTokenPool.find(3, folder));
+    assertNotSame(CpuTokenPool.find(3, null), CpuTokenPool.find(3, folder));
+  }
+
+  @Test
+  public void testAcquireAndRelease() throws Exception {
+    final CpuTokenPool pool = new CpuTokenPool(4, null);
+
+    final CpuTokenPool.Grant first = pool.acquire(3);
+    assertEquals(3, first.getTokens());
+    final CpuTokenPool.Grant second = pool.acquire(3);
+    assertEquals(1, second.getTokens());
+
+    final CompletableFuture<CpuTokenPool.Grant> third = acquireAsync(pool, 0);
+    assertWaiting(third);
+
+    first.close();
+    first.close();
+    assertEquals(1, third.get(5L, TimeUnit.SECONDS).getTokens());
+    assertEquals(2, pool.acquire(10).getTokens());
+  }
+
+  @Test
+  public void testTokensSharedThroughFolder() throws Exception {
+    final File folder = this.tempFolder.newFolder("tokens");
+    final CpuTokenPool pool = new CpuTokenPool(2, folder);
+    final CpuTokenPool other = new CpuTokenPool(2, folder);
+
+    final CpuTokenPool.Grant grant = pool.acquire(2);
+    assertEquals(2, grant.getTokens());
+
+    final CompletableFuture<CpuTokenPool.Grant> waiting = acquireAsync(other, 2);
+    assertWaiting(waiting);
+
+    grant.close();
+    // tokens are released one by one so that the other pool can take only part of them
+    final CpuTokenPool.Grant otherGrant = waiting.get(5L, TimeUnit.SECONDS);
+    assertTrue(otherGrant.getTokens() >= 1);
+    otherGrant.close();
+  }
+}
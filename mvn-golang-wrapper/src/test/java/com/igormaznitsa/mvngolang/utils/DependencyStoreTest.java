@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DependencyStoreTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testArchiveUnpackedOnce() throws Exception {
+    final File archive = tempFolder.newFile("some.zip");
+    FileUtils.writeStringToFile(archive, "content", StandardCharsets.UTF_8);
+
+    final DependencyStore store = new DependencyStore(tempFolder.newFolder("store"));
+    final AtomicInteger counter = new AtomicInteger();
+    final DependencyStore.Unpacker unpacker = (arch, folder) -> {
+      counter.incrementAndGet();
+      FileUtils.writeStringToFile(new File(folder, "src/a.go"), "package a",
+          StandardCharsets.UTF_8);
+    };
+
+    final File first = store.findOrUnpack(archive, unpacker);
+    final File second = store.findOrUnpack(archive, unpacker);
+
+    assertEquals(1, counter.get());
+    assertEquals(first, second);
+    assertEquals(DependencyStore.sha256(archive), first.getName());
+    final File unpacked = new File(first, "src/a.go");
+    assertTrue(unpacked.isFile());
+    if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+      assertFalse(Files.getPosixFilePermissions(unpacked.toPath())
+          .contains(PosixFilePermission.OWNER_WRITE));
+    }
+  }
+
+  @Test
+  public void testGarbageCollection() throws Exception {
+    final File archive = tempFolder.newFile("some.zip");
+    FileUtils.writeStringToFile(archive, "content", StandardCharsets.UTF_8);
+
+    final File storeFolder = tempFolder.newFolder("store");
+    final DependencyStore store = new DependencyStore(storeFolder);
+    final File unpacked = store.findOrUnpack(archive,
+        (arch, folder) -> FileUtils.writeStringToFile(new File(folder, "a.go"), "package a",
+            StandardCharsets.UTF_8));
+
+    assertEquals(0, store.collectGarbage(60000L));
+    assertTrue(unpacked.isDirectory());
+
+    assertTrue(new File(storeFolder, ".gc").delete());
+    assertTrue(new File(storeFolder, unpacked.getName() + ".ref")
+        .setLastModified(System.currentTimeMillis() - 120000L));
+    assertEquals(1, store.collectGarbage(60000L));
+    assertFalse(unpacked.exists());
+  }
+
+  @Test
+  public void testGarbageCollectionWithStaleTombstone() throws Exception {
+    final File archive = tempFolder.newFile("some.zip");
+    FileUtils.writeStringToFile(archive, "content", StandardCharsets.UTF_8);
+
+    final File storeFolder = tempFolder.newFolder("store");
+    final DependencyStore store = new DependencyStore(storeFolder);
+    final File unpacked = store.findOrUnpack(archive,
+        (arch, folder) -> FileUtils.writeStringToFile(new File(folder, "a.go"), "package a",
+            StandardCharsets.UTF_8));
+
+    // tombstone left by crashed collection for the same folder
+    final File stale = new File(storeFolder, ".del-" + unpacked.getName());
+    FileUtils.writeStringToFile(new File(stale, "a.go"), "package a", StandardCharsets.UTF_8);
+
+    assertTrue(new File(storeFolder, unpacked.getName() + ".ref")
+        .setLastModified(System.currentTimeMillis() - 120000L));
+    assertEquals(2, store.collectGarbage(60000L));
+    assertFalse(unpacked.exists());
+    assertFalse(stale.exists());
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileLocksTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testThreadsAreExcluded() throws Exception {
+    final File lockFile = new File(this.tempFolder.getRoot(), "sub/folder/test.lock");
+    final AtomicInteger inside = new AtomicInteger();
+    final AtomicInteger maxInside = new AtomicInteger();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        final int index = i;
+        // the same path through different file objects must give the same lock
+        final File file = i % 2 == 0 ? lockFile : new File(lockFile.getPath());
+        futures.add(executor.submit(() -> FileLocks.locked(file, () -> {
+          maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+          Thread.yield();
+          inside.decrementAndGet();
+          return index;
+        })));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        assertEquals(i, futures.get(i).get().intValue());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(1, maxInside.get());
+    assertTrue(lockFile.isFile());
+  }
+}
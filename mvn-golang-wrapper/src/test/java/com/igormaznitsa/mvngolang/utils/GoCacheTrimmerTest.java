@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GoCacheTrimmerTest {
+
+  private static final long DAY = TimeUnit.DAYS.toMillis(1L);
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static File makeFile(@Nonnull final File file, final int size, final long daysAgo)
+      throws Exception {
+    assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+    final byte[] data = new byte[size];
+    Arrays.fill(data, (byte) 'a');
+    Files.write(file.toPath(), data);
+    setTime(file, daysAgo);
+    return file;
+  }
+
+  private static void setTime(@Nonnull final File file, final long daysAgo) throws Exception {
+    final FileTime time = FileTime.fromMillis(System.currentTimeMillis() - daysAgo * DAY);
+    Files.getFileAttributeView(file.toPath(), BasicFileAttributeView.class)
+        .setTimes(time, time, null);
+  }
+
+  @Nonnull
+  private static File makeModule(@Nonnull final File modCache, @Nonnull final String module,
+                                 @Nonnull final String version, final long daysAgo)
+      throws Exception {
+    final File versions = new File(modCache, ("cache/download/" + module + "/@v")
+        .replace('/', File.separatorChar));
+    makeFile(new File(versions, version + ".info"), 10, daysAgo);
+    makeFile(new File(versions, version + ".mod"), 10, daysAgo);
+    makeFile(new File(versions, version + ".zip"), 100, daysAgo);
+    final File extracted =
+        new File(modCache, module.replace('/', File.separatorChar) + '@' + version);
+    makeFile(new File(extracted, "lib.go"), 100, daysAgo);
+    setTime(extracted, daysAgo);
+    return extracted;
+  }
+
+  @Test
+  public void testTrimByAgeKeepsProtectedModules() throws Exception {
+    final File goCache = this.tempFolder.newFolder("gocache");
+    final File modCache = this.tempFolder.newFolder("gomodcache");
+
+    final File oldBuild = makeFile(new File(goCache, "0a" + File.separatorChar + "0a01-d"), 10, 40);
+    final File newBuild = makeFile(new File(goCache, "ff" + File.separatorChar + "ff01-d"), 10, 1);
+    final File readme = makeFile(new File(goCache, "README"), 10, 40);
+
+    final File oldModule = makeModule(modCache, "github.com/some/old", "v1.0.0", 40);
+    final File oldProtected = makeModule(modCache, "github.com/!some/lib", "v1.2.0", 40);
+    final File newModule = makeModule(modCache, "github.com/some/new", "v2.0.0", 1);
+    assertTrue(oldModule.setWritable(false));
+
+    final File goSum = makeFile(this.tempFolder.newFile("go.sum"), 0, 0);
+    Files.write(goSum.toPath(), Arrays.asList(
+        "github.com/Some/lib v1.2.0 h1:aaa=",
+        "github.com/Some/lib v1.2.0/go.mod h1:bbb="), StandardCharsets.UTF_8);
+
+    final GoCacheTrimmer trimmer = new GoCacheTrimmer(30 * DAY, 0L, 4);
+    trimmer.protectGoSum(goSum);
+    final GoCacheTrimmer.Result result = trimmer.trim(goCache, modCache);
+
+    assertEquals(5, result.getEntries());
+    assertEquals(2, result.getRemovedEntries());
+    assertEquals(230L, result.getRemovedSize());
+
+    assertFalse(oldBuild.exists());
+    assertTrue(newBuild.isFile());
+    assertTrue(readme.isFile());
+    assertFalse(oldModule.exists());
+    assertFalse(new File(modCache, "cache/download/github.com/some/old/@v/v1.0.0.zip".replace(
+        '/', File.separatorChar)).exists());
+    assertTrue(oldProtected.isDirectory());
+    assertTrue(newModule.isDirectory());
+  }
+
+  @Test
+  public void testFolderAccessDoesNotMarkModuleUsed() throws Exception {
+    final File modCache = this.tempFolder.newFolder("gomodcache");
+    final File module = makeModule(modCache, "github.com/some/old", "v1.0.0", 40);
+
+    GoCacheTrimmer.Result result = new GoCacheTrimmer(60 * DAY, 0L, 2).trim(null, modCache);
+    assertEquals(0, result.getRemovedEntries());
+    assertTrue(module.isDirectory());
+
+    // listing of folders during the first scan updates their access time
+    final FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+    for (final File folder : Arrays.asList(module, modCache, module.getParentFile())) {
+      Files.getFileAttributeView(folder.toPath(), BasicFileAttributeView.class)
+          .setTimes(null, now, null);
+    }
+
+    result = new GoCacheTrimmer(30 * DAY, 0L, 2).trim(null, modCache);
+    assertEquals(1, result.getRemovedEntries());
+    assertFalse(module.exists());
+  }
+
+  @Test
+  public void testTrimBySizeRemovesLeastRecentlyUsed() throws Exception {
+    final File goCache = this.tempFolder.newFolder("gocache");
+    final File first = makeFile(new File(goCache, "01" + File.separatorChar + "a-d"), 100, 3);
+    final File second = makeFile(new File(goCache, "02" + File.separatorChar + "b-d"), 100, 2);
+    final File third = makeFile(new File(goCache, "03" + File.separatorChar + "c-d"), 100, 1);
+
+    final GoCacheTrimmer.Result result = new GoCacheTrimmer(0L, 150L, 2).trim(goCache, null);
+    assertEquals(300L, result.getSize());
+    assertEquals(200L, result.getRemovedSize());
+
+    assertFalse(first.exists());
+    assertFalse(second.exists());
+    assertTrue(third.isFile());
+  }
+}
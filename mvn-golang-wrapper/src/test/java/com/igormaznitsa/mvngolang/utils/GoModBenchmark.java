@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Comparison of the regex based go.mod parser with the lexer of {@link GoMod}.
+ * It is not started by surefire, run it from test classpath after
+ * <code>mvn test-compile</code> through {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoModBenchmark {
+
+  @Param({"20", "5000"})
+  public int requires;
+
+  private String text;
+
+  public static void main(final String... args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(GoModBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  @Setup
+  public void setup() {
+    final StringBuilder buffer = new StringBuilder("// generated module\n"
+        + "module example.com/big\n\n"
+        + "go 1.18\n\n"
+        + "require (\n");
+    for (int i = 0; i < this.requires; i++) {
+      buffer.append("\texample.com/dep").append(i).append(" v1.0.").append(i)
+          .append(i % 3 == 0 ? " // indirect\n" : "\n");
+    }
+    buffer.append(")\n\n");
+    for (int i = 0; i < this.requires; i += 10) {
+      buffer.append("replace example.com/dep").append(i).append(" => ../dep").append(i)
+          .append('\n');
+    }
+    this.text = buffer.toString();
+  }
+
+  @Benchmark
+  public List<GoMod.GoModItem> legacyRegexParser() {
+    return LegacyGoModParser.parse(this.text);
+  }
+
+  @Benchmark
+  public GoMod lexerParser() {
+    return GoMod.from(this.text);
+  }
+}
@@ -17,8 +17,12 @@
 package com.igormaznitsa.mvngolang.utils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.Test;
 
@@ -197,4 +201,128 @@ public class GoModTest {
     assertModules(GoMod.from("module \"example.com/hello\" // huzzaa"), "example.com/hello");
   }
 
+  @Test
+  public void testNewDirectives() {
+    final GoMod model = GoMod.from("module example.com/m\n"
+        + "\n"
+        + "go 1.21\n"
+        + "toolchain go1.21.4\n"
+        + "godebug (\n"
+        + "  default=go1.21\n"
+        + "  panicnil=1 // old behaviour\n"
+        + ")\n"
+        + "retract v1.0.1 // broken\n"
+        + "retract [v1.1.0, v1.1.9]\n");
+    assertEquals(7, model.size());
+    assertEquals("1.21", model.find(GoMod.GoVersion.class).get(0).getVersion());
+    assertEquals("go1.21.4", model.find(GoMod.GoToolchain.class).get(0).getName());
+    final List<GoMod.GoDebug> debugs = model.find(GoMod.GoDebug.class);
+    assertEquals(2, debugs.size());
+    assertEquals("default", debugs.get(0).getKey());
+    assertEquals("go1.21", debugs.get(0).getValue());
+    assertEquals("old behaviour", debugs.get(1).getComment());
+    final List<GoMod.GoRetract> retracts = model.find(GoMod.GoRetract.class);
+    assertEquals("[v1.1.0, v1.1.9]", retracts.get(0).getVersion());
+    assertEquals("v1.0.1", retracts.get(1).getVersion());
+    assertEquals("broken", retracts.get(1).getComment());
+
+    assertEquals("module example.com/m\n"
+        + "go 1.21\n"
+        + "toolchain go1.21.4\n"
+        + "retract [v1.1.0, v1.1.9]\n"
+        + "retract v1.0.1\n"
+        + "godebug default=go1.21\n"
+        + "godebug panicnil=1", model.toString());
+  }
+
+  @Test
+  public void testCustomDirectiveKeepsPreviousItems() {
+    final GoMod model = GoMod.from("module example.com/m\n"
+        + "require example.com/a v1.0.0\n"
+        + "unknown ( some // comment\n"
+        + "  other\n"
+        + ")\n"
+        + "require example.com/b v1.0.0\n");
+    assertEquals(5, model.size());
+    assertModules(model, "example.com/m");
+    assertEquals(2, model.find(GoMod.GoRequire.class).size());
+    assertEquals(2, model.find(GoMod.GoCustom.class).size());
+  }
+
+  @Test
+  public void testSourceRoundTrip() {
+    final String text = "// header comment\n"
+        + "module example.com/me/hello\n"
+        + "\n"
+        + "require (\n"
+        + "\texample.com/me/goodbye v0.0.0 // indirect\n"
+        + "\t\"rsc.io/quote\" v1.5.2\n"
+        + ")\n";
+    final GoMod model = GoMod.from(text);
+    assertEquals(text, model.toSource());
+    assertTrue(model.hasRequireFor("rsc.io/quote", "v1.5.2"));
+    assertEquals("indirect", model.find(GoMod.GoRequire.class).get(0).getComment());
+
+    model.addItem(new GoMod.GoReplace(new GoMod.ModuleInfo("example.com/me/goodbye"),
+        new GoMod.ModuleInfo("../goodbye")));
+    assertEquals(text + "replace example.com/me/goodbye => ../goodbye\n", model.toSource());
+    assertEquals(model, GoMod.from(model.toSource()));
+  }
+
+  @Test
+  public void testLargeFile() {
+    final StringBuilder text = new StringBuilder("module example.com/big\n\nrequire (\n");
+    for (int i = 0; i < 5000; i++) {
+      text.append("\texample.com/dep").append(i).append(" v1.0.").append(i).append(" // indirect\n");
+    }
+    text.append(")\n");
+    final GoMod model = GoMod.from(text.toString());
+    assertEquals(5001, model.size());
+    assertTrue(model.hasRequireFor("example.com/dep4999", "v1.0.4999"));
+    assertEquals(text.toString(), model.toSource());
+  }
+
+  @Test
+  public void testIndexedLookupAndBatchAdd() {
+    final GoMod model = GoMod.from("module example.com/hello\n"
+        + "require (\n\texample.com/b v1.0.0\n\texample.com/a v1.2.0\n)\n");
+    assertTrue(model.hasRequireFor("example.com/a", null));
+    assertTrue(model.hasRequireFor("example.com/a", "v1.2.0"));
+    assertFalse(model.hasRequireFor("example.com/a", "v1.0.0"));
+    assertFalse(model.hasReplaceFor("example.com/a", null));
+    assertEquals(Arrays.asList("example.com/a", "example.com/b"),
+        new ArrayList<>(model.getRequiredModules()));
+
+    model.addItems(Arrays.asList(
+        new GoMod.GoReplace(new GoMod.ModuleInfo("example.com/b"), new GoMod.ModuleInfo("../b")),
+        new GoMod.GoReplace(new GoMod.ModuleInfo("example.com/a"), new GoMod.ModuleInfo("../a"))));
+    assertTrue(model.hasReplaceFor("example.com/a", null));
+    assertTrue(model.hasReplaceFor("example.com/b", null));
+    assertEquals(5, model.size());
+    assertEquals("example.com/hello", model.getModule());
+    assertEquals(model, GoMod.from(model.toSource()));
+    assertTrue(model.toString().indexOf("example.com/a => ../a")
+        < model.toString().indexOf("example.com/b => ../b"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testErrorForUnclosedString() {
+    GoMod.from("module \"example.com/hello\n");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testErrorForReplaceWithoutTarget() {
+    GoMod.from("replace example.com/a v1.0.0");
+  }
+
+  @Test
+  public void testGoVersionCompare() {
+    assertEquals(0, GoMod.GoVersion.compare("1.18", "1.18"));
+    assertEquals(0, GoMod.GoVersion.compare("1.18", "1.18.0"));
+    assertTrue(GoMod.GoVersion.compare("1.9", "1.18") < 0);
+    assertTrue(GoMod.GoVersion.compare("1.21.3", "1.21") > 0);
+    assertTrue(GoMod.GoVersion.compare("1.22rc1", "1.22") < 0);
+    assertTrue(GoMod.GoVersion.compare("1.22rc2", "1.22rc1") > 0);
+    assertTrue(GoMod.GoVersion.compare("2", "1.99") > 0);
+  }
 }
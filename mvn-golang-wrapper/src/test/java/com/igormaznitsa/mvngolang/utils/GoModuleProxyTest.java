@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GoModuleProxyTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testEscape() {
+    assertEquals("github.com/!azure/azure-sdk", GoModuleProxy.escape("github.com/Azure/azure-sdk"));
+    assertEquals("v1.0.0-!r!c1", GoModuleProxy.escape("v1.0.0-RC1"));
+    assertEquals("github.com/!burnt!sushi/toml",
+        GoModuleProxy.escape("github.com/BurntSushi/toml"));
+    assertEquals("v1.0.0", GoModuleProxy.escape("v1.0.0"));
+  }
+
+  @Test
+  public void testAddModule() throws Exception {
+    final File module = this.tempFolder.newFolder("dep");
+    FileUtils.write(new File(module, "go.mod"), "module example.com/dep\n", StandardCharsets.UTF_8);
+    FileUtils.write(new File(module, "dep.go"), "package dep\n", StandardCharsets.UTF_8);
+    FileUtils.write(new File(module, ".#go.mod.mvn.orig"), "backup", StandardCharsets.UTF_8);
+    FileUtils.write(new File(module, ".git/config"), "git", StandardCharsets.UTF_8);
+    FileUtils.write(new File(module, "nested/go.mod"), "module example.com/dep/nested\n",
+        StandardCharsets.UTF_8);
+
+    final File proxyFolder = new File(this.tempFolder.getRoot(), "proxy");
+    final GoModuleProxy proxy = new GoModuleProxy(proxyFolder);
+    proxy.addModule("example.com/dep", "v1.0.0", module, 0L);
+    proxy.writeLists();
+
+    final File versionFolder = new File(proxyFolder, "example.com/dep/@v");
+    assertEquals("v1.0.0\n",
+        FileUtils.readFileToString(new File(versionFolder, "list"), StandardCharsets.UTF_8));
+    assertEquals("{\"Version\":\"v1.0.0\",\"Time\":\"1970-01-01T00:00:00Z\"}",
+        FileUtils.readFileToString(new File(versionFolder, "v1.0.0.info"), StandardCharsets.UTF_8));
+    assertEquals("module example.com/dep\n",
+        FileUtils.readFileToString(new File(versionFolder, "v1.0.0.mod"), StandardCharsets.UTF_8));
+
+    final List<String> names = new ArrayList<>();
+    try (final ZipFile zip = new ZipFile(new File(versionFolder, "v1.0.0.zip"))) {
+      for (final ZipEntry e : Collections.list(zip.entries())) {
+        names.add(e.getName());
+      }
+    }
+    assertEquals(
+        Arrays.asList("example.com/dep@v1.0.0/dep.go", "example.com/dep@v1.0.0/go.mod"), names);
+
+    assertEquals(Arrays.asList(
+        "example.com/dep v1.0.0 h1:Pva7JEkl0a3W2/OuPIzQ10VfYFeyh0/bkh/n5Rdh3/0=",
+        "example.com/dep v1.0.0/go.mod h1:mhh2qvuaNXbD3WzHShoyLc7Bf3qxrveNlTFLAYg2RJ8="),
+        new ArrayList<>(proxy.getSumRecords()));
+    assertEquals(Collections.singleton("example.com/dep"), proxy.getModules());
+  }
+
+  @Test
+  public void testMakeGoProxyValue() {
+    final GoModuleProxy proxy = new GoModuleProxy(new File(this.tempFolder.getRoot(), "proxy"));
+    final String url = proxy.makeGoProxyValue("");
+    assertTrue(url.startsWith("file:///"));
+    assertTrue(url.endsWith("/proxy"));
+    assertEquals(url + ",https://proxy.golang.org,direct",
+        proxy.makeGoProxyValue("https://proxy.golang.org,direct"));
+  }
+}
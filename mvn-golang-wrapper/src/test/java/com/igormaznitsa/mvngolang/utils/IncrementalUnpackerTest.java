@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalUnpackerTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static void makeZip(final File file, final String... nameAndText) throws IOException {
+    try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+      for (int i = 0; i < nameAndText.length; i += 2) {
+        out.putNextEntry(new ZipEntry(nameAndText[i]));
+        out.write(nameAndText[i + 1].getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+      }
+    }
+  }
+
+  @Test
+  public void testIncrementalUnpack() throws Exception {
+    final File zip = tempFolder.newFile("dep.zip");
+    final File folder = new File(tempFolder.getRoot(), "dep");
+    final IncrementalUnpacker.MapperProvider identity = z -> Collections::singletonList;
+
+    makeZip(zip, "a/a.go", "package a", "b/b.go", "package b", "c/c.go", "package c");
+    IncrementalUnpacker.Statistics stat = IncrementalUnpacker.unpack(zip, folder, identity);
+    assertEquals(3, stat.getWritten());
+    assertTrue(new File(folder, IncrementalUnpacker.STAMP_FILE).isFile());
+
+    stat = IncrementalUnpacker.unpack(zip, folder, identity);
+    assertTrue(stat.isUpToDate());
+
+    makeZip(zip, "a/a.go", "package a", "b/b.go", "package bb", "d/d.go", "package d");
+    stat = IncrementalUnpacker.unpack(zip, folder, identity);
+    assertFalse(stat.isUpToDate());
+    assertEquals(2, stat.getWritten());
+    assertEquals(1, stat.getSkipped());
+    assertEquals(1, stat.getDeleted());
+
+    assertEquals("package bb",
+        FileUtils.readFileToString(new File(folder, "b/b.go"), StandardCharsets.UTF_8));
+    assertTrue(new File(folder, "d/d.go").isFile());
+    assertFalse(new File(folder, "c").exists());
+  }
+
+  @Test
+  public void testRestoreChangedFiles() throws Exception {
+    final File zip = tempFolder.newFile("dep.zip");
+    final File folder = new File(tempFolder.getRoot(), "dep");
+    final IncrementalUnpacker.MapperProvider identity = z -> Collections::singletonList;
+
+    makeZip(zip, "go.mod", "module a", "src/a.go", "package a", "src/b/b.go", "package b",
+        "src/c/c/c.go", "package c");
+    IncrementalUnpacker.unpack(zip, folder, identity);
+
+    assertTrue(new File(folder, "src/b/b.go").delete());
+    IncrementalUnpacker.Statistics stat = IncrementalUnpacker.unpack(zip, folder, identity);
+    assertFalse(stat.isUpToDate());
+    assertEquals(1, stat.getWritten());
+    assertEquals(3, stat.getSkipped());
+    assertEquals("package b",
+        FileUtils.readFileToString(new File(folder, "src/b/b.go"), StandardCharsets.UTF_8));
+
+    // the same size, detected by CRC of top-level files
+    FileUtils.write(new File(folder, "go.mod"), "module b", StandardCharsets.UTF_8);
+    FileUtils.write(new File(folder, "src/a.go"), "package b", StandardCharsets.UTF_8);
+    stat = IncrementalUnpacker.unpack(zip, folder, identity);
+    assertFalse(stat.isUpToDate());
+    assertEquals(2, stat.getWritten());
+    assertEquals("module a",
+        FileUtils.readFileToString(new File(folder, "go.mod"), StandardCharsets.UTF_8));
+    assertEquals("package a",
+        FileUtils.readFileToString(new File(folder, "src/a.go"), StandardCharsets.UTF_8));
+
+    FileUtils.write(new File(folder, "src/c/c/c.go"), "package cc", StandardCharsets.UTF_8);
+    stat = IncrementalUnpacker.unpack(zip, folder, identity);
+    assertEquals(1, stat.getWritten());
+    assertEquals("package c",
+        FileUtils.readFileToString(new File(folder, "src/c/c/c.go"), StandardCharsets.UTF_8));
+
+    assertTrue(IncrementalUnpacker.unpack(zip, folder, identity).isUpToDate());
+  }
+
+  @Test
+  public void testMappedNames() throws Exception {
+    final File zip = tempFolder.newFile("dep.zip");
+    final File folder = new File(tempFolder.getRoot(), "dep");
+    makeZip(zip, "x/a.go", "package a", "y/b.go", "package b");
+
+    final IncrementalUnpacker.Statistics stat = IncrementalUnpacker.unpack(zip, folder,
+        z -> name -> name.startsWith("x/") ? Collections.singletonList("src/" + name.substring(2))
+            : Collections.emptyList());
+    assertEquals(1, stat.getWritten());
+    assertTrue(new File(folder, "src/a.go").isFile());
+    assertFalse(new File(folder, "src/b.go").exists());
+  }
+
+  @Test
+  public void testParallelWrite() throws Exception {
+    final File zip = tempFolder.newFile("dep.zip");
+    final File folder = new File(tempFolder.getRoot(), "dep");
+    final String[] content = new String[200];
+    for (int i = 0; i < content.length; i += 2) {
+      content[i] = "p" + (i % 7) + "/f" + i + ".go";
+      content[i + 1] = "package p" + i;
+    }
+    makeZip(zip, content);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final IncrementalUnpacker.Statistics stat = IncrementalUnpacker.unpack(zip, folder,
+          z -> Collections::singletonList, executor);
+      assertEquals(100, stat.getWritten());
+    } finally {
+      executor.shutdown();
+    }
+    for (int i = 0; i < content.length; i += 2) {
+      assertEquals(content[i + 1],
+          FileUtils.readFileToString(new File(folder, content[i]), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testErrorForEntryOutsideFolder() throws Exception {
+    final File zip = tempFolder.newFile("dep.zip");
+    makeZip(zip, "../a.go", "package a");
+    IncrementalUnpacker.unpack(zip, new File(tempFolder.getRoot(), "dep"),
+        z -> Collections::singletonList);
+  }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import com.igormaznitsa.mvngolang.utils.GoMod.GoCustom;
+import com.igormaznitsa.mvngolang.utils.GoMod.GoExclude;
+import com.igormaznitsa.mvngolang.utils.GoMod.GoModItem;
+import com.igormaznitsa.mvngolang.utils.GoMod.GoModule;
+import com.igormaznitsa.mvngolang.utils.GoMod.GoReplace;
+import com.igormaznitsa.mvngolang.utils.GoMod.GoRequire;
+import com.igormaznitsa.mvngolang.utils.GoMod.ModuleInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+
+/**
+ * Regex based parser of go.mod used before 2.3.10, kept only as baseline for
+ * {@link GoModBenchmark}.
+ */
+final class LegacyGoModParser {
+
+  private static final Pattern TOKENIZER =
+      Pattern.compile("(\\/\\/|\\\"[^\\\"]+\\\"|[<>=\\w.+\\-/\\\\]+|[<>=-]+|\\(|\\)|[\\s\\n]+)");
+
+  private LegacyGoModParser() {
+
+  }
+
+  @Nonnull
+  private static String ensureNoQuoting(@Nonnull final String text) {
+    return text.startsWith("\"") ? text.substring(1, text.length() - 1) : text;
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private static List<ModuleInfo> extractModuleInfo(
+      @Nonnull @MustNotContainNull final List<String> tokens,
+      @Nonnull @MustNotContainNull final String... separators) {
+    final List<ModuleInfo> result = new ArrayList<>();
+    final List<String> tokenBuffer = new ArrayList<>(tokens);
+    final List<String> accum = new ArrayList<>();
+
+    while (!tokenBuffer.isEmpty()) {
+      final String next = tokenBuffer.remove(0);
+      boolean separator = false;
+      for (final String s : separators) {
+        if (s.equals(next)) {
+          separator = true;
+          break;
+        }
+      }
+      if (separator) {
+        switch (accum.size()) {
+          case 1: {
+            result.add(new ModuleInfo(accum.remove(0)));
+          }
+          break;
+          case 2: {
+            final String name = accum.remove(0);
+            final String version = accum.remove(0);
+            result.add(new ModuleInfo(name, version));
+          }
+          break;
+          default:
+            throw new IllegalArgumentException("Can't extract module info from tokens: " + tokens);
+        }
+      } else {
+        accum.add(next);
+      }
+    }
+
+    switch (accum.size()) {
+      case 1: {
+        result.add(new ModuleInfo(accum.remove(0)));
+      }
+      break;
+      case 2: {
+        final String name = accum.remove(0);
+        final String version = accum.remove(0);
+        result.add(new ModuleInfo(name, version));
+      }
+      break;
+      default:
+        throw new IllegalArgumentException("Can't extract module info from tokens: " + tokens);
+    }
+
+    return result;
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  static List<GoModItem> parse(@Nonnull final String str) {
+    final List<GoModItem> foundItems = new ArrayList<>();
+
+    final Matcher matcher = TOKENIZER.matcher(str);
+
+    ParserState state = ParserState.FIND;
+
+    boolean findEol = false;
+    boolean bracket = false;
+
+    final List<String> tokenList = new ArrayList<>();
+
+    String customTokenName = null;
+
+    while (matcher.find()) {
+      final String token = matcher.group(1);
+      if (findEol) {
+        if (token.contains("\n")) {
+          findEol = false;
+          state = bracket ? state : ParserState.FIND;
+        }
+      } else {
+        switch (state) {
+          case FIND: {
+            tokenList.clear();
+            switch (token) {
+              case "module": {
+                state = ParserState.MODULE;
+              }
+              break;
+              case "exclude": {
+                state = ParserState.EXCLUDE;
+              }
+              break;
+              case "replace": {
+                state = ParserState.REPLACE;
+              }
+              break;
+              case "require": {
+                state = ParserState.REQUIRE;
+              }
+              break;
+              default: {
+                if ("//".equals(token)) {
+                  findEol = true;
+                } else if (!token.trim().isEmpty()) {
+                  state = ParserState.CUSTOM;
+                  customTokenName = token;
+                }
+              }
+              break;
+            }
+          }
+          break;
+          case CUSTOM: {
+            if ("//".equals(token)) {
+              if (!bracket) {
+                foundItems.add(new GoCustom(customTokenName, tokenList.toArray(new String[0])));
+                foundItems.clear();
+                customTokenName = null;
+                state = ParserState.FIND;
+              }
+            } else {
+              if ("(".equals(token)) {
+                if (bracket) {
+                  throw new IllegalArgumentException("Duplicated opening bracket in " + state);
+                }
+                bracket = true;
+              } else if (")".equals(token)) {
+                if (!bracket) {
+                  throw new IllegalArgumentException("Unexpected closing bracket in " + state);
+                }
+                bracket = false;
+                foundItems.add(new GoCustom(customTokenName, tokenList.toArray(new String[0])));
+                foundItems.clear();
+                customTokenName = null;
+                state = ParserState.FIND;
+              } else if (token.contains("\n")) {
+                if (!bracket) {
+                  state = ParserState.FIND;
+                  foundItems.add(new GoCustom(customTokenName, tokenList.toArray(new String[0])));
+                }
+              } else {
+                if (!token.trim().isEmpty()) {
+                  tokenList.add(token);
+                }
+              }
+            }
+          }
+          break;
+          case MODULE:
+          case EXCLUDE:
+          case REPLACE:
+          case REQUIRE: {
+            if ("(".equals(token)) {
+              if (bracket) {
+                throw new IllegalArgumentException("Duplicated opening bracket in " + state);
+              }
+              if (!tokenList.isEmpty()) {
+                throw new IllegalArgumentException(
+                    "Unexpected tokens " + tokenList + " before bracket in " + state);
+              }
+              bracket = true;
+            } else {
+              final boolean processTokenList;
+              ParserState nextState = state;
+
+              if (")".equals(token)) {
+                if (!bracket) {
+                  throw new IllegalArgumentException("Unexpected closing bracket in " + state);
+                }
+                bracket = false;
+                processTokenList = !tokenList.isEmpty();
+                nextState = ParserState.FIND;
+              } else if ("//".equals(token)) {
+                findEol = true;
+                processTokenList = !bracket || !tokenList.isEmpty();
+                nextState = bracket ? state : ParserState.FIND;
+              } else if (token.contains("\n")) {
+                processTokenList = !bracket || !tokenList.isEmpty();
+                nextState = bracket ? state : ParserState.FIND;
+              } else {
+                if (!token.trim().isEmpty()) {
+                  tokenList.add(ensureNoQuoting(token));
+                }
+                processTokenList = false;
+              }
+
+              if (processTokenList) {
+                switch (state) {
+                  case MODULE: {
+                    final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
+                    tokenList.clear();
+                    while (!moduleInfos.isEmpty()) {
+                      foundItems.add(new GoModule(moduleInfos.remove(0)));
+                    }
+                  }
+                  break;
+                  case REQUIRE: {
+                    final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
+                    tokenList.clear();
+                    while (!moduleInfos.isEmpty()) {
+                      foundItems.add(new GoRequire(moduleInfos.remove(0)));
+                    }
+                  }
+                  break;
+                  case EXCLUDE: {
+                    final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
+                    tokenList.clear();
+                    while (!moduleInfos.isEmpty()) {
+                      foundItems.add(new GoExclude(moduleInfos.remove(0)));
+                    }
+                  }
+                  break;
+                  case REPLACE: {
+                    final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList, "=>");
+                    tokenList.clear();
+                    while (!moduleInfos.isEmpty()) {
+                      final ModuleInfo from = moduleInfos.remove(0);
+                      if (moduleInfos.isEmpty()) {
+                        throw new IllegalArgumentException("Can't find target in replace");
+                      }
+                      final ModuleInfo to = moduleInfos.remove(0);
+                      foundItems.add(new GoReplace(from, to));
+                    }
+                  }
+                  break;
+                  default:
+                    throw new Error("Unexpected: " + state);
+                }
+              }
+
+              state = nextState;
+            }
+          }
+          break;
+        }
+      }
+    }
+
+    if (!tokenList.isEmpty()) {
+      switch (state) {
+        case MODULE: {
+          final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
+          tokenList.clear();
+          while (!moduleInfos.isEmpty()) {
+            foundItems.add(new GoModule(moduleInfos.remove(0)));
+          }
+        }
+        break;
+        case REQUIRE: {
+          final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
+          tokenList.clear();
+          while (!moduleInfos.isEmpty()) {
+            foundItems.add(new GoRequire(moduleInfos.remove(0)));
+          }
+        }
+        break;
+        case EXCLUDE: {
+          final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList);
+          tokenList.clear();
+          while (!moduleInfos.isEmpty()) {
+            foundItems.add(new GoExclude(moduleInfos.remove(0)));
+          }
+        }
+        break;
+        case REPLACE: {
+          final List<ModuleInfo> moduleInfos = extractModuleInfo(tokenList, "=>");
+          tokenList.clear();
+          while (!moduleInfos.isEmpty()) {
+            final ModuleInfo from = moduleInfos.remove(0);
+            if (moduleInfos.isEmpty()) {
+              throw new IllegalArgumentException("Can't find target in replace");
+            }
+            final ModuleInfo to = moduleInfos.remove(0);
+            foundItems.add(new GoReplace(from, to));
+          }
+        }
+        break;
+        case CUSTOM: {
+          foundItems.add(new GoCustom(customTokenName, tokenList.toArray(new String[0])));
+        }
+        break;
+        default:
+          break;
+      }
+    }
+
+    return foundItems;
+  }
+
+  private enum ParserState {
+    FIND,
+    MODULE,
+    REQUIRE,
+    REPLACE,
+    EXCLUDE,
+    CUSTOM
+  }
+}
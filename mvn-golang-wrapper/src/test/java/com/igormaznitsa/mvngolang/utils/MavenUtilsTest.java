@@ -19,11 +19,46 @@ package com.igormaznitsa.mvngolang.utils;
 import static org.junit.Assert.assertEquals;
 
 
+import com.igormaznitsa.mvngolang.GolangMvnInstallMojo;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.shared.transfer.artifact.ArtifactCoordinate;
+import org.apache.maven.shared.transfer.artifact.resolve.ArtifactResolver;
+import org.apache.maven.shared.transfer.artifact.resolve.ArtifactResult;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class MavenUtilsTest {
 
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static DefaultArtifact makeGolangArtifact(final String artifactId) {
+    return new DefaultArtifact("com.igormaznitsa", artifactId, "1.0", "compile", "mvn-golang",
+        null, new MvnGolangArtifactHandler());
+  }
+
   @Test
   public void testArtifactWithVersion() throws Exception {
     final DefaultArtifact artifact =
@@ -60,4 +95,120 @@ public class MavenUtilsTest {
         new MvnGolangArtifactHandler()));
   }
 
+  @Test
+  public void testMakeDependencyRecords() {
+    final DefaultArtifact golang =
+        new DefaultArtifact("com.igormaznitsa", "golang-lib", "1.0", "compile", "mvn-golang", null,
+            new MvnGolangArtifactHandler());
+    final DefaultArtifact jar =
+        new DefaultArtifact("com.igormaznitsa", "java-lib", "1.0", "compile", "jar", null,
+            new MvnGolangArtifactHandler());
+    final DefaultArtifact parentGolang =
+        new DefaultArtifact("com.igormaznitsa", "parent-golang-lib", "2.0", "compile", "mvn-golang",
+            null, new MvnGolangArtifactHandler());
+
+    final MavenProject parent = new MavenProject();
+    parent.setDependencyArtifacts(Collections.singleton(parentGolang));
+    final MavenProject project = new MavenProject();
+    project.setDependencyArtifacts(new LinkedHashSet<>(Arrays.<Artifact>asList(golang, jar)));
+    project.setParent(parent);
+
+    assertEquals(Arrays.asList(MavenUtils.makeArtifactRecord(golang),
+        MavenUtils.makeArtifactRecord(parentGolang)), MavenUtils.makeDependencyRecords(project));
+    assertEquals("com.igormaznitsa:golang-lib:1.0", MavenUtils.makeProjectKey(golang));
+  }
+
+  private File makeArchive(final String name, final DefaultArtifact... dependencies)
+      throws Exception {
+    final File result = this.tempFolder.newFile(name + ".zip");
+    try (final ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(result))) {
+      zip.putNextEntry(new ZipEntry(GolangMvnInstallMojo.MVNGOLANG_DEPENDENCIES_FILE));
+      final StringBuilder buffer = new StringBuilder();
+      for (final DefaultArtifact a : dependencies) {
+        buffer.append(MavenUtils.makeArtifactRecord(a)).append('\n');
+      }
+      zip.write(buffer.toString().getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+    return result;
+  }
+
+  private static List<String> scanArtifactIds(final MavenProject project,
+                                              final Map<String, File> archives,
+                                              final Map<String, AtomicInteger> resolveCounters,
+                                              final int threads) throws Exception {
+    // the first artifacts of a level are resolved the longest
+    final ArtifactResolver resolver = new ArtifactResolver() {
+      @Override
+      public ArtifactResult resolveArtifact(final ProjectBuildingRequest request,
+                                            final Artifact artifact) {
+        resolveCounters.computeIfAbsent(artifact.getArtifactId(), k -> new AtomicInteger())
+            .incrementAndGet();
+        try {
+          Thread.sleep(('z' - artifact.getArtifactId().charAt(0)) * 3L);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        final Artifact resolved = new DefaultArtifact(artifact.getGroupId(),
+            artifact.getArtifactId(), artifact.getVersion(), artifact.getScope(),
+            artifact.getType(), artifact.getClassifier(), artifact.getArtifactHandler());
+        resolved.setFile(archives.get(artifact.getArtifactId()));
+        return () -> resolved;
+      }
+
+      @Override
+      public ArtifactResult resolveArtifact(final ProjectBuildingRequest request,
+                                            final ArtifactCoordinate coordinate) {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    final MavenSession session = new MavenSession(null, null, new DefaultMavenExecutionRequest(),
+        new DefaultMavenExecutionResult());
+    final AbstractMojo mojo = new AbstractMojo() {
+      @Override
+      public void execute() {
+      }
+    };
+
+    final List<String> result = new ArrayList<>();
+    for (final Tuple<Artifact, File> t : MavenUtils.scanForMvnGoArtifacts(project, false, false,
+        mojo, session, null, resolver, Collections.emptyList(), threads, null)) {
+      assertEquals(archives.get(t.left().getArtifactId()), t.right());
+      result.add(t.left().getArtifactId());
+    }
+    return result;
+  }
+
+  @Test
+  public void testScanForMvnGoArtifactsLevelByLevel() throws Exception {
+    final DefaultArtifact a = makeGolangArtifact("a");
+    final DefaultArtifact b = makeGolangArtifact("b");
+    final DefaultArtifact c = makeGolangArtifact("c");
+    final DefaultArtifact d = makeGolangArtifact("d");
+    final DefaultArtifact e = makeGolangArtifact("e");
+    final DefaultArtifact f = makeGolangArtifact("f");
+
+    // diamonds a -> c,d -> e and b -> d,c -> e, and e -> f
+    final Map<String, File> archives = new HashMap<>();
+    archives.put("a", makeArchive("a", c, d));
+    archives.put("b", makeArchive("b", d, c));
+    archives.put("c", makeArchive("c", e));
+    archives.put("d", makeArchive("d", e));
+    archives.put("e", makeArchive("e", f));
+    archives.put("f", makeArchive("f"));
+
+    final MavenProject project = new MavenProject();
+    project.setDependencyArtifacts(new LinkedHashSet<>(Arrays.<Artifact>asList(a, b)));
+
+    final List<String> expected = Arrays.asList("a", "b", "c", "d", "e", "f");
+    for (final int threads : new int[] {1, 4}) {
+      final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+      assertEquals("threads=" + threads, expected,
+          scanArtifactIds(project, archives, counters, threads));
+      for (final String id : expected) {
+        assertEquals("threads=" + threads + ", " + id, 1, counters.get(id).get());
+      }
+    }
+  }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MemoryAdmissionTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static void write(final File folder, final String name, final String text)
+      throws IOException {
+    assertTrue(folder.isDirectory() || folder.mkdirs());
+    Files.write(new File(folder, name).toPath(), text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testParseMemInfo() {
+    assertEquals(2048L * 1024L, MemoryAdmission.parseMemInfo(Arrays.asList(
+        "MemTotal:       16384 kB",
+        "MemFree:         1024 kB",
+        "MemAvailable:    2048 kB")));
+    assertEquals(1024L * 1024L, MemoryAdmission.parseMemInfo(Arrays.asList(
+        "MemTotal:       16384 kB",
+        "MemFree:         1024 kB")));
+    assertEquals(-1L, MemoryAdmission.parseMemInfo(Arrays.asList("Buffers: 10 kB", "")));
+  }
+
+  @Test
+  public void testParseCgroupAvailable() {
+    assertEquals(300L, MemoryAdmission.parseCgroupAvailable("1000", "700"));
+    assertEquals(0L, MemoryAdmission.parseCgroupAvailable("1000", "1200"));
+    assertEquals(-1L, MemoryAdmission.parseCgroupAvailable("max", "700"));
+    assertEquals(-1L, MemoryAdmission.parseCgroupAvailable("9223372036854771712", "700"));
+    assertEquals(-1L, MemoryAdmission.parseCgroupAvailable(null, "700"));
+  }
+
+  @Test
+  public void testReadCgroupAvailable() throws Exception {
+    final File root = this.tempFolder.newFolder("cgroup");
+    assertEquals(-1L, MemoryAdmission.readCgroupAvailable(root, null));
+
+    // v1, limit on nested cgroup of process
+    final File memory = new File(root, "memory");
+    write(memory, "memory.limit_in_bytes", "9223372036854771712\n");
+    write(memory, "memory.usage_in_bytes", "5000\n");
+    write(new File(memory, "docker/abc"), "memory.limit_in_bytes", "1000\n");
+    write(new File(memory, "docker/abc"), "memory.usage_in_bytes", "400\n");
+    final List<String> v1 = Arrays.asList(
+        "12:cpu,cpuacct:/docker/abc", "11:memory:/docker/abc", "1:name=systemd:/docker/abc");
+    assertEquals(600L, MemoryAdmission.readCgroupAvailable(root, v1));
+    assertEquals(-1L, MemoryAdmission.readCgroupAvailable(root, null));
+
+    // v2, limit on parent of nested cgroup is used too
+    write(root, "memory.max", "max\n");
+    write(root, "memory.current", "5000\n");
+    write(new File(root, "kubepods/pod"), "memory.max", "800\n");
+    write(new File(root, "kubepods/pod"), "memory.current", "300\n");
+    write(new File(root, "kubepods/pod/container"), "memory.max", "max\n");
+    write(new File(root, "kubepods/pod/container"), "memory.current", "250\n");
+    assertEquals(500L, MemoryAdmission.readCgroupAvailable(root,
+        Collections.singletonList("0::/kubepods/pod/container")));
+
+    // v2 without limit falls back to v1, cgroup outside of namespace is the mounted root
+    assertEquals(600L, MemoryAdmission.readCgroupAvailable(root,
+        Arrays.asList("0::/", "11:memory:/docker/abc")));
+    assertEquals(-1L, MemoryAdmission.readCgroupAvailable(root,
+        Collections.singletonList("0::/../outside")));
+  }
+
+  @Test
+  public void testAdmission() throws Exception {
+    final AtomicLong available = new AtomicLong(300L);
+    final MemoryAdmission admission = new MemoryAdmission(100L, 50L, available::get);
+
+    final MemoryAdmission.Ticket first = admission.admit();
+    final MemoryAdmission.Ticket second = admission.admit();
+    assertEquals(100L, first.getShare());
+    assertEquals(250L, first.getLimit());
+    assertFalse(second.isTight());
+    assertEquals(150L, second.getLimit());
+
+    final CompletableFuture<MemoryAdmission.Ticket> third = CompletableFuture.supplyAsync(() -> {
+      try {
+        return admission.admit();
+      } catch (InterruptedException ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+    try {
+      third.get(300L, TimeUnit.MILLISECONDS);
+      throw new AssertionError("Must wait for memory");
+    } catch (TimeoutException ex) {
+      // expected
+    }
+
+    first.close();
+    first.close();
+    final MemoryAdmission.Ticket admitted = third.get(5L, TimeUnit.SECONDS);
+    assertEquals(100L, admitted.getShare());
+    assertTrue(admitted.getWaitMillis() > 0L);
+  }
+
+  @Test(timeout = 10000L)
+  public void testConsumedMemoryIsNotCountedTwice() throws Exception {
+    final AtomicLong available = new AtomicLong(300L);
+    final MemoryAdmission admission = new MemoryAdmission(100L, 50L, available::get);
+
+    // every admitted process consumes its share at once
+    final MemoryAdmission.Ticket first = admission.admit();
+    available.addAndGet(-first.getShare());
+    final MemoryAdmission.Ticket second = admission.admit();
+    assertEquals(100L, second.getShare());
+    assertEquals(200L, second.getAvailable());
+    available.addAndGet(-second.getShare());
+
+    final CompletableFuture<MemoryAdmission.Ticket> third = CompletableFuture.supplyAsync(() -> {
+      try {
+        return admission.admit();
+      } catch (InterruptedException ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+    try {
+      third.get(300L, TimeUnit.MILLISECONDS);
+      throw new AssertionError("Must wait for memory");
+    } catch (TimeoutException ex) {
+      // expected
+    }
+
+    first.close();
+    available.addAndGet(first.getShare());
+    final MemoryAdmission.Ticket admitted = third.get(5L, TimeUnit.SECONDS);
+    assertEquals(200L, admitted.getAvailable());
+    assertFalse(admitted.isTight());
+  }
+
+  @Test
+  public void testSingleProcessIsAlwaysAdmitted() throws Exception {
+    final MemoryAdmission admission = new MemoryAdmission(400L, 100L, () -> 200L);
+    final MemoryAdmission.Ticket ticket = admission.admit();
+    assertEquals(100L, ticket.getShare());
+    assertEquals(100L, ticket.getLimit());
+    assertTrue(ticket.isTight());
+    ticket.close();
+
+    assertEquals(1000L, new MemoryAdmission(1000L, 100L, () -> -1L).admit().getShare());
+  }
+}
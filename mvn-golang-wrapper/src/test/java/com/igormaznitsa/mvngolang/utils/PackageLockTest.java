@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PackageLockTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    final PackageList.Package tagged =
+        new PackageList.Package("github.com/some/lib", null, "v1.0.0", null);
+    final PackageList.Package plain =
+        new PackageList.Package("github.com/other/lib", null, null, null);
+
+    final PackageLock lock = new PackageLock();
+    assertTrue(lock.isEmpty());
+    lock.put(tagged, "1111");
+    lock.put(plain, "2222");
+    lock.put(plain, "3333");
+
+    final File file = new File(this.tempFolder.getRoot(), "get.lock");
+    lock.write(file);
+
+    final PackageLock read = PackageLock.read(file);
+    assertEquals("1111", read.find(tagged));
+    assertEquals("3333", read.find(plain));
+    assertNull(read.find(new PackageList.Package("github.com/some/lib", null, "v2.0.0", null)));
+    assertNull(read.find(new PackageList.Package("github.com/unknown/lib", null, null, null)));
+
+    assertTrue(PackageLock.read(new File(this.tempFolder.getRoot(), "missing.lock")).isEmpty());
+  }
+
+  @Test
+  public void testMatches() {
+    final PackageList.Package first = new PackageList.Package("a.b/first", "main", null, null);
+    final PackageList.Package second = new PackageList.Package("a.b/second", null, null, "abc");
+
+    final PackageLock lock = new PackageLock();
+    lock.put(first, "1");
+    lock.put(second, "2");
+
+    final Map<PackageList.Package, String> current = new LinkedHashMap<>();
+    current.put(first, "1");
+    current.put(second, "2");
+    assertTrue(lock.matches(current));
+
+    current.put(second, "3");
+    assertFalse(lock.matches(current));
+
+    current.put(second, null);
+    assertFalse(lock.matches(current));
+  }
+}
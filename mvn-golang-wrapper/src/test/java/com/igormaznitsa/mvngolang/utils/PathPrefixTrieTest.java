@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class PathPrefixTrieTest {
+
+  @Test
+  public void testFindRemainders() {
+    final PathPrefixTrie trie = new PathPrefixTrie(Arrays.asList("src/", "src/sub/", "res/", "res/"));
+    assertEquals(3, trie.size());
+
+    assertEquals(Arrays.asList("a.go"), trie.findRemainders("src/a.go"));
+    assertEquals(Arrays.asList("sub/b.go", "b.go"), trie.findRemainders("src/sub/b.go"));
+    assertEquals(Arrays.asList("x/y/z.txt"), trie.findRemainders("res/x/y/z.txt"));
+    assertTrue(trie.findRemainders("srcx/a.go").isEmpty());
+    assertTrue(trie.findRemainders("src/").isEmpty());
+    assertTrue(trie.findRemainders("a.go").isEmpty());
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SourceTreeScannerTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static void makeFile(final File root, final String path) throws IOException {
+    FileUtils.write(new File(root, path), path, StandardCharsets.UTF_8);
+  }
+
+  private static void makeOld(final File folder) {
+    final long time = System.currentTimeMillis() - 60000L;
+    for (final File f : FileUtils.listFilesAndDirs(folder, TrueFileFilter.INSTANCE,
+        TrueFileFilter.INSTANCE)) {
+      assertTrue(f.setLastModified(time));
+    }
+  }
+
+  @Test
+  public void testScanPrunesFolders() throws Exception {
+    final File root = this.tempFolder.newFolder("src");
+    makeFile(root, "go.mod");
+    makeFile(root, "a/go.mod");
+    makeFile(root, "a/b/c/go.mod");
+    makeFile(root, "a/b/c/.bak");
+    makeFile(root, "a/main.go");
+    makeFile(root, "vendor/x/go.mod");
+    makeFile(root, ".git/go.mod");
+    makeFile(root, "a/testdata/go.mod");
+    makeFile(root, "node_modules/go.mod");
+
+    final Map<String, List<File>> found =
+        new SourceTreeScanner(Arrays.asList("go.mod", ".bak")).scan(root);
+    assertEquals(Arrays.asList(new File(root, "a/b/c/go.mod"), new File(root, "a/go.mod"),
+        new File(root, "go.mod")), found.get("go.mod"));
+    assertEquals(Arrays.asList(new File(root, "a/b/c/.bak")), found.get(".bak"));
+  }
+
+  @Test
+  public void testScanResultIsCachedUntilFolderChanged() throws Exception {
+    final File root = this.tempFolder.newFolder("src");
+    makeFile(root, "a/go.mod");
+    makeFile(root, "b/c/main.go");
+    makeOld(root);
+
+    final SourceTreeScanner scanner = new SourceTreeScanner(Arrays.asList("go.mod", ".bak"));
+    assertEquals(1, scanner.scan(root).get("go.mod").size());
+    assertTrue(scanner.scan(root).get(".bak").isEmpty());
+
+    final List<File> returned = scanner.scan(root).get("go.mod");
+    returned.clear();
+    assertEquals(1, scanner.scan(root).get("go.mod").size());
+
+    makeFile(root, "b/c/go.mod");
+    assertEquals(Arrays.asList(new File(root, "a/go.mod"), new File(root, "b/c/go.mod")),
+        scanner.scan(root).get("go.mod"));
+
+    assertTrue(new File(root, "a/go.mod").delete());
+    assertEquals(Arrays.asList(new File(root, "b/c/go.mod")), scanner.scan(root).get("go.mod"));
+  }
+
+  @Test
+  public void testScanOfMissingFolder() throws Exception {
+    final Map<String, List<File>> found = new SourceTreeScanner(Arrays.asList("go.mod"))
+        .scan(new File(this.tempFolder.getRoot(), "missing"));
+    assertTrue(found.get("go.mod").isEmpty());
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+
+import java.io.File;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class VcsMirrorStoreTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testFindMirrorFolder() {
+    final VcsMirrorStore store = new VcsMirrorStore(this.tempFolder.getRoot());
+    final File mirror = store.findMirrorFolder("GIT", "https://github.com/some/lib");
+
+    assertEquals(new File(this.tempFolder.getRoot(), "git"), mirror.getParentFile());
+    assertEquals(mirror, store.findMirrorFolder("GIT", " https://github.com/some/lib "));
+    assertNotEquals(mirror, store.findMirrorFolder("GIT", "https://github.com/other/lib"));
+    assertNotEquals(mirror, store.findMirrorFolder("HG", "https://github.com/some/lib"));
+  }
+
+  @Test
+  public void testLocked() throws Exception {
+    final VcsMirrorStore store = new VcsMirrorStore(this.tempFolder.getRoot());
+    final File mirror = store.findMirrorFolder("git", "https://github.com/some/lib");
+
+    assertEquals("done", store.locked(mirror, () -> store.locked(
+        store.findMirrorFolder("git", "https://github.com/other/lib"), () -> "done")));
+    assertTrue(new File(mirror.getAbsolutePath() + ".lock").isFile());
+  }
+}